@@ -10,6 +10,8 @@
  ******************************************************************************/
 package com.eclipsesource.jshint.ui.internal;
 
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.jface.resource.ImageDescriptor;
@@ -17,20 +19,36 @@ import org.eclipse.ui.plugin.AbstractUIPlugin;
 import org.eclipse.ui.statushandlers.StatusManager;
 import org.osgi.framework.BundleContext;
 
+import com.eclipsesource.jshint.ui.internal.builder.CheckScheduler;
+import com.eclipsesource.jshint.ui.internal.builder.EngineCache;
+
 
 public class Activator extends AbstractUIPlugin {
 
   public static final String PLUGIN_ID = "com.eclipsesource.jshint.ui"; //$NON-NLS-1$
   private static Activator instance;
+  private EngineCache engineCache;
+  private CheckScheduler checkScheduler;
 
   @Override
   public void start( BundleContext context ) throws Exception {
     super.start( context );
     instance = this;
+    engineCache = new EngineCache();
+    checkScheduler = new CheckScheduler();
+    int eventMask = IResourceChangeEvent.PRE_CLOSE | IResourceChangeEvent.PRE_DELETE;
+    ResourcesPlugin.getWorkspace().addResourceChangeListener( engineCache, eventMask );
+    ResourcesPlugin.getWorkspace().addResourceChangeListener( checkScheduler, eventMask );
   }
 
   @Override
   public void stop( BundleContext context ) throws Exception {
+    ResourcesPlugin.getWorkspace().removeResourceChangeListener( checkScheduler );
+    checkScheduler.cancelAll();
+    checkScheduler = null;
+    ResourcesPlugin.getWorkspace().removeResourceChangeListener( engineCache );
+    engineCache.clear();
+    engineCache = null;
     instance = null;
     super.stop( context );
   }
@@ -44,6 +62,24 @@ public class Activator extends AbstractUIPlugin {
     return instance;
   }
 
+  /**
+   * Returns the cache of loaded JSHint instances, which is shared by all builds.
+   *
+   * @return the engine cache
+   */
+  public EngineCache getEngineCache() {
+    return engineCache;
+  }
+
+  /**
+   * Returns the scheduler for checks that run in the background, outside of the build.
+   *
+   * @return the check scheduler
+   */
+  public CheckScheduler getCheckScheduler() {
+    return checkScheduler;
+  }
+
   /**
    * Returns an image descriptor for the image file at the given plug-in
    * relative path
@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Ralf Sternberg - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint.ui.internal.builder;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
+import org.eclipse.core.runtime.jobs.Job;
+
+import com.eclipsesource.jshint.CheckResult;
+import com.eclipsesource.jshint.JSHint;
+import com.eclipsesource.jshint.JSHintPool;
+import com.eclipsesource.jshint.Text;
+import com.eclipsesource.jshint.ui.internal.Activator;
+
+
+/**
+ * Checks the files of a project outside of the workspace build. The builder only adds the files
+ * that need to be checked. The job itself does not hold a scheduling rule while checking. To update
+ * the markers of a file, it only acquires the marker rule of that file, so that other builders and
+ * editors are not blocked.
+ * <p>
+ * Files that are added while the job is running are checked in the same run. A file that is added
+ * again before it has been checked is checked only once. A file that cannot be read or checked
+ * is logged and skipped, the remaining files are still checked.
+ * </p>
+ */
+public class CheckJob extends Job {
+
+  public static final Object FAMILY = CheckJob.class;
+
+  private final IProject project;
+  private final Set<IFile> pendingFiles;
+
+  public CheckJob( IProject project ) {
+    super( "JSHint check of project " + project.getName() );
+    this.project = project;
+    pendingFiles = new LinkedHashSet<IFile>();
+    setPriority( Job.BUILD );
+  }
+
+  /**
+   * Adds files to check and schedules the job.
+   *
+   * @param files
+   *          the files to check
+   */
+  public void addFiles( Collection<IFile> files ) {
+    synchronized( pendingFiles ) {
+      pendingFiles.addAll( files );
+    }
+    schedule();
+  }
+
+  @Override
+  public boolean belongsTo( Object family ) {
+    return family == FAMILY;
+  }
+
+  @Override
+  protected IStatus run( IProgressMonitor monitor ) {
+    try {
+      if( !project.isAccessible() ) {
+        clearPendingFiles();
+        return Status.OK_STATUS;
+      }
+      JSHintPool pool = Activator.getDefault().getEngineCache().getPool( project );
+      IFile file = nextFile();
+      while( file != null ) {
+        if( monitor.isCanceled() ) {
+          clearPendingFiles();
+          return Status.CANCEL_STATUS;
+        }
+        if( file.exists() ) {
+          monitor.subTask( file.getFullPath().toPortableString() );
+          checkSafely( pool, file, monitor );
+        }
+        file = nextFile();
+      }
+    } catch( CoreException exception ) {
+      return exception.getStatus();
+    } catch( InterruptedException exception ) {
+      clearPendingFiles();
+      return Status.CANCEL_STATUS;
+    } finally {
+      monitor.done();
+    }
+    return Status.OK_STATUS;
+  }
+
+  private static void checkSafely( JSHintPool pool, IFile file, IProgressMonitor monitor )
+    throws InterruptedException
+  {
+    try {
+      check( pool, file, monitor );
+    } catch( CoreException exception ) {
+      // e.g. the file is out of sync with the file system
+      Activator.logError( "Failed checking file " + file.getFullPath().toPortableString(),
+                          exception );
+    } catch( OperationCanceledException exception ) {
+      throw exception;
+    } catch( RuntimeException exception ) {
+      Activator.logError( exception.getMessage(), exception );
+    }
+  }
+
+  private static void check( JSHintPool pool, final IFile file, IProgressMonitor monitor )
+    throws CoreException, InterruptedException
+  {
+    final Text code = JSHintBuilderVisitor.readContent( file );
+    final CheckResult result;
+    JSHint jshint = pool.borrow();
+    try {
+      result = jshint.check( code );
+    } catch( RuntimeException exception ) {
+      String message = "Failed checking file " + file.getFullPath().toPortableString();
+      throw new RuntimeException( message, exception );
+    } finally {
+      pool.release( jshint );
+    }
+    IWorkspace workspace = ResourcesPlugin.getWorkspace();
+    ISchedulingRule rule = workspace.getRuleFactory().markerRule( file );
+    IWorkspaceRunnable runnable = new IWorkspaceRunnable() {
+      public void run( IProgressMonitor monitor ) throws CoreException {
+        // the file may have been deleted while it was checked
+        if( file.exists() ) {
+          JSHintBuilderVisitor.createMarkers( file, code, result );
+        }
+      }
+    };
+    workspace.run( runnable, rule, IWorkspace.AVOID_UPDATE, monitor );
+  }
+
+  private IFile nextFile() {
+    synchronized( pendingFiles ) {
+      Iterator<IFile> iterator = pendingFiles.iterator();
+      if( !iterator.hasNext() ) {
+        return null;
+      }
+      IFile file = iterator.next();
+      iterator.remove();
+      return file;
+    }
+  }
+
+  private void clearPendingFiles() {
+    synchronized( pendingFiles ) {
+      pendingFiles.clear();
+    }
+  }
+
+}
@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Ralf Sternberg - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint.ui.internal.builder;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.runtime.jobs.Job;
+
+
+/**
+ * Keeps one {@link CheckJob} per project, so that the files of subsequent builds are added to the
+ * job that is already scheduled or running. The job of a project is cancelled and dropped when the
+ * project is closed or deleted. Instances of this class can be accessed concurrently.
+ */
+public class CheckScheduler implements IResourceChangeListener {
+
+  private final Map<IProject, CheckJob> jobs;
+
+  public CheckScheduler() {
+    jobs = new HashMap<IProject, CheckJob>();
+  }
+
+  /**
+   * Schedules the given files of a project to be checked in the background.
+   *
+   * @param project
+   *          the project that contains the files
+   * @param files
+   *          the files to check
+   */
+  public synchronized void schedule( IProject project, Collection<IFile> files ) {
+    CheckJob job = jobs.get( project );
+    if( job == null ) {
+      job = new CheckJob( project );
+      jobs.put( project, job );
+    }
+    job.addFiles( files );
+  }
+
+  /**
+   * Cancels and drops the job of the given project, pending files are discarded.
+   *
+   * @param project
+   *          the project to drop the job for
+   */
+  public synchronized void remove( IProject project ) {
+    CheckJob job = jobs.remove( project );
+    if( job != null ) {
+      job.cancel();
+    }
+  }
+
+  /**
+   * Cancels all jobs, pending files are discarded.
+   */
+  public synchronized void cancelAll() {
+    jobs.clear();
+    Job.getJobManager().cancel( CheckJob.FAMILY );
+  }
+
+  synchronized CheckJob getJob( IProject project ) {
+    return jobs.get( project );
+  }
+
+  public void resourceChanged( IResourceChangeEvent event ) {
+    IResource resource = event.getResource();
+    if( resource instanceof IProject ) {
+      remove( ( IProject )resource );
+    }
+  }
+
+}
@@ -22,7 +22,7 @@ import com.eclipsesource.jshint.ui.internal.preferences.OptionsPreferences;
 import com.eclipsesource.jshint.ui.internal.preferences.PreferencesFactory;
 import com.eclipsesource.json.JsonObject;
 
-import static com.eclipsesource.jshint.ui.internal.builder.CommentsFilter.filterComments;
+import static com.eclipsesource.jshint.internal.CommentsFilter.filterComments;
 import static com.eclipsesource.jshint.ui.internal.util.IOUtil.readFileUtf8;
 
 
@@ -43,6 +43,26 @@ public class ConfigLoader {
     return getWorkspaceConfig();
   }
 
+  /**
+   * Returns a string that changes whenever the configuration returned by
+   * {@link #getConfiguration()} may have changed. The configuration file is not read, only its
+   * modification stamp is used.
+   *
+   * @return a string that identifies the current state of the configuration
+   */
+  public String getConfigurationStamp() {
+    Preferences projectNode = PreferencesFactory.getProjectPreferences( project );
+    OptionsPreferences projectPreferences = new OptionsPreferences( projectNode );
+    if( projectPreferences.getProjectSpecific() ) {
+      IFile configFile = getProjectConfigFile();
+      if( configFile.exists() ) {
+        return "file:" + configFile.getModificationStamp();
+      }
+      return "project:" + projectPreferences.getConfig();
+    }
+    return "workspace:" + getWorkspaceConfigJson();
+  }
+
   private JsonObject getProjectConfig( OptionsPreferences projectPrefs ) {
     try {
       String json = getProjectConfigJson( projectPrefs );
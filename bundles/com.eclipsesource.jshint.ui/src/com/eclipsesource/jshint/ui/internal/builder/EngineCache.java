@@ -0,0 +1,170 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Ralf Sternberg - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint.ui.internal.builder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+
+import com.eclipsesource.jshint.JSHintPool;
+import com.eclipsesource.jshint.ui.internal.Activator;
+import com.eclipsesource.jshint.ui.internal.preferences.JSHintPreferences;
+
+
+/**
+ * Keeps a pool of loaded and configured JSHint instances for every project, so that builds do not
+ * have to load the library again. The pool lets a build check several files in parallel. A pool is
+ * replaced when the library changes, reconfigured when the configuration of the project changes,
+ * and dropped when the project is closed or deleted.
+ * <p>
+ * To detect changes, only the path, modification time and length of a custom library and the
+ * modification stamp of the configuration file are compared. Neither the library nor the
+ * configuration is read unless it has changed.
+ * </p>
+ * <p>
+ * Instances of this class can be accessed concurrently. Pools are created while holding a lock
+ * of the project only, so loading a slow custom library does not block the builds of other
+ * projects.
+ * </p>
+ */
+public class EngineCache implements IResourceChangeListener {
+
+  // The compiled library is shared, but every instance runs it to create its own scope, which is
+  // expensive and held in memory as long as the pool is used
+  private static final int MAX_POOL_SIZE = 4;
+
+  private final Map<IProject, Entry> entries;
+
+  public EngineCache() {
+    entries = new HashMap<IProject, Entry>();
+  }
+
+  /**
+   * Returns a pool of JSHint instances for the given project that use the current library and
+   * configuration. A new pool is created if there is none or if the library has changed.
+   *
+   * @param project
+   *          the project to get the pool for
+   * @return a pool of loaded and configured JSHint instances
+   * @throws CoreException
+   *           if the library cannot be loaded
+   */
+  public JSHintPool getPool( IProject project ) throws CoreException {
+    ConfigLoader configLoader = new ConfigLoader( project );
+    JSHintPreferences globalPrefs = new JSHintPreferences();
+    String libraryStamp = getLibraryStamp( globalPrefs );
+    String configStamp = configLoader.getConfigurationStamp();
+    Entry entry = getEntry( project );
+    synchronized( entry ) {
+      if( entry.pool == null || !entry.libraryStamp.equals( libraryStamp ) ) {
+        entry.pool = loadPool( globalPrefs );
+        entry.libraryStamp = libraryStamp;
+        entry.configStamp = null;
+      }
+      if( !configStamp.equals( entry.configStamp ) ) {
+        entry.pool.configure( configLoader.getConfiguration() );
+        entry.configStamp = configStamp;
+      }
+      return entry.pool;
+    }
+  }
+
+  /**
+   * Drops the pool of the given project.
+   *
+   * @param project
+   *          the project to drop the pool for
+   */
+  public synchronized void remove( IProject project ) {
+    entries.remove( project );
+  }
+
+  public synchronized void clear() {
+    entries.clear();
+  }
+
+  public void resourceChanged( IResourceChangeEvent event ) {
+    IResource resource = event.getResource();
+    if( resource instanceof IProject ) {
+      remove( ( IProject )resource );
+    }
+  }
+
+  private synchronized Entry getEntry( IProject project ) {
+    Entry entry = entries.get( project );
+    if( entry == null ) {
+      entry = new Entry();
+      entries.put( project, entry );
+    }
+    return entry;
+  }
+
+  private static String getLibraryStamp( JSHintPreferences globalPrefs ) {
+    if( globalPrefs.getUseCustomLib() ) {
+      File file = new File( globalPrefs.getCustomLibPath() );
+      return "custom:" + file.getAbsolutePath() + ":" + file.lastModified() + ":" + file.length();
+    }
+    return "default";
+  }
+
+  private static JSHintPool loadPool( JSHintPreferences globalPrefs ) throws CoreException {
+    int size = Math.min( MAX_POOL_SIZE, Runtime.getRuntime().availableProcessors() );
+    JSHintPool pool = new JSHintPool( size );
+    try {
+      InputStream inputStream = getCustomLib( globalPrefs );
+      if( inputStream != null ) {
+        try {
+          pool.load( inputStream );
+        } finally {
+          inputStream.close();
+        }
+      } else {
+        pool.load();
+      }
+    } catch( IOException exception ) {
+      String message = "Failed to intialize JSHint";
+      Status status = new Status( IStatus.ERROR, Activator.PLUGIN_ID, message, exception );
+      throw new CoreException( status );
+    }
+    return pool;
+  }
+
+  private static InputStream getCustomLib( JSHintPreferences globalPrefs ) throws IOException {
+    if( globalPrefs.getUseCustomLib() ) {
+      File file = new File( globalPrefs.getCustomLibPath() );
+      return new FileInputStream( file );
+    }
+    return null;
+  }
+
+  /*
+   * Guarded by its own lock.
+   */
+  private static final class Entry {
+
+    JSHintPool pool;
+    String libraryStamp;
+    String configStamp;
+
+  }
+
+}
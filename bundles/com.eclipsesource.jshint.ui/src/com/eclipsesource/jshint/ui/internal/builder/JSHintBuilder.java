@@ -50,14 +50,26 @@ public class JSHintBuilder extends IncrementalProjectBuilder {
 
   private void fullBuild( IProgressMonitor monitor ) throws CoreException {
     IProject project = getProject();
-    getProject().accept( new JSHintBuilderVisitor( project, monitor ) );
+    JSHintBuilderVisitor visitor = new JSHintBuilderVisitor( project, monitor );
+    try {
+      getProject().accept( visitor );
+      visitor.finish();
+    } finally {
+      visitor.dispose();
+    }
   }
 
   private void incrementalBuild( IResourceDelta delta, IProgressMonitor monitor )
       throws CoreException
   {
     IProject project = getProject();
-    delta.accept( new JSHintBuilderVisitor( project, monitor ) );
+    JSHintBuilderVisitor visitor = new JSHintBuilderVisitor( project, monitor );
+    try {
+      delta.accept( visitor );
+      visitor.finish();
+    } finally {
+      visitor.dispose();
+    }
   }
 
   static class CoreExceptionWrapper extends RuntimeException {
@@ -11,13 +11,18 @@
 package com.eclipsesource.jshint.ui.internal.builder;
 
 import java.io.BufferedReader;
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
@@ -25,13 +30,19 @@ import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IResourceDelta;
 import org.eclipse.core.resources.IResourceDeltaVisitor;
 import org.eclipse.core.resources.IResourceVisitor;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRunnable;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
 import org.osgi.service.prefs.Preferences;
 
+import com.eclipsesource.jshint.CheckResult;
 import com.eclipsesource.jshint.JSHint;
+import com.eclipsesource.jshint.JSHintPool;
 import com.eclipsesource.jshint.ProblemHandler;
 import com.eclipsesource.jshint.Text;
 import com.eclipsesource.jshint.ui.internal.Activator;
@@ -42,18 +53,40 @@ import com.eclipsesource.jshint.ui.internal.preferences.PreferencesFactory;
 import com.eclipsesource.jshint.ui.internal.preferences.ResourceSelector;
 
 
+/*
+ * Files are checked in parallel with the instances of the project's pool while the resources are
+ * still being visited. Markers must be created in the build thread, which holds the workspace
+ * lock. Therefore, results are collected and markers are updated in batches, in the order in which
+ * the files have been visited. The markers of a file are only replaced when its check completes,
+ * so a cancelled build leaves the markers of unchecked files intact.
+ *
+ * When checking in the background is enabled, the visitor only collects the files to check and
+ * passes them to a CheckJob that runs after the build.
+ */
 class JSHintBuilderVisitor implements IResourceVisitor, IResourceDeltaVisitor {
 
-  private final JSHint checker;
+  private static final int BATCH_SIZE = 64;
+
+  private final IProject project;
+  private final boolean checkInBackground;
+  private final JSHintPool pool;
   private final ResourceSelector selector;
   private final IProgressMonitor monitor;
+  private final List<IFile> pendingFiles;
+  private final List<Future<FileCheck>> pendingChecks;
+  private ExecutorService executor;
 
   public JSHintBuilderVisitor( IProject project, IProgressMonitor monitor ) throws CoreException {
     Preferences node = PreferencesFactory.getProjectPreferences( project );
     new EnablementPreferences( node );
     selector = new ResourceSelector( project );
-    checker = selector.allowVisitProject() ? createJSHint( project ) : null;
+    this.project = project;
+    checkInBackground = new JSHintPreferences().getCheckInBackground();
+    // The background job gets the pool itself, the library may need to be loaded
+    pool = selector.allowVisitProject() && !checkInBackground ? getPool( project ) : null;
     this.monitor = monitor;
+    pendingFiles = new ArrayList<IFile>();
+    pendingChecks = new ArrayList<Future<FileCheck>>();
   }
 
   public boolean visit( IResourceDelta delta ) throws CoreException {
@@ -65,11 +98,13 @@ class JSHintBuilderVisitor implements IResourceVisitor, IResourceDeltaVisitor {
     boolean descend = false;
     if( resource.exists() && selector.allowVisitProject() && !monitor.isCanceled() ) {
       if( resource.getType() != IResource.FILE ) {
+        // Pruned folders are not touched, changes to the selection trigger a clean build
         descend = selector.allowVisitFolder( resource );
       } else {
-        clean( resource );
         if( selector.allowVisitFile( resource ) ) {
           check( (IFile)resource );
+        } else {
+          clean( resource );
         }
         descend = true;
       }
@@ -77,54 +112,131 @@ class JSHintBuilderVisitor implements IResourceVisitor, IResourceDeltaVisitor {
     return descend;
   }
 
-  private JSHint createJSHint( IProject project ) throws CoreException {
-    JSHint jshint = new JSHint();
+  /**
+   * Waits for all pending checks and updates the markers of the checked files, or schedules the
+   * checks in the background. Must be called after the visit.
+   */
+  public void finish() throws CoreException {
+    if( checkInBackground ) {
+      if( !pendingFiles.isEmpty() && !monitor.isCanceled() ) {
+        Activator.getDefault().getCheckScheduler().schedule( project, pendingFiles );
+      }
+      pendingFiles.clear();
+    } else {
+      updateMarkers();
+    }
+  }
+
+  /**
+   * Stops the worker threads. Must be called when the visitor is no longer used, also when the
+   * visit has failed.
+   */
+  public void dispose() {
+    if( executor != null ) {
+      executor.shutdownNow();
+    }
+  }
+
+  private static JSHintPool getPool( IProject project ) throws CoreException {
+    return Activator.getDefault().getEngineCache().getPool( project );
+  }
+
+  private void check( IFile file ) throws CoreException {
+    if( checkInBackground ) {
+      pendingFiles.add( file );
+      return;
+    }
+    if( executor == null ) {
+      executor = Executors.newFixedThreadPool( pool.getSize(), new WorkerFactory() );
+    }
+    pendingFiles.add( file );
+    pendingChecks.add( executor.submit( new CheckTask( file ) ) );
+    if( pendingChecks.size() >= BATCH_SIZE ) {
+      updateMarkers();
+    }
+  }
+
+  private void updateMarkers() throws CoreException {
+    final List<IFile> checkedFiles = new ArrayList<IFile>();
+    final List<FileCheck> checks = new ArrayList<FileCheck>();
     try {
-      InputStream inputStream = getCustomLib();
-      if( inputStream != null ) {
-        try {
-          jshint.load( inputStream );
-        } finally {
-          inputStream.close();
+      for( int i = 0; i < pendingChecks.size(); i++ ) {
+        if( monitor.isCanceled() ) {
+          cancel( pendingChecks.subList( i, pendingChecks.size() ) );
+          break;
+        }
+        FileCheck check = getResult( pendingChecks.get( i ) );
+        if( check != null ) {
+          checkedFiles.add( pendingFiles.get( i ) );
+          checks.add( check );
         }
-      } else {
-        jshint.load();
       }
-      jshint.configure( new ConfigLoader( project ).getConfiguration() );
-    } catch( IOException exception ) {
-      String message = "Failed to intialize JSHint";
-      throw new CoreException( new Status( IStatus.ERROR, Activator.PLUGIN_ID, message, exception ) );
+    } finally {
+      pendingFiles.clear();
+      pendingChecks.clear();
+    }
+    if( !checks.isEmpty() ) {
+      // Update all markers of the batch in one operation to send only one resource change event
+      IWorkspaceRunnable runnable = new IWorkspaceRunnable() {
+        public void run( IProgressMonitor monitor ) throws CoreException {
+          for( int i = 0; i < checks.size(); i++ ) {
+            FileCheck check = checks.get( i );
+            createMarkers( checkedFiles.get( i ), check.code, check.result );
+          }
+        }
+      };
+      IWorkspace workspace = project.getWorkspace();
+      ISchedulingRule rule = workspace.getRuleFactory().markerRule( project );
+      workspace.run( runnable, rule, IWorkspace.AVOID_UPDATE, monitor );
     }
-    return jshint;
   }
 
-  private void check( IFile file ) throws CoreException {
-    Text code = readContent( file );
-    ProblemHandler handler = new MarkerHandler( new MarkerAdapter( file ), code );
+  /*
+   * Existing markers that are still valid are not touched.
+   */
+  static void createMarkers( IFile file, Text code, CheckResult result ) throws CoreException {
+    MarkerReconciler reconciler = new MarkerReconciler( file );
+    ProblemHandler handler = new MarkerHandler( reconciler, code );
     try {
-      checker.check( code, handler );
+      result.report( handler );
     } catch( CoreExceptionWrapper wrapper ) {
       throw (CoreException)wrapper.getCause();
-    } catch( RuntimeException exception ) {
-      String message = "Failed checking file " + file.getFullPath().toPortableString();
-      throw new RuntimeException( message, exception );
     }
+    reconciler.apply();
   }
 
-  private static void clean( IResource resource ) throws CoreException {
-    new MarkerAdapter( resource ).removeMarkers();
+  private static FileCheck getResult( Future<FileCheck> future ) throws CoreException {
+    try {
+      return future.get();
+    } catch( InterruptedException exception ) {
+      Thread.currentThread().interrupt();
+      throw new OperationCanceledException();
+    } catch( ExecutionException exception ) {
+      Throwable cause = exception.getCause();
+      if( cause instanceof CoreException ) {
+        throw (CoreException)cause;
+      }
+      if( cause instanceof RuntimeException ) {
+        throw (RuntimeException)cause;
+      }
+      if( cause instanceof Error ) {
+        throw (Error)cause;
+      }
+      throw new RuntimeException( cause );
+    }
   }
 
-  private static InputStream getCustomLib() throws FileNotFoundException {
-    JSHintPreferences globalPrefs = new JSHintPreferences();
-    if( globalPrefs.getUseCustomLib() ) {
-      File file = new File( globalPrefs.getCustomLibPath() );
-      return new FileInputStream( file );
+  private static void cancel( List<Future<FileCheck>> checks ) {
+    for( Future<FileCheck> check : checks ) {
+      check.cancel( false );
     }
-    return null;
   }
 
-  private static Text readContent( IFile file ) throws CoreException {
+  private static void clean( IResource resource ) throws CoreException {
+    new MarkerAdapter( resource ).removeMarkers();
+  }
+
+  static Text readContent( IFile file ) throws CoreException {
     try {
       InputStream inputStream = file.getContents();
       String charset = file.getCharset();
@@ -148,4 +260,54 @@ class JSHintBuilderVisitor implements IResourceVisitor, IResourceDeltaVisitor {
     return result;
   }
 
+  private final class CheckTask implements Callable<FileCheck> {
+
+    private final IFile file;
+
+    CheckTask( IFile file ) {
+      this.file = file;
+    }
+
+    public FileCheck call() throws CoreException, InterruptedException {
+      if( monitor.isCanceled() ) {
+        return null;
+      }
+      Text code = readContent( file );
+      JSHint jshint = pool.borrow();
+      try {
+        return new FileCheck( code, jshint.check( code ) );
+      } catch( RuntimeException exception ) {
+        String message = "Failed checking file " + file.getFullPath().toPortableString();
+        throw new RuntimeException( message, exception );
+      } finally {
+        pool.release( jshint );
+      }
+    }
+
+  }
+
+  private static final class FileCheck {
+
+    final Text code;
+    final CheckResult result;
+
+    FileCheck( Text code, CheckResult result ) {
+      this.code = code;
+      this.result = result;
+    }
+
+  }
+
+  private static final class WorkerFactory implements ThreadFactory {
+
+    private int count;
+
+    public synchronized Thread newThread( Runnable runnable ) {
+      Thread thread = new Thread( runnable, "JSHint builder worker " + ++count );
+      thread.setDaemon( true );
+      return thread;
+    }
+
+  }
+
 }
@@ -10,6 +10,9 @@
  ******************************************************************************/
 package com.eclipsesource.jshint.ui.internal.builder;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
@@ -17,9 +20,9 @@ import org.eclipse.core.runtime.CoreException;
 
 public class MarkerAdapter {
 
-  private static final String TYPE_PROBLEM = "com.eclipsesource.jshint.ui.problemmarker";
-  private static final String TYPE_PROBLEM_OLD = "com.eclipsesource.jshint.problemmarker";
-  private final IResource resource;
+  static final String TYPE_PROBLEM = "com.eclipsesource.jshint.ui.problemmarker";
+  static final String TYPE_PROBLEM_OLD = "com.eclipsesource.jshint.problemmarker";
+  final IResource resource;
 
   public MarkerAdapter( IResource resource ) {
     this.resource = resource;
@@ -40,21 +43,33 @@ public class MarkerAdapter {
 
   private void createMarker( int line, int start, int end, String message, int severity )
       throws CoreException
+  {
+    Map<String, Object> attributes = createAttributes( line, start, end, message, severity );
+    // set all attributes at once, every call to setAttribute triggers a resource change
+    resource.createMarker( TYPE_PROBLEM ).setAttributes( attributes );
+  }
+
+  static Map<String, Object> createAttributes( int line,
+                                               int start,
+                                               int end,
+                                               String message,
+                                               int severity )
   {
     if( message == null ) {
       throw new NullPointerException( "message is null" );
     }
-    IMarker marker = resource.createMarker( TYPE_PROBLEM );
-    marker.setAttribute( IMarker.SEVERITY, severity );
-    marker.setAttribute( IMarker.MESSAGE, message );
+    Map<String, Object> attributes = new HashMap<String, Object>();
+    attributes.put( IMarker.SEVERITY, Integer.valueOf( severity ) );
+    attributes.put( IMarker.MESSAGE, message );
     if( line >= 1 ) {
       // needed to display line number in problems view location column
-      marker.setAttribute( IMarker.LINE_NUMBER, line );
+      attributes.put( IMarker.LINE_NUMBER, Integer.valueOf( line ) );
     }
     if( start >= 0 ) {
-      marker.setAttribute( IMarker.CHAR_START, new Integer( start ) );
-      marker.setAttribute( IMarker.CHAR_END, new Integer( end >= start ? end : start ) );
+      attributes.put( IMarker.CHAR_START, Integer.valueOf( start ) );
+      attributes.put( IMarker.CHAR_END, Integer.valueOf( end >= start ? end : start ) );
     }
+    return attributes;
   }
 
 }
@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Ralf Sternberg - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint.ui.internal.builder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.CoreException;
+
+
+/**
+ * A marker adapter that does not create markers immediately. Instead, the markers are collected
+ * and compared with the existing markers of the resource when <code>apply()</code> is called. Only
+ * markers that have been added are created and only markers that have disappeared are deleted.
+ * Markers that did not change are left untouched, so that a check without changes does not cause
+ * any resource change events. Markers are compared only by the attributes that are written by
+ * this class, other attributes that have been added to a marker are ignored.
+ */
+public class MarkerReconciler extends MarkerAdapter {
+
+  private static final String[] COMPARED_ATTRIBUTES = {
+    IMarker.SEVERITY,
+    IMarker.MESSAGE,
+    IMarker.LINE_NUMBER,
+    IMarker.CHAR_START,
+    IMarker.CHAR_END
+  };
+
+  private final List<Map<String, Object>> expectedMarkers;
+
+  public MarkerReconciler( IResource resource ) {
+    super( resource );
+    expectedMarkers = new ArrayList<Map<String, Object>>();
+  }
+
+  @Override
+  public void createWarning( int line, int start, int end, String message ) {
+    expectedMarkers.add( createAttributes( line, start, end, message, IMarker.SEVERITY_WARNING ) );
+  }
+
+  @Override
+  public void createError( int line, int start, int end, String message ) {
+    expectedMarkers.add( createAttributes( line, start, end, message, IMarker.SEVERITY_ERROR ) );
+  }
+
+  /**
+   * Updates the markers of the resource to match the collected markers. Should be called inside
+   * a workspace runnable to batch the resulting resource change events.
+   */
+  public void apply() throws CoreException {
+    resource.deleteMarkers( TYPE_PROBLEM_OLD, true, IResource.DEPTH_ZERO );
+    // a file can contain the same problem more than once
+    Map<List<Object>, Integer> missingMarkers = new HashMap<List<Object>, Integer>();
+    for( Map<String, Object> attributes : expectedMarkers ) {
+      List<Object> key = getKey( attributes );
+      Integer count = missingMarkers.get( key );
+      missingMarkers.put( key, Integer.valueOf( count == null ? 1 : count.intValue() + 1 ) );
+    }
+    List<IMarker> obsoleteMarkers = new ArrayList<IMarker>();
+    for( IMarker marker : resource.findMarkers( TYPE_PROBLEM, false, IResource.DEPTH_ZERO ) ) {
+      Object[] values = marker.getAttributes( COMPARED_ATTRIBUTES );
+      if( !decrement( missingMarkers, getKey( values ) ) ) {
+        obsoleteMarkers.add( marker );
+      }
+    }
+    if( !obsoleteMarkers.isEmpty() ) {
+      IMarker[] markers = obsoleteMarkers.toArray( new IMarker[ obsoleteMarkers.size() ] );
+      resource.getWorkspace().deleteMarkers( markers );
+    }
+    for( Map<String, Object> attributes : expectedMarkers ) {
+      if( decrement( missingMarkers, getKey( attributes ) ) ) {
+        resource.createMarker( TYPE_PROBLEM ).setAttributes( attributes );
+      }
+    }
+    expectedMarkers.clear();
+  }
+
+  private static List<Object> getKey( Map<String, Object> attributes ) {
+    Object[] values = new Object[ COMPARED_ATTRIBUTES.length ];
+    for( int i = 0; i < values.length; i++ ) {
+      values[ i ] = attributes.get( COMPARED_ATTRIBUTES[ i ] );
+    }
+    return getKey( values );
+  }
+
+  private static List<Object> getKey( Object[] values ) {
+    Object[] key = new Object[ values.length ];
+    for( int i = 0; i < values.length; i++ ) {
+      // the value may have been set with a different number type
+      Object value = values[ i ];
+      key[ i ] = value instanceof Number ? Long.valueOf( ( ( Number )value ).longValue() ) : value;
+    }
+    return Arrays.asList( key );
+  }
+
+  private static boolean decrement( Map<List<Object>, Integer> counts, List<Object> key ) {
+    Integer count = counts.get( key );
+    if( count == null ) {
+      return false;
+    }
+    if( count.intValue() == 1 ) {
+      counts.remove( key );
+    } else {
+      counts.put( key, Integer.valueOf( count.intValue() - 1 ) );
+    }
+    return true;
+  }
+
+}
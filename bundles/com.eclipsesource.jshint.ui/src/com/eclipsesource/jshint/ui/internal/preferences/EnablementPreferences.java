@@ -20,8 +20,10 @@ public class EnablementPreferences {
 
   private static final String KEY_EXCLUDED = "excluded";
   private static final String KEY_INCLUDED = "included";
+  private static final String KEY_EXCLUDE_DERIVED = "excludeDerived";
   private static final String DEF_EXCLUDED = "";
   private static final String DEF_INCLUDED = "";
+  private static final boolean DEF_EXCLUDE_DERIVED = false;
 
   private final Preferences node;
   private boolean changed;
@@ -65,6 +67,21 @@ public class EnablementPreferences {
     return PathEncoder.decodePaths( value );
   }
 
+  public void setExcludeDerived( boolean exclude ) {
+    if( exclude != node.getBoolean( KEY_EXCLUDE_DERIVED, DEF_EXCLUDE_DERIVED ) ) {
+      if( exclude == DEF_EXCLUDE_DERIVED ) {
+        node.remove( KEY_EXCLUDE_DERIVED );
+      } else {
+        node.putBoolean( KEY_EXCLUDE_DERIVED, exclude );
+      }
+      changed = true;
+    }
+  }
+
+  public boolean getExcludeDerived() {
+    return node.getBoolean( KEY_EXCLUDE_DERIVED, DEF_EXCLUDE_DERIVED );
+  }
+
   public boolean hasChanged() {
     return changed;
   }
@@ -38,9 +38,11 @@ public class JSHintPreferences {
   private static final String KEY_USE_CUSTOM_LIB = "useCustomJshint";
   private static final String KEY_CUSTOM_LIB_PATH = "customJshintPath";
   private static final String KEY_ENABLE_ERROR_MARKERS = "enableErrorMarkers";
+  private static final String KEY_CHECK_IN_BACKGROUND = "checkInBackground";
   private static final boolean DEF_USE_CUSTOM_LIB = false;
   private static final String DEF_CUSTOM_LIB_PATH = "";
   private static final boolean DEF_ENABLE_ERROR_MARKERS = false;
+  private static final boolean DEF_CHECK_IN_BACKGROUND = false;
 
   private final Lock readLock;
   private final Lock writeLock;
@@ -48,6 +50,7 @@ public class JSHintPreferences {
   private boolean useCustomLib;
   private String customLibPath;
   private boolean enableErrorMarkers;
+  private boolean checkInBackground;
   private boolean dirty;
 
   public JSHintPreferences() {
@@ -58,6 +61,7 @@ public class JSHintPreferences {
     useCustomLib = node.getBoolean( KEY_USE_CUSTOM_LIB, DEF_USE_CUSTOM_LIB );
     customLibPath = node.get( KEY_CUSTOM_LIB_PATH, DEF_CUSTOM_LIB_PATH );
     enableErrorMarkers = node.getBoolean( KEY_ENABLE_ERROR_MARKERS, DEF_ENABLE_ERROR_MARKERS );
+    checkInBackground = node.getBoolean( KEY_CHECK_IN_BACKGROUND, DEF_CHECK_IN_BACKGROUND );
     dirty = false;
   }
 
@@ -65,6 +69,7 @@ public class JSHintPreferences {
     setUseCustomLib( DEF_USE_CUSTOM_LIB );
     setCustomLibPath( DEF_CUSTOM_LIB_PATH );
     setEnableErrorMarkers( DEF_ENABLE_ERROR_MARKERS );
+    setCheckInBackground( DEF_CHECK_IN_BACKGROUND );
   }
 
   public boolean getUseCustomLib() {
@@ -130,6 +135,27 @@ public class JSHintPreferences {
     }
   }
 
+  public boolean getCheckInBackground() {
+    try {
+      readLock.lock();
+      return checkInBackground;
+    } finally {
+      readLock.unlock();
+    }
+  }
+
+  public void setCheckInBackground( boolean checkInBackground ) {
+    try {
+      writeLock.lock();
+      if( checkInBackground != this.checkInBackground ) {
+        this.checkInBackground = checkInBackground;
+        dirty = true;
+      }
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
   public boolean hasChanged() {
     try {
       readLock.lock();
@@ -143,6 +169,7 @@ public class JSHintPreferences {
     putUseCustomLib();
     putCustomLibPath();
     putEnableErrorMarkers();
+    putCheckInBackground();
     flushNode();
     try {
       writeLock.lock();
@@ -191,6 +218,19 @@ public class JSHintPreferences {
     }
   }
 
+  private void putCheckInBackground() {
+    try {
+      readLock.lock();
+      if( checkInBackground == DEF_CHECK_IN_BACKGROUND ) {
+        node.remove( KEY_CHECK_IN_BACKGROUND );
+      } else {
+        node.putBoolean( KEY_CHECK_IN_BACKGROUND, checkInBackground );
+      }
+    } finally {
+      readLock.unlock();
+    }
+  }
+
   private void flushNode() throws CoreException {
     try {
       node.flush();
@@ -17,33 +17,71 @@ import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
 import org.osgi.service.prefs.Preferences;
 
+import com.eclipsesource.jshint.internal.PathPattern;
+
 
 public class ResourceSelector {
 
   private final List<PathPattern> includePatterns;
   private final List<PathPattern> excludePatterns;
+  private final boolean excludeDerived;
 
   public ResourceSelector( IProject project ) {
     Preferences preferenceNode = PreferencesFactory.getProjectPreferences( project );
     EnablementPreferences preferences = new EnablementPreferences( preferenceNode );
     includePatterns = createPatterns( preferences.getIncludePatterns() );
     excludePatterns = createPatterns( preferences.getExcludePatterns() );
+    excludeDerived = preferences.getExcludeDerived();
   }
 
   public boolean allowVisitProject() {
     return !includePatterns.isEmpty();
   }
 
+  /**
+   * Checks whether a folder needs to be visited. Returns <code>false</code> if none of the include
+   * patterns can match a file in the folder tree, or if an exclude pattern matches the entire
+   * tree. Team private and, if configured, derived folders are not visited either.
+   */
   public boolean allowVisitFolder( IResource resource ) {
-    return !includePatterns.isEmpty();
+    if( includePatterns.isEmpty() || isSkipped( resource ) ) {
+      return false;
+    }
+    String[] pathSegments = resource.getProjectRelativePath().segments();
+    return isFolderIncluded( pathSegments ) && !isFolderExcluded( pathSegments );
   }
 
   public boolean allowVisitFile( IResource resource ) {
+    if( isSkipped( resource ) ) {
+      return false;
+    }
     String[] pathSegments = resource.getParent().getProjectRelativePath().segments();
     String fileName = resource.getName();
     return isFileIncluded( pathSegments, fileName ) && !isFileExcluded( pathSegments, fileName );
   }
 
+  private boolean isSkipped( IResource resource ) {
+    return resource.isTeamPrivateMember() || ( excludeDerived && resource.isDerived() );
+  }
+
+  private boolean isFolderIncluded( String[] pathSegments ) {
+    for( PathPattern pattern : includePatterns ) {
+      if( pattern.matchesFolderPrefix( pathSegments ) ) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean isFolderExcluded( String[] pathSegments ) {
+    for( PathPattern pattern : excludePatterns ) {
+      if( pattern.matchesFolderTree( pathSegments ) ) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   private boolean isFileIncluded( String[] parentSegments, String fileName ) {
     for( PathPattern pattern : includePatterns ) {
       if( pattern.matchesFolder( parentSegments ) ) {
@@ -25,8 +25,8 @@ import org.eclipse.swt.widgets.FileDialog;
 import org.eclipse.swt.widgets.Listener;
 import org.eclipse.swt.widgets.Shell;
 
+import com.eclipsesource.jshint.internal.CommentsFilter;
 import com.eclipsesource.jshint.ui.internal.Activator;
-import com.eclipsesource.jshint.ui.internal.builder.CommentsFilter;
 import com.eclipsesource.jshint.ui.internal.util.IOUtil;
 import com.eclipsesource.json.JsonObject;
 import com.eclipsesource.json.ParseException;
@@ -39,6 +39,7 @@ public class IncludesView extends Composite {
 
   private Table includeTable;
   private Table excludeTable;
+  private Button excludeDerivedCheckbox;
   private Image fileImage;
 
   public IncludesView( Composite parent, int style, IProject project ) {
@@ -47,11 +48,13 @@ public class IncludesView extends Composite {
     createImages();
     createIncludeControls();
     createExcludeControls();
+    createExcludeDerivedCheckbox();
   }
 
   public void loadDefaults() {
     setPatterns( includeTable, Collections.<String>emptyList() );
     setPatterns( excludeTable, Collections.<String>emptyList() );
+    excludeDerivedCheckbox.setSelection( false );
   }
 
   public void loadPreferences( EnablementPreferences preferences ) {
@@ -59,6 +62,7 @@ public class IncludesView extends Composite {
     List<String> excludePatterns = preferences.getExcludePatterns();
     setPatterns( includeTable, includePatterns );
     setPatterns( excludeTable, excludePatterns );
+    excludeDerivedCheckbox.setSelection( preferences.getExcludeDerived() );
   }
 
   public void storePreferences( EnablementPreferences preferences ) {
@@ -66,6 +70,7 @@ public class IncludesView extends Composite {
     preferences.setIncludePatterns( includePatterns );
     ArrayList<String> excludePatterns = getPatterns( excludeTable );
     preferences.setExcludePatterns( excludePatterns );
+    preferences.setExcludeDerived( excludeDerivedCheckbox.getSelection() );
   }
 
   private void createImages() {
@@ -94,6 +99,12 @@ public class IncludesView extends Composite {
     addListeners( excludeTable );
   }
 
+  private void createExcludeDerivedCheckbox() {
+    excludeDerivedCheckbox = new Button( this, SWT.CHECK );
+    excludeDerivedCheckbox.setText( "Exclude &derived resources" );
+    gridData( excludeDerivedCheckbox ).span( 2, 1 );
+  }
+
   private void addListeners( final Table table ) {
     table.addListener( SWT.DefaultSelection, new Listener() {
       public void handleEvent( Event event ) {
@@ -54,6 +54,7 @@ public class JSHintPreferencePage extends PreferencePage implements IWorkbenchPr
   private Text customLibPathText;
   private Button customLibPathButton;
   private Button enableErrorsCheckbox;
+  private Button checkInBackgroundCheckbox;
 
   public JSHintPreferencePage() {
     setPreferenceStore( Activator.getDefault().getPreferenceStore() );
@@ -75,6 +76,7 @@ public class JSHintPreferencePage extends PreferencePage implements IWorkbenchPr
     gridLayout( composite ).columns( 3 ).spacing( 3 ).marginTop( 10 );
     createCustomJSHintArea( composite );
     createEnableErrorMarkersArea( composite );
+    createCheckInBackgroundArea( composite );
     updateControlsFromPrefs();
     updateControlsEnabled();
     return composite;
@@ -152,6 +154,21 @@ public class JSHintPreferencePage extends PreferencePage implements IWorkbenchPr
     } );
   }
 
+  private void createCheckInBackgroundArea( Composite parent ) {
+    checkInBackgroundCheckbox = new Button( parent, SWT.CHECK );
+    checkInBackgroundCheckbox.setText( "Check files in a background &job" );
+    checkInBackgroundCheckbox.setToolTipText( "If checked, files are checked after the build, "
+                                              + "without blocking other builders and editors" );
+    gridData( checkInBackgroundCheckbox ).fillHorizontal().span( 3, 1 );
+    checkInBackgroundCheckbox.addSelectionListener( new SelectionAdapter() {
+      @Override
+      public void widgetSelected( SelectionEvent e ) {
+        preferences.setCheckInBackground( checkInBackgroundCheckbox.getSelection() );
+        validate();
+      }
+    } );
+  }
+
   private void selectFile() {
     FileDialog fileDialog = new FileDialog( getShell(), SWT.OPEN );
     fileDialog.setText( "Select JSHint library file" );
@@ -228,6 +245,7 @@ public class JSHintPreferencePage extends PreferencePage implements IWorkbenchPr
     defaultLibRadio.setSelection( !customLibRadio.getSelection() );
     customLibPathText.setText( preferences.getCustomLibPath() );
     enableErrorsCheckbox.setSelection( preferences.getEnableErrorMarkers() );
+    checkInBackgroundCheckbox.setSelection( preferences.getCheckInBackground() );
   }
 
   private void updateControlsEnabled() {
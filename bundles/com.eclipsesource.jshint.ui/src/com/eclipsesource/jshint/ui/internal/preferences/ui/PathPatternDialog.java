@@ -22,8 +22,8 @@ import org.eclipse.swt.widgets.Listener;
 import org.eclipse.swt.widgets.Shell;
 import org.eclipse.swt.widgets.Text;
 
-import com.eclipsesource.jshint.ui.internal.preferences.PathPattern;
-import com.eclipsesource.jshint.ui.internal.preferences.PathSegmentPattern;
+import com.eclipsesource.jshint.internal.PathPattern;
+import com.eclipsesource.jshint.internal.PathSegmentPattern;
 
 import static com.eclipsesource.jshint.ui.internal.util.LayoutUtil.gridData;
 import static com.eclipsesource.jshint.ui.internal.util.LayoutUtil.gridLayout;
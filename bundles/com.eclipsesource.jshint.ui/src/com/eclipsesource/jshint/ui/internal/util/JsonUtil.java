@@ -13,7 +13,7 @@ package com.eclipsesource.jshint.ui.internal.util;
 import java.io.IOException;
 import java.io.StringWriter;
 
-import com.eclipsesource.jshint.ui.internal.builder.CommentsFilter;
+import com.eclipsesource.jshint.internal.CommentsFilter;
 import com.eclipsesource.json.JsonObject;
 import com.eclipsesource.json.PrettyPrintJsonWriter;
 
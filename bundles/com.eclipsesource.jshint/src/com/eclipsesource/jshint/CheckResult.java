@@ -0,0 +1,247 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Ralf Sternberg - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.eclipsesource.jshint.internal.ProblemImpl;
+
+
+/**
+ * The result of a JSHint check. Instead of keeping an object for every problem, a check result
+ * stores the problems in parallel arrays, and every distinct message and code only once. This
+ * makes it cheap to hold the results of many files in memory.
+ * <p>
+ * Problems are accessed by their index. {@link Problem} objects are created on demand.
+ * </p>
+ */
+public class CheckResult {
+
+  private static final int INITIAL_CAPACITY = 8;
+
+  private final boolean valid;
+  private int size;
+  private int[] lines;
+  private int[] characters;
+  private int[] messageIds;
+  private int[] codeIds;
+  private String[] strings;
+  private int stringCount;
+  private Map<String, Integer> stringIds;
+
+  CheckResult( boolean valid ) {
+    this.valid = valid;
+  }
+
+  /**
+   * Creates a check result from problems that have been reported before, for example to restore
+   * a result from a cache.
+   *
+   * @param valid
+   *          whether the checked code is valid
+   * @param problems
+   *          the problems of the result, must not be null
+   * @return a new check result that contains the given problems
+   */
+  public static CheckResult create( boolean valid, List<Problem> problems ) {
+    if( problems == null ) {
+      throw new NullPointerException( "problems is null" );
+    }
+    CheckResult result = new CheckResult( valid );
+    for( Problem problem : problems ) {
+      result.add( problem.getLine(),
+                  problem.getCharacter(),
+                  problem.getMessage(),
+                  problem.getCode() );
+    }
+    result.complete();
+    return result;
+  }
+
+  /**
+   * Indicates whether the checked code is valid.
+   *
+   * @return <code>true</code> if JSHint did not find any problems, otherwise <code>false</code>
+   */
+  public boolean isValid() {
+    return valid;
+  }
+
+  /**
+   * Returns the number of problems in this result.
+   *
+   * @return the number of problems
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the line of the problem with the given index.
+   *
+   * @param index
+   *          the index of the problem
+   * @return the line number, beginning with 1, or -1 if unknown
+   * @see Problem#getLine()
+   */
+  public int getLine( int index ) {
+    checkIndex( index );
+    return lines[ index ];
+  }
+
+  /**
+   * Returns the character offset within the line of the problem with the given index.
+   *
+   * @param index
+   *          the index of the problem
+   * @return the character offset, beginning with 0, or -1 if unknown
+   * @see Problem#getCharacter()
+   */
+  public int getCharacter( int index ) {
+    checkIndex( index );
+    return characters[ index ];
+  }
+
+  /**
+   * Returns the message of the problem with the given index.
+   *
+   * @param index
+   *          the index of the problem
+   * @return the message
+   * @see Problem#getMessage()
+   */
+  public String getMessage( int index ) {
+    checkIndex( index );
+    return strings[ messageIds[ index ] ];
+  }
+
+  /**
+   * Returns the code of the problem with the given index.
+   *
+   * @param index
+   *          the index of the problem
+   * @return the code
+   * @see Problem#getCode()
+   */
+  public String getCode( int index ) {
+    checkIndex( index );
+    return strings[ codeIds[ index ] ];
+  }
+
+  /**
+   * Creates a problem object for the problem with the given index.
+   *
+   * @param index
+   *          the index of the problem
+   * @return a new problem object
+   */
+  public Problem getProblem( int index ) {
+    checkIndex( index );
+    return new ProblemImpl( lines[ index ],
+                            characters[ index ],
+                            strings[ messageIds[ index ] ],
+                            strings[ codeIds[ index ] ] );
+  }
+
+  /**
+   * Reports all problems in this result to the given handler.
+   *
+   * @param handler
+   *          the handler to report problems to, must not be null
+   */
+  public void report( ProblemHandler handler ) {
+    if( handler == null ) {
+      throw new NullPointerException( "handler is null" );
+    }
+    for( int i = 0; i < size; i++ ) {
+      handler.handleProblem( getProblem( i ) );
+    }
+  }
+
+  void add( int line, int character, String message, String code ) {
+    ensureCapacity( size + 1 );
+    lines[ size ] = line;
+    characters[ size ] = character;
+    messageIds[ size ] = getStringId( message );
+    codeIds[ size ] = getStringId( code );
+    size++;
+  }
+
+  /*
+   * Trims the arrays to the actual size and drops the string index, which is only needed while
+   * problems are added.
+   */
+  void complete() {
+    if( lines != null && lines.length != size ) {
+      lines = copyOf( lines, size );
+      characters = copyOf( characters, size );
+      messageIds = copyOf( messageIds, size );
+      codeIds = copyOf( codeIds, size );
+    }
+    if( strings != null && strings.length != stringCount ) {
+      String[] trimmed = new String[ stringCount ];
+      System.arraycopy( strings, 0, trimmed, 0, stringCount );
+      strings = trimmed;
+    }
+    stringIds = null;
+  }
+
+  private int getStringId( String string ) {
+    if( stringIds == null ) {
+      stringIds = new HashMap<String, Integer>();
+      strings = new String[ INITIAL_CAPACITY ];
+    }
+    Integer id = stringIds.get( string );
+    if( id == null ) {
+      if( stringCount == strings.length ) {
+        String[] grown = new String[ stringCount * 2 ];
+        System.arraycopy( strings, 0, grown, 0, stringCount );
+        strings = grown;
+      }
+      id = Integer.valueOf( stringCount );
+      strings[ stringCount++ ] = string;
+      stringIds.put( string, id );
+    }
+    return id.intValue();
+  }
+
+  private void ensureCapacity( int capacity ) {
+    if( lines == null ) {
+      int initialCapacity = Math.max( capacity, INITIAL_CAPACITY );
+      lines = new int[ initialCapacity ];
+      characters = new int[ initialCapacity ];
+      messageIds = new int[ initialCapacity ];
+      codeIds = new int[ initialCapacity ];
+    } else if( capacity > lines.length ) {
+      int newCapacity = Math.max( capacity, lines.length * 2 );
+      lines = copyOf( lines, newCapacity );
+      characters = copyOf( characters, newCapacity );
+      messageIds = copyOf( messageIds, newCapacity );
+      codeIds = copyOf( codeIds, newCapacity );
+    }
+  }
+
+  private void checkIndex( int index ) {
+    if( index < 0 || index >= size ) {
+      throw new IndexOutOfBoundsException( "Index: " + index + ", size: " + size );
+    }
+  }
+
+  private static int[] copyOf( int[] array, int length ) {
+    // Arrays.copyOf is not available in Java 5
+    int[] copy = new int[ length ];
+    System.arraycopy( array, 0, copy, 0, Math.min( array.length, length ) );
+    return copy;
+  }
+
+}
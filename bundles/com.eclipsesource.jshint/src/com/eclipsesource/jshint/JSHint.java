@@ -11,22 +11,30 @@
 package com.eclipsesource.jshint;
 
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.UnsupportedEncodingException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.mozilla.javascript.Context;
 import org.mozilla.javascript.Function;
 import org.mozilla.javascript.JavaScriptException;
 import org.mozilla.javascript.NativeArray;
 import org.mozilla.javascript.RhinoException;
+import org.mozilla.javascript.Scriptable;
 import org.mozilla.javascript.ScriptableObject;
 
+import com.eclipsesource.jshint.internal.CompiledLibrary;
+import com.eclipsesource.jshint.internal.JSHintContextFactory;
 import com.eclipsesource.jshint.internal.JSHintRunner;
-import com.eclipsesource.jshint.internal.ProblemImpl;
+import com.eclipsesource.jshint.internal.JsonConverter;
 import com.eclipsesource.json.JsonObject;
+import com.eclipsesource.json.JsonObject.Member;
 import com.eclipsesource.json.JsonValue;
 
 
@@ -49,28 +57,48 @@ public class JSHint {
 
   private static final String DEFAULT_JSHINT_VERSION = "2.9.1";
   private static final int DEFAULT_JSHINT_INDENT = 4;
-  private ScriptableObject scope;
+  private static final int MAX_CACHED_CONFIGURATIONS = 16;
+  private static final int MAX_INTERNED_STRINGS = 4096;
+  // Generated by the build from the default library, see pom.xml
+  private static final String PRECOMPILED_JSHINT_CLASS
+    = "com.jshint.JSHint_" + DEFAULT_JSHINT_VERSION.replace( '.', '_' );
+  private Scriptable scope;
+  private CompiledLibrary interpretedLibrary;
   private Function jshint;
   private Object options;
   private Object globals;
   private int indent = DEFAULT_JSHINT_INDENT;
+  private final Map<String, String> messages = new HashMap<String, String>();
+  private final Map<String, String> codes = new HashMap<String, String>();
+  private final Map<String, ConvertedConfiguration> configurations
+    = new LinkedHashMap<String, ConvertedConfiguration>( 16, 0.75f, true ) {
+      @Override
+      protected boolean removeEldestEntry( Map.Entry<String, ConvertedConfiguration> eldest ) {
+        return size() > MAX_CACHED_CONFIGURATIONS;
+      }
+    };
 
   /**
    * Loads the default JSHint library.
    * @see #getDefaultLibraryVersion()
    */
   public void load() throws IOException {
-    Reader reader = getJsHintReader();
-    try {
-      load( reader );
-    } finally {
-      reader.close();
+    if( !loadPrecompiled() ) {
+      Reader reader = getJsHintReader();
+      try {
+        load( reader );
+      } finally {
+        reader.close();
+      }
     }
   }
 
   /**
    * Loads a custom JSHint library. The input stream must provide the contents of the
    * file <code>jshint.js</code> found in the JSHint distribution.
+   * <p>
+   * A library is compiled only once and shared with other instances that load the same library.
+   * </p>
    *
    * @param inputStream
    *          an input stream to load the the JSHint library from
@@ -98,18 +126,33 @@ public class JSHint {
     if( configuration == null ) {
       throw new NullPointerException( "configuration is null" );
     }
-    Context context = Context.enter();
+    String fingerprint = configuration.toString();
+    ConvertedConfiguration converted = configurations.get( fingerprint );
+    if( converted == null ) {
+      converted = convertConfiguration( configuration );
+      configurations.put( fingerprint, converted );
+    }
+    options = converted.options;
+    globals = converted.globals;
+    indent = converted.indent;
+  }
+
+  private ConvertedConfiguration convertConfiguration( JsonObject configuration ) {
+    Context context = enterContext();
     try {
-      ScriptableObject scope = context.initStandardObjects();
-      JsonValue globalsValue = configuration.get( "globals" );
-      if( globalsValue != null ) {
-        String globalsExpr = "globals = " + globalsValue.toString() + ";";
-        globals = context.evaluateString( scope, globalsExpr, "[globals]", 1, null );
+      Scriptable sharedScope = CompiledLibrary.getSharedScope( context );
+      ConvertedConfiguration converted = new ConvertedConfiguration();
+      JsonObject optionsObject = new JsonObject();
+      for( Member member : configuration ) {
+        if( "globals".equals( member.getName() ) ) {
+          converted.globals = JsonConverter.toJavaScript( context, sharedScope, member.getValue() );
+        } else {
+          optionsObject.add( member.getName(), member.getValue() );
+        }
       }
-      configuration.remove( "globals" );
-      String optionsExpr = "options = " + configuration.toString() + ";";
-      options = context.evaluateString( scope, optionsExpr, "[options]", 1, null );
-      indent = determineIndent( configuration );
+      converted.options = JsonConverter.toJavaScript( context, sharedScope, optionsObject );
+      converted.indent = determineIndent( configuration );
+      return converted;
     } finally {
       Context.exit();
     }
@@ -146,22 +189,92 @@ public class JSHint {
     if( jshint == null ) {
       throw new IllegalStateException( "JSHint is not loaded" );
     }
-    boolean result = true;
-    String code = text.getContent();
-    // Don't feed jshint with empty strings, see https://github.com/jshint/jshint/issues/615
-    // However, consider an empty string valid
-    if( code.trim().length() != 0 ) {
-      Context context = Context.enter();
-      try {
-        result = checkCode( context, code );
-        if( !result && handler != null ) {
-          handleProblems( handler, text );
-        }
-      } finally {
-        Context.exit();
-      }
+    Context context = enterContext();
+    try {
+      return checkText( context, text, handler );
+    } finally {
+      Context.exit();
     }
-    return result;
+  }
+
+  /**
+   * Checks the given text and returns all problems found in a compact check result.
+   *
+   * @param text
+   *          the text to check, must not be null
+   * @return the result of the check, never <code>null</code>
+   */
+  public CheckResult check( Text text ) {
+    if( text == null ) {
+      throw new NullPointerException( "code is null" );
+    }
+    if( jshint == null ) {
+      throw new IllegalStateException( "JSHint is not loaded" );
+    }
+    Context context = enterContext();
+    try {
+      return checkText( context, text, true );
+    } finally {
+      Context.exit();
+    }
+  }
+
+  /**
+   * Opens a session to check multiple files in a row. A session keeps the JavaScript context
+   * entered on the current thread until it is closed, so that the context does not have to be
+   * set up for every single check. A session can only be used on the thread that opened it and must
+   * be closed on this thread when it is not needed anymore.
+   *
+   * <pre>
+   * JSHint.Session session = jshint.openSession();
+   * try {
+   *   for( Text text : texts ) {
+   *     session.check( text, handler );
+   *   }
+   * } finally {
+   *   session.close();
+   * }
+   * </pre>
+   *
+   * @return the new session, never <code>null</code>
+   */
+  public Session openSession() {
+    if( jshint == null ) {
+      throw new IllegalStateException( "JSHint is not loaded" );
+    }
+    return new Session();
+  }
+
+  /**
+   * Enables a persistent cache for compiled JSHint libraries. Compiling a library is expensive.
+   * When a cache directory is set, the Java classes generated for a library are stored in this
+   * directory, and subsequent loads of the same library, also in other VMs, define these classes
+   * instead of compiling the library again.
+   *
+   * @param directory
+   *          the directory to store compiled libraries in, or <code>null</code> to disable the
+   *          cache, which is the default
+   */
+  public static void setCacheDirectory( File directory ) {
+    CompiledLibrary.setCacheDirectory( directory );
+  }
+
+  /**
+   * Enables tiered loading of JSHint libraries. Compiling a library to Java classes takes a
+   * considerable amount of time. With tiered loading, libraries are first loaded in Rhino's
+   * interpreted mode, so that checks can start immediately. The optimized library is compiled in a
+   * background thread, and every JSHint instance switches to it with the first check after it is
+   * available.
+   * <p>
+   * This setting affects only libraries that have not been loaded before. It has no effect on the
+   * default library if a precompiled version of it is available.
+   * </p>
+   *
+   * @param enabled
+   *          <code>true</code> to enable tiered loading, default is <code>false</code>
+   */
+  public static void setTieredLoading( boolean enabled ) {
+    CompiledLibrary.setTieredCompilation( enabled );
   }
 
   /**
@@ -175,14 +288,10 @@ public class JSHint {
   }
 
   private void load( Reader reader ) throws IOException {
-    Context context = Context.enter();
+    Context context = enterContext();
     try {
-      context.setOptimizationLevel( 9 );
-      context.setLanguageVersion( Context.VERSION_1_5 );
-      scope = context.initStandardObjects();
-      context.evaluateString( scope, createShimCode(), "shim", 1, null );
-      context.evaluateReader( scope, reader, "jshint library", 1, null );
-      jshint = findJSHintFunction( scope );
+      CompiledLibrary library = CompiledLibrary.get( context, reader );
+      init( context, library );
     } catch( RhinoException exception ) {
       throw new IllegalArgumentException( "Could not evaluate JavaScript input", exception );
     } finally {
@@ -190,6 +299,64 @@ public class JSHint {
     }
   }
 
+  private boolean loadPrecompiled() {
+    CompiledLibrary library = CompiledLibrary.getPrecompiled( PRECOMPILED_JSHINT_CLASS );
+    if( library != null ) {
+      Context context = enterContext();
+      try {
+        init( context, library );
+        return true;
+      } catch( LinkageError error ) {
+        // compiled against an incompatible Rhino version, fall back to the library source
+      } catch( RhinoException exception ) {
+        // fall back to the library source
+      } finally {
+        Context.exit();
+      }
+    }
+    return false;
+  }
+
+  private void init( Context context, CompiledLibrary library ) {
+    boolean optimized = library.isOptimized();
+    scope = library.createScope( context );
+    jshint = findJSHintFunction( scope );
+    interpretedLibrary = optimized ? null : library;
+  }
+
+  private void upgradeLibrary( Context context ) {
+    // Switch to the optimized library once it has been compiled in the background
+    if( interpretedLibrary != null && interpretedLibrary.isOptimized() ) {
+      init( context, interpretedLibrary );
+    }
+  }
+
+  private boolean checkText( Context context, Text text, ProblemHandler handler ) {
+    CheckResult result = checkText( context, text, handler != null );
+    if( handler != null ) {
+      result.report( handler );
+    }
+    return result.isValid();
+  }
+
+  private CheckResult checkText( Context context, Text text, boolean collectProblems ) {
+    CheckResult result;
+    String code = text.getContent();
+    // Don't feed jshint with empty strings, see https://github.com/jshint/jshint/issues/615
+    // However, consider an empty string valid
+    if( isBlank( code ) ) {
+      result = new CheckResult( true );
+    } else {
+      upgradeLibrary( context );
+      result = new CheckResult( checkCode( context, code ) );
+      if( !result.isValid() && collectProblems ) {
+        addProblems( result, text );
+      }
+    }
+    result.complete();
+    return result;
+  }
+
   private boolean checkCode( Context context, String code ) {
     try {
       Object[] args = new Object[] { code, options, globals };
@@ -203,20 +370,19 @@ public class JSHint {
     }
   }
 
-  private void handleProblems( ProblemHandler handler, Text text ) {
+  private void addProblems( CheckResult result, Text text ) {
     NativeArray errors = (NativeArray)jshint.get( "errors", jshint );
     long length = errors.getLength();
     for( int i = 0; i < length; i++ ) {
       Object object = errors.get( i, errors );
       ScriptableObject error = (ScriptableObject)object;
       if( error != null ) {
-        Problem problem = createProblem( error, text );
-        handler.handleProblem( problem );
+        addProblem( result, error, text );
       }
     }
   }
 
-  ProblemImpl createProblem( ScriptableObject error, Text text ) {
+  void addProblem( CheckResult result, ScriptableObject error, Text text ) {
     String reason = getPropertyAsString( error, "reason", "" );
     int line = getPropertyAsInt( error, "line", -1 );
     int character = getPropertyAsInt( error, "character", -1 );
@@ -227,8 +393,34 @@ public class JSHint {
     } else if( character > 0 ) {
       character = visualToCharIndex( text, line, character );
     }
-    String message = reason.endsWith( "." ) ? reason.substring( 0, reason.length() - 1 ) : reason;
-    return new ProblemImpl( line, character, message, code );
+    result.add( line, character, internMessage( reason ), intern( codes, code ) );
+  }
+
+  /*
+   * Files with many problems tend to produce the same messages and codes over and over again.
+   * Interning them avoids keeping a copy for every problem, and strips the trailing period from
+   * every distinct message only once.
+   */
+  private String internMessage( String reason ) {
+    String message = messages.get( reason );
+    if( message == null ) {
+      message = reason.endsWith( "." ) ? reason.substring( 0, reason.length() - 1 ) : reason;
+      message = intern( messages, reason, message );
+    }
+    return message;
+  }
+
+  private static String intern( Map<String, String> strings, String string ) {
+    String interned = strings.get( string );
+    return interned != null ? interned : intern( strings, string, string );
+  }
+
+  private static String intern( Map<String, String> strings, String key, String value ) {
+    if( strings.size() >= MAX_INTERNED_STRINGS ) {
+      strings.clear();
+    }
+    strings.put( key, value );
+    return value;
   }
 
   /*
@@ -242,28 +434,10 @@ public class JSHint {
    *   visual:     | a | »             | b | »             | c |
    */
   int visualToCharIndex( Text text, int line, int character ) {
-    String string = text.getContent();
-    int offset = text.getLineOffset( line - 1 );
-    int charIndex = 0;
-    int visualIndex = 1;
-    int maxCharIndex = string.length() - offset - 1;
-    while( visualIndex != character && charIndex < maxCharIndex ) {
-      boolean isTab = string.charAt( offset + charIndex ) == '\t';
-      visualIndex += isTab ? indent : 1;
-      charIndex++;
-    }
-    return charIndex;
+    return text.getCharIndexAtVisualColumn( line - 1, character, indent );
   }
 
-  private static String createShimCode() {
-    // Create shims to prevent problems with JSHint accessing objects that are not available in
-    // Rhino, e.g. https://github.com/jshint/jshint/issues/1038
-    return "console = {log:function(){},error:function(){},trace:function(){}};"
-         + "window = {};"
-         + "global = this;";
-  }
-
-  private static Function findJSHintFunction( ScriptableObject scope )
+  private static Function findJSHintFunction( Scriptable scope )
       throws IllegalArgumentException
   {
     Object object;
@@ -283,22 +457,43 @@ public class JSHint {
                                              String defaultValue )
   {
     String result = defaultValue;
-    Object property = ScriptableObject.getProperty( object, name );
-    if( property instanceof String ) {
-      result = ( String )property;
+    Object property = getProperty( object, name );
+    // Rhino may return concatenated strings as a CharSequence other than String
+    if( property instanceof CharSequence ) {
+      result = property.toString();
     }
     return result;
   }
 
   private static int getPropertyAsInt( ScriptableObject object, String name, int defaultValue ) {
     int result = defaultValue;
-    Object property = ScriptableObject.getProperty( object, name );
+    Object property = getProperty( object, name );
     if( property instanceof Number ) {
       result = ( ( Number )property ).intValue();
     }
     return result;
   }
 
+  private static Object getProperty( ScriptableObject object, String name ) {
+    // JSHint errors are plain objects, look up own properties first to skip the prototype chain
+    Object property = object.get( name, object );
+    if( property == Scriptable.NOT_FOUND ) {
+      property = ScriptableObject.getProperty( object, name );
+    }
+    return property;
+  }
+
+  private static boolean isBlank( String string ) {
+    int length = string.length();
+    for( int i = 0; i < length; i++ ) {
+      // same definition of whitespace as in String#trim()
+      if( string.charAt( i ) > ' ' ) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   private static BufferedReader getJsHintReader() throws UnsupportedEncodingException {
     ClassLoader classLoader = JSHint.class.getClassLoader();
     // Include DEFAULT_JSHINT_VERSION in name to ensure the constant matches the actual version
@@ -307,9 +502,113 @@ public class JSHint {
     return new BufferedReader( new InputStreamReader( inputStream, "UTF-8" ) );
   }
 
+  private static Context enterContext() {
+    return JSHintContextFactory.getInstance().enterContext();
+  }
+
   public static void main( String[] args ) {
     JSHintRunner runner = new JSHintRunner();
     runner.run( args );
   }
 
+  /**
+   * A session to check multiple files on a single thread.
+   *
+   * @see JSHint#openSession()
+   */
+  public final class Session {
+
+    private final Thread thread;
+    private Context context;
+
+    Session() {
+      thread = Thread.currentThread();
+      context = enterContext();
+    }
+
+    /**
+     * Checks the given JavaScript code. All problems will be reported to the given problem
+     * handler.
+     *
+     * @param code
+     *          the JavaScript code to check, must not be null
+     * @param handler
+     *          the handler to report problems to or <code>null</code>
+     * @return <code>true</code> if no problems have been found, otherwise <code>false</code>
+     * @see JSHint#check(String, ProblemHandler)
+     */
+    public boolean check( String code, ProblemHandler handler ) {
+      if( code == null ) {
+        throw new NullPointerException( "code is null" );
+      }
+      return check( new Text( code ), handler );
+    }
+
+    /**
+     * Checks the given text. All problems will be reported to the given problem handler.
+     *
+     * @param text
+     *          the text to check, must not be null
+     * @param handler
+     *          the handler to report problems to or <code>null</code>
+     * @return <code>true</code> if no problems have been found, otherwise <code>false</code>
+     * @see JSHint#check(Text, ProblemHandler)
+     */
+    public boolean check( Text text, ProblemHandler handler ) {
+      if( text == null ) {
+        throw new NullPointerException( "code is null" );
+      }
+      checkSession();
+      return checkText( context, text, handler );
+    }
+
+    /**
+     * Checks the given text and returns all problems found in a compact check result.
+     *
+     * @param text
+     *          the text to check, must not be null
+     * @return the result of the check, never <code>null</code>
+     * @see JSHint#check(Text)
+     */
+    public CheckResult check( Text text ) {
+      if( text == null ) {
+        throw new NullPointerException( "code is null" );
+      }
+      checkSession();
+      return checkText( context, text, true );
+    }
+
+    /**
+     * Closes this session and releases the JavaScript context. Closing a session that has
+     * already been closed has no effect.
+     */
+    public void close() {
+      if( context != null ) {
+        checkThread();
+        context = null;
+        Context.exit();
+      }
+    }
+
+    private void checkSession() {
+      if( context == null ) {
+        throw new IllegalStateException( "Session is closed" );
+      }
+      checkThread();
+    }
+
+    private void checkThread() {
+      if( Thread.currentThread() != thread ) {
+        throw new IllegalStateException( "Session is bound to another thread" );
+      }
+    }
+
+  }
+
+  private static class ConvertedConfiguration {
+    Object options;
+    Object globals;
+    int indent;
+  }
+
 }
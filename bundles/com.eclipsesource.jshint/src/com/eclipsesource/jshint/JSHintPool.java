@@ -0,0 +1,234 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Ralf Sternberg - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import com.eclipsesource.json.JsonObject;
+
+
+/**
+ * A fixed-size pool of loaded and configured JSHint instances. A single JSHint instance must not be
+ * used by multiple threads at the same time. To check code concurrently, every thread borrows its
+ * own instance from the pool and returns it when done.
+ * <p>
+ * Usage:
+ * </p>
+ *
+ * <pre>
+ * JSHintPool pool = new JSHintPool( 4 );
+ * pool.load();
+ * pool.configure( configuration );
+ * JSHint jshint = pool.borrow();
+ * try {
+ *   jshint.check( text, handler );
+ * } finally {
+ *   pool.release( jshint );
+ * }
+ * </pre>
+ * <p>
+ * Instances of this class can be accessed concurrently from multiple threads.
+ * </p>
+ */
+public class JSHintPool {
+
+  private final int size;
+  private final boolean blocking;
+  private final List<JSHint> instances;
+  private final BlockingQueue<JSHint> idleInstances;
+  private final Map<JSHint, JsonObject> appliedConfigurations;
+  private volatile JsonObject configuration;
+
+  /**
+   * Creates a new pool with the given number of instances. When all instances are in use,
+   * <code>borrow()</code> blocks until an instance is released.
+   *
+   * @param size
+   *          the number of JSHint instances in this pool, must be positive
+   */
+  public JSHintPool( int size ) {
+    this( size, true );
+  }
+
+  /**
+   * Creates a new pool with the given number of instances.
+   *
+   * @param size
+   *          the number of JSHint instances in this pool, must be positive
+   * @param blocking
+   *          if <code>true</code>, <code>borrow()</code> waits for an instance to become available
+   *          when all instances are in use, otherwise it returns <code>null</code> immediately
+   */
+  public JSHintPool( int size, boolean blocking ) {
+    if( size < 1 ) {
+      throw new IllegalArgumentException( "size must be positive: " + size );
+    }
+    this.size = size;
+    this.blocking = blocking;
+    instances = new ArrayList<JSHint>( size );
+    idleInstances = new ArrayBlockingQueue<JSHint>( size );
+    appliedConfigurations = new HashMap<JSHint, JsonObject>();
+  }
+
+  /**
+   * Returns the number of JSHint instances in this pool.
+   *
+   * @return the size of the pool
+   */
+  public int getSize() {
+    return size;
+  }
+
+  /**
+   * Loads the default JSHint library into all instances of this pool.
+   *
+   * @see JSHint#load()
+   */
+  public void load() throws IOException {
+    List<JSHint> loaded = new ArrayList<JSHint>( size );
+    for( int i = 0; i < size; i++ ) {
+      JSHint jshint = new JSHint();
+      jshint.load();
+      loaded.add( jshint );
+    }
+    addInstances( loaded );
+  }
+
+  /**
+   * Loads a custom JSHint library into all instances of this pool. The input stream must provide
+   * the contents of the file <code>jshint.js</code> found in the JSHint distribution.
+   *
+   * @param inputStream
+   *          an input stream to load the the JSHint library from
+   * @throws IOException
+   *           if an I/O error occurs while reading from the input stream
+   * @throws IllegalArgumentException
+   *           if the given input is not a proper JSHint library file
+   * @see JSHint#load(InputStream)
+   */
+  public void load( InputStream inputStream ) throws IOException {
+    byte[] library = readBytes( inputStream );
+    List<JSHint> loaded = new ArrayList<JSHint>( size );
+    for( int i = 0; i < size; i++ ) {
+      JSHint jshint = new JSHint();
+      jshint.load( new ByteArrayInputStream( library ) );
+      loaded.add( jshint );
+    }
+    addInstances( loaded );
+  }
+
+  /**
+   * Sets the configuration to use for all subsequent checks. Instances that are currently borrowed
+   * are reconfigured the next time they are borrowed.
+   *
+   * @param configuration
+   *          the configuration to use, must not be null
+   * @see JSHint#configure(JsonObject)
+   */
+  public void configure( JsonObject configuration ) {
+    if( configuration == null ) {
+      throw new NullPointerException( "configuration is null" );
+    }
+    this.configuration = new JsonObject( configuration );
+  }
+
+  /**
+   * Borrows a JSHint instance from this pool. The instance must be returned by calling
+   * <code>release()</code> when it is no longer needed. In blocking mode, this method waits until
+   * an instance becomes available.
+   *
+   * @return a loaded and configured JSHint instance, or <code>null</code> if the pool is not
+   *         blocking and all instances are in use
+   * @throws InterruptedException
+   *           if the current thread is interrupted while waiting for an instance
+   */
+  public JSHint borrow() throws InterruptedException {
+    synchronized( instances ) {
+      if( instances.isEmpty() ) {
+        throw new IllegalStateException( "JSHintPool is not loaded" );
+      }
+    }
+    JSHint jshint = blocking ? idleInstances.take() : idleInstances.poll();
+    if( jshint != null ) {
+      ensureConfigured( jshint );
+    }
+    return jshint;
+  }
+
+  /**
+   * Returns an instance that has been obtained from <code>borrow()</code> to this pool.
+   *
+   * @param jshint
+   *          the instance to return, must not be null
+   */
+  public void release( JSHint jshint ) {
+    if( jshint == null ) {
+      throw new NullPointerException( "jshint is null" );
+    }
+    synchronized( instances ) {
+      if( !instances.contains( jshint ) ) {
+        throw new IllegalArgumentException( "JSHint instance does not belong to this pool" );
+      }
+    }
+    if( idleInstances.contains( jshint ) || !idleInstances.offer( jshint ) ) {
+      throw new IllegalStateException( "JSHint instance has already been released" );
+    }
+  }
+
+  private void addInstances( List<JSHint> loaded ) {
+    synchronized( instances ) {
+      if( !instances.isEmpty() ) {
+        throw new IllegalStateException( "JSHintPool is already loaded" );
+      }
+      instances.addAll( loaded );
+      idleInstances.addAll( loaded );
+    }
+  }
+
+  private void ensureConfigured( JSHint jshint ) {
+    JsonObject current = configuration;
+    if( current != null ) {
+      synchronized( appliedConfigurations ) {
+        if( appliedConfigurations.get( jshint ) == current ) {
+          return;
+        }
+      }
+      jshint.configure( new JsonObject( current ) );
+      synchronized( appliedConfigurations ) {
+        appliedConfigurations.put( jshint, current );
+      }
+    }
+  }
+
+  private static byte[] readBytes( InputStream inputStream ) throws IOException {
+    if( inputStream == null ) {
+      throw new NullPointerException( "inputStream is null" );
+    }
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    byte[] buffer = new byte[ 8192 ];
+    int read = inputStream.read( buffer );
+    while( read != -1 ) {
+      outputStream.write( buffer, 0, read );
+      read = inputStream.read( buffer );
+    }
+    return outputStream.toByteArray();
+  }
+
+}
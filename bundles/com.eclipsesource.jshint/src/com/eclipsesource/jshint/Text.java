@@ -10,9 +10,18 @@
  ******************************************************************************/
 package com.eclipsesource.jshint;
 
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
 
 
 /**
@@ -23,6 +32,7 @@ public class Text {
   private String code;
   private int lineCount = 1;
   private int[] lineOffsets = new int[ 200 ];
+  private int[] tabOffsets;
 
   public Text( String text ) {
     if( text == null ) {
@@ -45,6 +55,71 @@ public class Text {
     read( reader );
   }
 
+  /**
+   * Creates a text from the remaining bytes of the given buffer. The bytes are decoded in a single
+   * pass, malformed input and unmappable characters are replaced with the charset's replacement.
+   *
+   * @param buffer
+   *          the buffer to read from, must not be null
+   * @param charset
+   *          the charset to decode the bytes with, must not be null
+   */
+  public Text( ByteBuffer buffer, Charset charset ) {
+    if( buffer == null ) {
+      throw new NullPointerException( "buffer is null" );
+    }
+    if( charset == null ) {
+      throw new NullPointerException( "charset is null" );
+    }
+    decode( buffer, charset );
+  }
+
+  /**
+   * Creates a text from the contents of the given file.
+   *
+   * @param file
+   *          the file to read, must not be null
+   * @param charset
+   *          the charset of the file, must not be null
+   * @throws IOException
+   *           if the file cannot be read
+   */
+  public Text( File file, Charset charset ) throws IOException {
+    if( file == null ) {
+      throw new NullPointerException( "file is null" );
+    }
+    if( charset == null ) {
+      throw new NullPointerException( "charset is null" );
+    }
+    FileInputStream inputStream = new FileInputStream( file );
+    try {
+      read( inputStream.getChannel(), charset );
+    } finally {
+      inputStream.close();
+    }
+  }
+
+  /**
+   * Creates a text from the contents of the given channel, starting at its current position.
+   * The channel is not closed.
+   *
+   * @param channel
+   *          the channel to read from, must not be null
+   * @param charset
+   *          the charset of the contents, must not be null
+   * @throws IOException
+   *           if the channel cannot be read
+   */
+  public Text( FileChannel channel, Charset charset ) throws IOException {
+    if( channel == null ) {
+      throw new NullPointerException( "channel is null" );
+    }
+    if( charset == null ) {
+      throw new NullPointerException( "charset is null" );
+    }
+    read( channel, charset );
+  }
+
   public String getContent() {
     return code;
   }
@@ -82,25 +157,166 @@ public class Text {
     return nextOffset - lineOffsets[ line ];
   }
 
+  /**
+   * Returns the index of the line that contains the character at the given offset.
+   *
+   * @param offset
+   *          the character offset, zero-relative
+   * @return the zero-relative index of the line that contains the offset
+   */
+  public int getLineAtOffset( int offset ) {
+    if( offset < 0 || offset > code.length() ) {
+      throw new IndexOutOfBoundsException( "offset out of range: " + offset );
+    }
+    int low = 0;
+    int high = lineCount - 1;
+    while( low < high ) {
+      int mid = ( low + high + 1 ) >>> 1;
+      if( lineOffsets[ mid ] <= offset ) {
+        low = mid;
+      } else {
+        high = mid - 1;
+      }
+    }
+    return low;
+  }
+
+  /*
+   * Maps a visual column, where the first character is 1 and every tab character counts as
+   * tabWidth characters, to a character index relative to the start of the given line. Columns
+   * that do not match the start of a character are mapped to the last index of the text.
+   */
+  int getCharIndexAtVisualColumn( int line, int column, int tabWidth ) {
+    int offset = getLineOffset( line );
+    int maxCharIndex = code.length() - offset - 1;
+    if( maxCharIndex <= 0 ) {
+      return 0;
+    }
+    int[] tabs = getTabOffsets();
+    int tabsBeforeLine = countTabsBefore( tabs, offset );
+    // visual columns increase with the character index, hence a binary search finds the index
+    int result = maxCharIndex;
+    int low = 0;
+    int high = maxCharIndex;
+    while( low <= high ) {
+      int mid = ( low + high ) >>> 1;
+      int tabCount = countTabsBefore( tabs, offset + mid ) - tabsBeforeLine;
+      int visualColumn = 1 + mid + tabCount * ( tabWidth - 1 );
+      if( visualColumn < column ) {
+        low = mid + 1;
+      } else {
+        if( visualColumn == column ) {
+          result = mid;
+        }
+        high = mid - 1;
+      }
+    }
+    return result;
+  }
+
+  private int[] getTabOffsets() {
+    if( tabOffsets == null ) {
+      int count = 0;
+      int length = code.length();
+      for( int i = 0; i < length; i++ ) {
+        if( code.charAt( i ) == '\t' ) {
+          count++;
+        }
+      }
+      int[] offsets = new int[ count ];
+      int index = 0;
+      for( int i = 0; index < count; i++ ) {
+        if( code.charAt( i ) == '\t' ) {
+          offsets[ index++ ] = i;
+        }
+      }
+      tabOffsets = offsets;
+    }
+    return tabOffsets;
+  }
+
+  private static int countTabsBefore( int[] tabs, int offset ) {
+    int low = 0;
+    int high = tabs.length;
+    while( low < high ) {
+      int mid = ( low + high ) >>> 1;
+      if( tabs[ mid ] < offset ) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
   private void read( Reader reader ) throws IOException {
     StringBuilder builder = new StringBuilder();
     char[] cbuf = new char[ 8096 ];
     int read = reader.read( cbuf );
     while( read != -1 ) {
-      for( int i = 0; i < read; i++ ) {
-        if( cbuf[i] == '\n' ) {
-          if( lineCount >= lineOffsets.length ) {
-            growLineOffsets();
-          }
-          lineOffsets[ lineCount++ ] = builder.length() + i + 1;
-        }
-      }
+      addLineOffsets( cbuf, 0, read, builder.length() );
       builder.append( cbuf, 0, read );
       read = reader.read( cbuf );
     }
     code = builder.toString();
   }
 
+  private void read( FileChannel channel, Charset charset ) throws IOException {
+    // Files are not memory-mapped, a mapping would lock the file on Windows until it is collected
+    long size = channel.size() - channel.position();
+    if( size > Integer.MAX_VALUE - 8 ) {
+      throw new IOException( "File too large: " + size + " bytes" );
+    }
+    ByteBuffer buffer = ByteBuffer.allocate( ( int )Math.max( size, 0 ) );
+    while( buffer.hasRemaining() && channel.read( buffer ) != -1 ) {
+      // continue until the buffer is full
+    }
+    buffer.flip();
+    decode( buffer, charset );
+  }
+
+  private void decode( ByteBuffer buffer, Charset charset ) {
+    CharsetDecoder decoder = charset.newDecoder()
+      .onMalformedInput( CodingErrorAction.REPLACE )
+      .onUnmappableCharacter( CodingErrorAction.REPLACE );
+    // Allocate for the worst case, which is exact for single-byte charsets and mostly ASCII UTF-8
+    long maxLength = ( long )Math.ceil( buffer.remaining() * ( double )decoder.maxCharsPerByte() );
+    int capacity = ( int )Math.min( maxLength, Integer.MAX_VALUE - 8 );
+    CharBuffer charBuffer = CharBuffer.allocate( capacity );
+    CoderResult result = decoder.decode( buffer, charBuffer, true );
+    while( result.isOverflow() ) {
+      charBuffer = grow( charBuffer );
+      result = decoder.decode( buffer, charBuffer, true );
+    }
+    result = decoder.flush( charBuffer );
+    while( result.isOverflow() ) {
+      charBuffer = grow( charBuffer );
+      result = decoder.flush( charBuffer );
+    }
+    char[] chars = charBuffer.array();
+    int length = charBuffer.position();
+    addLineOffsets( chars, 0, length, 0 );
+    code = new String( chars, 0, length );
+  }
+
+  private void addLineOffsets( char[] chars, int start, int end, int base ) {
+    for( int i = start; i < end; i++ ) {
+      if( chars[ i ] == '\n' ) {
+        if( lineCount >= lineOffsets.length ) {
+          growLineOffsets();
+        }
+        lineOffsets[ lineCount++ ] = base + i + 1;
+      }
+    }
+  }
+
+  private static CharBuffer grow( CharBuffer charBuffer ) {
+    CharBuffer grown = CharBuffer.allocate( Math.max( 16, charBuffer.capacity() * 2 ) );
+    charBuffer.flip();
+    grown.put( charBuffer );
+    return grown;
+  }
+
   private void growLineOffsets() {
     int[] newLineOffsets = new int[ lineOffsets.length * 2 ];
     System.arraycopy( lineOffsets, 0, newLineOffsets, 0, lineOffsets.length );
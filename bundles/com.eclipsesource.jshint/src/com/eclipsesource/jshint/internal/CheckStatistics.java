@@ -0,0 +1,232 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Ralf Sternberg - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint.internal;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+import com.eclipsesource.json.JsonArray;
+import com.eclipsesource.json.JsonObject;
+
+
+/**
+ * Collects timings of a run of the command line runner. For every file, the time spent reading,
+ * creating the text, checking, and reporting is recorded separately. Times are measured in
+ * nanoseconds and reported in milliseconds.
+ * <p>
+ * A file timing is created on the thread that walks the input and filled in by the worker that
+ * checks the file. It must only be read after the check has completed.
+ * </p>
+ */
+public class CheckStatistics {
+
+  private static final int SLOWEST_FILES_COUNT = 10;
+
+  private final List<FileTiming> timings = new ArrayList<FileTiming>();
+  private long loadTime;
+  private long startTime;
+  private long totalTime;
+
+  public void setLoadTime( long nanos ) {
+    loadTime = nanos;
+  }
+
+  /**
+   * Marks the start of the check, after the library has been loaded.
+   */
+  public void start() {
+    startTime = System.nanoTime();
+  }
+
+  /**
+   * Marks the end of the check, after all files have been reported.
+   */
+  public void stop() {
+    totalTime = System.nanoTime() - startTime;
+  }
+
+  /**
+   * Creates the timing for the next file.
+   *
+   * @param file
+   *          the file to be checked
+   * @return the timing to record the times for this file in
+   */
+  public FileTiming addFile( File file ) {
+    FileTiming timing = new FileTiming( file );
+    timings.add( timing );
+    return timing;
+  }
+
+  /**
+   * Prints a summary with the total times and the slowest files.
+   *
+   * @param out
+   *          the stream to print to
+   */
+  public void print( PrintStream out ) {
+    out.println( "Checked " + timings.size() + " files in " + format( totalTime )
+                 + " (" + formatRate( getFilesPerSecond() ) + " files/s)" );
+    out.println( "Library loaded in " + format( loadTime ) );
+    out.println( "Time per phase: read " + format( sum( FileTiming.READ ) )
+                 + ", text " + format( sum( FileTiming.TEXT ) )
+                 + ", check " + format( sum( FileTiming.CHECK ) )
+                 + ", report " + format( sum( FileTiming.REPORT ) ) );
+    List<FileTiming> slowest = getSlowestFiles();
+    if( !slowest.isEmpty() ) {
+      out.println( "Slowest files:" );
+      for( FileTiming timing : slowest ) {
+        out.println( "  " + format( timing.getTotal() ) + "  " + timing.file.getAbsolutePath() );
+      }
+    }
+  }
+
+  /**
+   * Writes all timings as JSON object to the given file.
+   *
+   * @param file
+   *          the file to write to
+   * @throws IOException
+   *           if the file cannot be written
+   */
+  public void writeTo( File file ) throws IOException {
+    Writer writer = new OutputBuffer( new OutputStreamWriter( new FileOutputStream( file ),
+                                                              "UTF-8" ) );
+    try {
+      toJson().writeTo( writer );
+      writer.write( '\n' );
+    } finally {
+      writer.close();
+    }
+  }
+
+  JsonObject toJson() {
+    JsonArray files = new JsonArray();
+    for( FileTiming timing : timings ) {
+      files.add( timing.toJson() );
+    }
+    JsonArray slowest = new JsonArray();
+    for( FileTiming timing : getSlowestFiles() ) {
+      slowest.add( timing.file.getAbsolutePath() );
+    }
+    JsonObject object = new JsonObject();
+    object.add( "fileCount", timings.size() );
+    object.add( "total", toMillis( totalTime ) );
+    object.add( "load", toMillis( loadTime ) );
+    object.add( "read", toMillis( sum( FileTiming.READ ) ) );
+    object.add( "text", toMillis( sum( FileTiming.TEXT ) ) );
+    object.add( "check", toMillis( sum( FileTiming.CHECK ) ) );
+    object.add( "report", toMillis( sum( FileTiming.REPORT ) ) );
+    object.add( "filesPerSecond", getFilesPerSecond() );
+    object.add( "slowest", slowest );
+    object.add( "files", files );
+    return object;
+  }
+
+  List<FileTiming> getSlowestFiles() {
+    List<FileTiming> sorted = new ArrayList<FileTiming>( timings );
+    Collections.sort( sorted, new Comparator<FileTiming>() {
+      public int compare( FileTiming timing1, FileTiming timing2 ) {
+        long total1 = timing1.getTotal();
+        long total2 = timing2.getTotal();
+        return total1 < total2 ? 1 : total1 == total2 ? 0 : -1;
+      }
+    } );
+    return sorted.subList( 0, Math.min( SLOWEST_FILES_COUNT, sorted.size() ) );
+  }
+
+  private double getFilesPerSecond() {
+    return totalTime > 0 ? timings.size() * 1e9 / totalTime : 0;
+  }
+
+  private long sum( int phase ) {
+    long sum = 0;
+    for( FileTiming timing : timings ) {
+      sum += timing.times[ phase ];
+    }
+    return sum;
+  }
+
+  private static String format( long nanos ) {
+    return String.format( Locale.ENGLISH, "%.3f s", Double.valueOf( nanos / 1e9 ) );
+  }
+
+  private static String formatRate( double rate ) {
+    return String.format( Locale.ENGLISH, "%.1f", Double.valueOf( rate ) );
+  }
+
+  private static double toMillis( long nanos ) {
+    return Math.round( nanos / 1e3 ) / 1e3;
+  }
+
+  public static final class FileTiming {
+
+    public static final int READ = 0;
+    public static final int TEXT = 1;
+    public static final int CHECK = 2;
+    public static final int REPORT = 3;
+
+    private final File file;
+    private final long[] times = new long[ 4 ];
+    private long phaseStart;
+
+    FileTiming( File file ) {
+      this.file = file;
+    }
+
+    /**
+     * Starts measuring a phase. Only one phase can be measured at a time.
+     */
+    public void begin() {
+      phaseStart = System.nanoTime();
+    }
+
+    /**
+     * Ends measuring a phase and records the time since the last call to {@link #begin()}.
+     *
+     * @param phase
+     *          one of {@link #READ}, {@link #TEXT}, {@link #CHECK}, or {@link #REPORT}
+     */
+    public void end( int phase ) {
+      add( phase, System.nanoTime() - phaseStart );
+    }
+
+    public long getTotal() {
+      return times[ READ ] + times[ TEXT ] + times[ CHECK ] + times[ REPORT ];
+    }
+
+    void add( int phase, long nanos ) {
+      times[ phase ] += nanos;
+    }
+
+    JsonObject toJson() {
+      JsonObject object = new JsonObject();
+      object.add( "file", file.getAbsolutePath() );
+      object.add( "read", toMillis( times[ READ ] ) );
+      object.add( "text", toMillis( times[ TEXT ] ) );
+      object.add( "check", toMillis( times[ CHECK ] ) );
+      object.add( "report", toMillis( times[ REPORT ] ) );
+      object.add( "total", toMillis( getTotal() ) );
+      return object;
+    }
+
+  }
+
+}
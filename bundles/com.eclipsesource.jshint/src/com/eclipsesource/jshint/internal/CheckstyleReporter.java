@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Ralf Sternberg - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint.internal;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import com.eclipsesource.jshint.CheckResult;
+
+
+/**
+ * Reports problems in the checkstyle XML format, which is understood by most CI servers. Files
+ * without problems are included as empty <code>file</code> elements.
+ */
+public class CheckstyleReporter extends Reporter {
+
+  public CheckstyleReporter( Writer writer ) {
+    super( writer );
+  }
+
+  @Override
+  public void begin() throws IOException {
+    writer.write( "<?xml version=\"1.0\" encoding=\"utf-8\"?>\n" );
+    writer.write( "<checkstyle version=\"4.3\">\n" );
+  }
+
+  @Override
+  public void reportFile( String path, CheckResult result ) throws IOException {
+    writer.write( "  <file name=\"" );
+    writeEscaped( path );
+    writer.write( "\">\n" );
+    for( int i = 0; i < result.size(); i++ ) {
+      writer.write( "    <error line=\"" );
+      writer.write( Integer.toString( result.getLine( i ) ) );
+      writer.write( "\" column=\"" );
+      // checkstyle columns start with 1
+      writer.write( Integer.toString( Math.max( result.getCharacter( i ), 0 ) + 1 ) );
+      writer.write( "\" severity=\"" );
+      writer.write( isError( result.getCode( i ) ) ? "error" : "warning" );
+      writer.write( "\" message=\"" );
+      writeEscaped( result.getMessage( i ) );
+      writer.write( "\" source=\"jshint." );
+      writeEscaped( result.getCode( i ) );
+      writer.write( "\"/>\n" );
+    }
+    writer.write( "  </file>\n" );
+  }
+
+  @Override
+  public void end() throws IOException {
+    writer.write( "</checkstyle>\n" );
+  }
+
+  private void writeEscaped( String string ) throws IOException {
+    if( string == null ) {
+      return;
+    }
+    int length = string.length();
+    int start = 0;
+    for( int i = 0; i < length; i++ ) {
+      String replacement = getReplacement( string.charAt( i ) );
+      if( replacement != null ) {
+        writer.write( string, start, i - start );
+        writer.write( replacement );
+        start = i + 1;
+      }
+    }
+    writer.write( string, start, length - start );
+  }
+
+  private static String getReplacement( char ch ) {
+    switch( ch ) {
+      case '&':
+        return "&amp;";
+      case '<':
+        return "&lt;";
+      case '>':
+        return "&gt;";
+      case '"':
+        return "&quot;";
+      case '\'':
+        return "&apos;";
+      case '\t':
+      case '\n':
+      case '\r':
+        return "&#" + ( int )ch + ";";
+    }
+    // other control characters are not allowed in XML 1.0
+    return ch < 0x20 ? " " : null;
+  }
+
+}
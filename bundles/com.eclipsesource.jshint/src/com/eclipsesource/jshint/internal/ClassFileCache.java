@@ -0,0 +1,185 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Ralf Sternberg - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint.internal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.mozilla.javascript.CompilerEnvirons;
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.GeneratedClassLoader;
+import org.mozilla.javascript.Script;
+import org.mozilla.javascript.optimizer.ClassCompiler;
+
+
+/**
+ * Stores the Java classes that Rhino generates for a library in a directory, so that a library
+ * can be loaded without compiling it again, even in a new VM.
+ * <p>
+ * Cache entries are keyed by the digest of the library source, the Rhino version, and the
+ * optimization level and language version of the compiling context. Corrupt or unreadable entries
+ * are ignored and replaced by a fresh compilation. Failures to write an entry are ignored as well.
+ * </p>
+ */
+public class ClassFileCache {
+
+  private static final int FORMAT_MAGIC = 0x4a534843;
+  private static final String CLASS_NAME_PREFIX = "org.mozilla.javascript.gen.jshint_";
+  private final File directory;
+
+  public ClassFileCache( File directory ) {
+    if( directory == null ) {
+      throw new NullPointerException( "directory is null" );
+    }
+    this.directory = directory;
+  }
+
+  /**
+   * Returns the script for the given library source. The script is loaded from the cache
+   * directory if present, otherwise the source is compiled and the result is stored in the cache.
+   *
+   * @param context
+   *          the current context
+   * @param source
+   *          the source of the library
+   * @param digest
+   *          the digest of the source
+   * @return the compiled script
+   */
+  public Script getScript( Context context, String source, String digest ) {
+    String key = createKey( context, digest );
+    File file = getCacheFile( key );
+    Script script = loadScript( context, file );
+    if( script == null ) {
+      Object[] classFiles = compile( context, source, CLASS_NAME_PREFIX + key );
+      writeClassFiles( file, classFiles );
+      script = defineScript( context, classFiles );
+    }
+    return script;
+  }
+
+  File getCacheFile( String key ) {
+    return new File( directory, "jshint-" + key + ".classes" );
+  }
+
+  static String createKey( Context context, String digest ) {
+    StringBuilder builder = new StringBuilder();
+    builder.append( digest ).append( '\n' );
+    builder.append( context.getImplementationVersion() ).append( '\n' );
+    builder.append( context.getOptimizationLevel() ).append( '\n' );
+    builder.append( context.getLanguageVersion() );
+    return CompiledLibrary.createDigest( builder.toString() );
+  }
+
+  private static Script loadScript( Context context, File file ) {
+    Object[] classFiles = file.isFile() ? readClassFiles( file ) : null;
+    if( classFiles != null ) {
+      try {
+        return defineScript( context, classFiles );
+      } catch( LinkageError error ) {
+        // invalid class files, compile again
+      } catch( RuntimeException exception ) {
+        // invalid class files, compile again
+      }
+    }
+    return null;
+  }
+
+  private static Object[] compile( Context context, String source, String mainClassName ) {
+    CompilerEnvirons environs = new CompilerEnvirons();
+    environs.initFromContext( context );
+    ClassCompiler compiler = new ClassCompiler( environs );
+    return compiler.compileToClassFiles( source, "jshint library", 1, mainClassName );
+  }
+
+  private static Script defineScript( Context context, Object[] classFiles ) {
+    ClassLoader parent = context.getApplicationClassLoader();
+    GeneratedClassLoader loader = context.createClassLoader( parent );
+    Class<?> mainClass = null;
+    for( int i = 0; i < classFiles.length; i += 2 ) {
+      Class<?> definedClass = loader.defineClass( ( String )classFiles[ i ],
+                                                  ( byte[] )classFiles[ i + 1 ] );
+      loader.linkClass( definedClass );
+      if( mainClass == null ) {
+        mainClass = definedClass;
+      }
+    }
+    try {
+      return ( Script )mainClass.newInstance();
+    } catch( Exception exception ) {
+      throw new RuntimeException( "Failed to instantiate compiled library", exception );
+    }
+  }
+
+  private static Object[] readClassFiles( File file ) {
+    try {
+      InputStream inputStream = new BufferedInputStream( new FileInputStream( file ) );
+      DataInputStream input = new DataInputStream( inputStream );
+      try {
+        if( input.readInt() != FORMAT_MAGIC ) {
+          return null;
+        }
+        int count = input.readInt();
+        Object[] classFiles = new Object[ count * 2 ];
+        for( int i = 0; i < count; i++ ) {
+          classFiles[ i * 2 ] = input.readUTF();
+          byte[] bytes = new byte[ input.readInt() ];
+          input.readFully( bytes );
+          classFiles[ i * 2 + 1 ] = bytes;
+        }
+        return count > 0 ? classFiles : null;
+      } finally {
+        input.close();
+      }
+    } catch( IOException exception ) {
+      return null;
+    } catch( RuntimeException exception ) {
+      // corrupt cache file, e.g. a negative array size
+      return null;
+    }
+  }
+
+  private void writeClassFiles( File file, Object[] classFiles ) {
+    // Write to a temporary file first to prevent other processes from reading incomplete entries
+    File tmpFile = new File( directory, file.getName() + "." + System.nanoTime() + ".tmp" );
+    try {
+      directory.mkdirs();
+      OutputStream outputStream = new BufferedOutputStream( new FileOutputStream( tmpFile ) );
+      DataOutputStream output = new DataOutputStream( outputStream );
+      try {
+        output.writeInt( FORMAT_MAGIC );
+        output.writeInt( classFiles.length / 2 );
+        for( int i = 0; i < classFiles.length; i += 2 ) {
+          byte[] bytes = ( byte[] )classFiles[ i + 1 ];
+          output.writeUTF( ( String )classFiles[ i ] );
+          output.writeInt( bytes.length );
+          output.write( bytes );
+        }
+      } finally {
+        output.close();
+      }
+      if( !tmpFile.renameTo( file ) ) {
+        tmpFile.delete();
+      }
+    } catch( IOException exception ) {
+      tmpFile.delete();
+    }
+  }
+
+}
@@ -0,0 +1,347 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Ralf Sternberg - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.NativeJavaPackage;
+import org.mozilla.javascript.Script;
+import org.mozilla.javascript.Scriptable;
+import org.mozilla.javascript.ScriptableObject;
+import org.mozilla.javascript.xml.XMLObject;
+
+
+/**
+ * A JSHint library that has been compiled once and can be executed in any number of scopes. The
+ * compiled script is cached by the digest of its source, so that loading the same library again
+ * does not compile it again. Only the most recently used libraries are kept in the cache, so that
+ * every edited version of a custom library does not leave its generated classes in memory.
+ * <p>
+ * The library itself keeps its state in the scope it is executed in. Therefore, every JSHint
+ * instance executes the compiled script in a scope of its own. This scope is cheap, since it uses a
+ * sealed scope with the standard objects as prototype, which is shared by all instances.
+ * </p>
+ * <p>
+ * Only the shared scope itself is sealed, not the standard objects it contains, because JSHint
+ * re-assigns some of their properties (e.g. lodash assigns <code>Object.preventExtensions</code>
+ * to itself). To make the standard objects safe for concurrent use, all their lazily created
+ * properties are resolved before the scope is shared.
+ * </p>
+ * <p>
+ * With tiered compilation enabled, a library is first compiled for Rhino's interpreter, which is
+ * much faster than generating Java classes. The optimized version is then compiled in a background
+ * thread and replaces the interpreted script once it is ready. The background compilation starts
+ * only after the first scope has been created, so that it does not slow down the initial load.
+ * Scopes that have been created before remain interpreted, see {@link #isOptimized()}.
+ * </p>
+ */
+public class CompiledLibrary {
+
+  static final int MAX_CACHED_LIBRARIES = 8;
+
+  private static final Map<String, CompiledLibrary> cache
+    = new LinkedHashMap<String, CompiledLibrary>( 16, 0.75f, true ) {
+      @Override
+      protected boolean removeEldestEntry( Map.Entry<String, CompiledLibrary> eldest ) {
+        return size() > MAX_CACHED_LIBRARIES;
+      }
+    };
+  private static ScriptableObject sharedScope;
+  private static volatile ClassFileCache classFileCache;
+  private static volatile boolean tieredCompilation;
+
+  private final String digest;
+  private volatile Script script;
+  private volatile boolean optimized;
+  private String pendingSource;
+  private int pendingOptimizationLevel;
+  private int pendingLanguageVersion;
+
+  private CompiledLibrary( String digest, Script script, boolean optimized ) {
+    this.digest = digest;
+    this.script = script;
+    this.optimized = optimized;
+  }
+
+  /**
+   * Sets the directory to store the classes generated for compiled libraries in. When a directory
+   * is set, libraries are loaded from this directory instead of being compiled again whenever
+   * possible, even across VM restarts.
+   *
+   * @param directory
+   *          the cache directory or <code>null</code> to disable the persistent cache
+   */
+  public static void setCacheDirectory( File directory ) {
+    classFileCache = directory == null ? null : new ClassFileCache( directory );
+  }
+
+  /**
+   * Enables or disables tiered compilation for libraries that are compiled subsequently. When
+   * enabled, libraries are first compiled in interpreted mode, and the optimized version is
+   * compiled in a background thread.
+   *
+   * @param enabled
+   *          <code>true</code> to enable tiered compilation
+   */
+  public static void setTieredCompilation( boolean enabled ) {
+    tieredCompilation = enabled;
+  }
+
+  /**
+   * Returns the compiled library for the given source. The library is compiled using the given
+   * context unless it is found in the cache.
+   *
+   * @param context
+   *          the current context
+   * @param reader
+   *          the reader to read the library source from
+   * @return the compiled library, never <code>null</code>
+   */
+  public static CompiledLibrary get( Context context, Reader reader ) throws IOException {
+    String source = readSource( reader );
+    String digest = createDigest( source );
+    synchronized( cache ) {
+      CompiledLibrary library = cache.get( digest );
+      if( library == null ) {
+        if( tieredCompilation && context.getOptimizationLevel() >= 0 ) {
+          Script script = compileInterpreted( context, source );
+          library = new CompiledLibrary( digest, script, false );
+          library.pendingSource = source;
+          library.pendingOptimizationLevel = context.getOptimizationLevel();
+          library.pendingLanguageVersion = context.getLanguageVersion();
+        } else {
+          Script script = compile( context, source, digest );
+          library = new CompiledLibrary( digest, script, true );
+        }
+        cache.put( digest, library );
+      }
+      return library;
+    }
+  }
+
+  /**
+   * Returns the library that has been compiled to a Java class at build time. The class must
+   * implement {@link Script} and be visible to the class loader of this bundle.
+   *
+   * @param className
+   *          the fully qualified name of the precompiled class
+   * @return the precompiled library, or <code>null</code> if the class does not exist or cannot be
+   *         used with the installed Rhino version
+   */
+  public static CompiledLibrary getPrecompiled( String className ) {
+    synchronized( cache ) {
+      CompiledLibrary library = cache.get( className );
+      if( library == null ) {
+        Script script = loadPrecompiledScript( className );
+        if( script != null ) {
+          library = new CompiledLibrary( className, script, true );
+          cache.put( className, library );
+        }
+      }
+      return library;
+    }
+  }
+
+  /**
+   * Returns the digest of the library source. For precompiled libraries, this is the name of the
+   * precompiled class.
+   *
+   * @return the hexadecimal SHA-1 digest of the library source, or the name of the precompiled
+   *         class
+   */
+  public String getDigest() {
+    return digest;
+  }
+
+  /**
+   * Indicates whether the optimized version of this library is available. Scopes created after
+   * this method returned <code>true</code> execute the optimized version.
+   *
+   * @return <code>false</code> if the library is still interpreted, otherwise <code>true</code>
+   */
+  public boolean isOptimized() {
+    return optimized;
+  }
+
+  /**
+   * Creates a new top-level scope and executes the library in it.
+   *
+   * @param context
+   *          the current context
+   * @return the new scope that contains the library
+   */
+  public Scriptable createScope( Context context ) {
+    Scriptable scope = context.newObject( getSharedScope( context ) );
+    scope.setPrototype( getSharedScope( context ) );
+    scope.setParentScope( null );
+    context.evaluateString( scope, createShimCode(), "shim", 1, null );
+    script.exec( context, scope );
+    startBackgroundCompilation();
+    return scope;
+  }
+
+  /**
+   * Returns a sealed scope that contains the standard objects. This scope is shared by all
+   * libraries and can be used from multiple threads. New properties cannot be added to this scope,
+   * assignments to global variables end up in the scope of the executing library instead.
+   *
+   * @param context
+   *          the current context
+   * @return the shared scope
+   */
+  public static ScriptableObject getSharedScope( Context context ) {
+    synchronized( cache ) {
+      if( sharedScope == null ) {
+        ScriptableObject scope = context.initStandardObjects();
+        resolveProperties( scope, new IdentityHashMap<Object, Object>() );
+        scope.sealObject();
+        sharedScope = scope;
+      }
+      return sharedScope;
+    }
+  }
+
+  static void clearCache() {
+    synchronized( cache ) {
+      cache.clear();
+    }
+  }
+
+  private static Script compile( Context context, String source, String digest ) {
+    ClassFileCache currentClassFileCache = classFileCache;
+    if( currentClassFileCache != null ) {
+      return currentClassFileCache.getScript( context, source, digest );
+    }
+    return context.compileString( source, "jshint library", 1, null );
+  }
+
+  private static Script loadPrecompiledScript( String className ) {
+    try {
+      Class<?> scriptClass = CompiledLibrary.class.getClassLoader().loadClass( className );
+      return ( Script )scriptClass.newInstance();
+    } catch( ClassNotFoundException exception ) {
+      // not precompiled, e.g. in a workspace build
+      return null;
+    } catch( LinkageError error ) {
+      // compiled against an incompatible Rhino version
+      return null;
+    } catch( Exception exception ) {
+      return null;
+    }
+  }
+
+  private static Script compileInterpreted( Context context, String source ) {
+    int optimizationLevel = context.getOptimizationLevel();
+    context.setOptimizationLevel( -1 );
+    try {
+      return context.compileString( source, "jshint library", 1, null );
+    } finally {
+      context.setOptimizationLevel( optimizationLevel );
+    }
+  }
+
+  private synchronized void startBackgroundCompilation() {
+    if( pendingSource != null ) {
+      final String source = pendingSource;
+      pendingSource = null;
+      Thread thread = new Thread( "JSHint library compiler" ) {
+        @Override
+        public void run() {
+          Context context = JSHintContextFactory.getInstance().enterContext();
+          try {
+            context.setOptimizationLevel( pendingOptimizationLevel );
+            context.setLanguageVersion( pendingLanguageVersion );
+            script = compile( context, source, digest );
+            optimized = true;
+          } catch( RuntimeException exception ) {
+            // keep the interpreted script
+          } finally {
+            Context.exit();
+          }
+        }
+      };
+      thread.setDaemon( true );
+      thread.start();
+    }
+  }
+
+  /*
+   * Rhino creates many properties of the standard objects lazily on first access. Accessing all
+   * properties once ensures that the objects are not modified when accessed concurrently later.
+   */
+  private static void resolveProperties( Object object, Map<Object, Object> visited ) {
+    if( object instanceof ScriptableObject
+        && !( object instanceof NativeJavaPackage )
+        && !( object instanceof XMLObject )
+        && !visited.containsKey( object ) )
+    {
+      visited.put( object, object );
+      ScriptableObject scriptable = ( ScriptableObject )object;
+      for( Object id : scriptable.getAllIds() ) {
+        if( id instanceof String ) {
+          resolveProperties( scriptable.get( ( String )id, scriptable ), visited );
+        } else if( id instanceof Number ) {
+          resolveProperties( scriptable.get( ( ( Number )id ).intValue(), scriptable ), visited );
+        }
+      }
+      resolveProperties( scriptable.getPrototype(), visited );
+    }
+  }
+
+  private static String createShimCode() {
+    // Create shims to prevent problems with JSHint accessing objects that are not available in
+    // Rhino, e.g. https://github.com/jshint/jshint/issues/1038
+    return "console = {log:function(){},error:function(){},trace:function(){}};"
+         + "window = {};"
+         + "global = this;";
+  }
+
+  private static String readSource( Reader reader ) throws IOException {
+    StringBuilder builder = new StringBuilder();
+    char[] buffer = new char[ 8192 ];
+    int read = reader.read( buffer );
+    while( read != -1 ) {
+      builder.append( buffer, 0, read );
+      read = reader.read( buffer );
+    }
+    return builder.toString();
+  }
+
+  static String createDigest( String source ) {
+    try {
+      MessageDigest messageDigest = MessageDigest.getInstance( "SHA-1" );
+      return toHexString( messageDigest.digest( source.getBytes( "UTF-8" ) ) );
+    } catch( NoSuchAlgorithmException exception ) {
+      throw new RuntimeException( exception );
+    } catch( UnsupportedEncodingException exception ) {
+      throw new RuntimeException( exception );
+    }
+  }
+
+  private static String toHexString( byte[] bytes ) {
+    StringBuilder builder = new StringBuilder( bytes.length * 2 );
+    for( byte value : bytes ) {
+      builder.append( Character.forDigit( ( value >> 4 ) & 0xf, 16 ) );
+      builder.append( Character.forDigit( value & 0xf, 16 ) );
+    }
+    return builder.toString();
+  }
+
+}
@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Ralf Sternberg - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint.internal;
+
+import java.io.File;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.eclipsesource.jshint.Text;
+import com.eclipsesource.json.JsonObject;
+
+import static com.eclipsesource.jshint.internal.CommentsFilter.filterComments;
+
+
+/**
+ * Finds the configuration for a file by looking for the nearest <code>.jshintrc</code> file in
+ * the directory of the file and its parent directories. If there is no such file, a default
+ * configuration is used.
+ * <p>
+ * Results are remembered per directory, so that every directory is looked up only once and every
+ * configuration file is parsed only once. Files in the same directory tree share the same
+ * configuration object, which must not be modified. This class is not thread-safe.
+ * </p>
+ */
+public class ConfigResolver {
+
+  public static final String CONFIG_FILE_NAME = ".jshintrc";
+
+  private static final Charset UTF_8 = Charset.forName( "UTF-8" );
+
+  private final JsonObject defaultConfiguration;
+  private final Map<File, JsonObject> configurations;
+
+  public ConfigResolver( JsonObject defaultConfiguration ) {
+    this.defaultConfiguration = defaultConfiguration;
+    configurations = new HashMap<File, JsonObject>();
+  }
+
+  /**
+   * Returns the configuration to use for the given file.
+   *
+   * @param file
+   *          the file to find the configuration for
+   * @return the configuration, must not be modified
+   * @throws IllegalArgumentException
+   *           if a configuration file has been found but cannot be read
+   */
+  public JsonObject getConfiguration( File file ) {
+    File directory = file.getAbsoluteFile().getParentFile();
+    return directory == null ? defaultConfiguration : getDirectoryConfiguration( directory );
+  }
+
+  /**
+   * Reads a configuration file. Comments in the file are ignored.
+   *
+   * @param file
+   *          the configuration file to read
+   * @return the configuration
+   * @throws IllegalArgumentException
+   *           if the file cannot be read or does not contain a valid JSON object
+   */
+  public static JsonObject readConfiguration( File file ) {
+    try {
+      String content = new Text( file, UTF_8 ).getContent();
+      return JsonObject.readFrom( filterComments( content ) );
+    } catch( Exception exception ) {
+      String message = "Failed to read configuration file "
+                       + file.getAbsolutePath()
+                       + ": "
+                       + exception.getMessage();
+      throw new IllegalArgumentException( message );
+    }
+  }
+
+  private JsonObject getDirectoryConfiguration( File directory ) {
+    JsonObject configuration = configurations.get( directory );
+    if( configuration == null ) {
+      File configFile = new File( directory, CONFIG_FILE_NAME );
+      if( configFile.isFile() ) {
+        configuration = readConfiguration( configFile );
+      } else {
+        File parent = directory.getParentFile();
+        configuration = parent == null ? defaultConfiguration : getDirectoryConfiguration( parent );
+      }
+      configurations.put( directory, configuration );
+    }
+    return configuration;
+  }
+
+}
@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Ralf Sternberg - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+
+/**
+ * Walks a directory tree and reports all files that match one of the include patterns and none of
+ * the exclude patterns. Paths are matched relative to the directory the walk starts in. Folders
+ * are not traversed if no include pattern can match files below them, or if an exclude pattern
+ * matches the entire folder tree.
+ * <p>
+ * Files are reported in a stable order, sorted by name within each folder, while the walk is still
+ * in progress.
+ * </p>
+ */
+public class FileWalker {
+
+  private final List<PathPattern> includes;
+  private final List<PathPattern> excludes;
+
+  public interface FileVisitor {
+    void visitFile( File file );
+  }
+
+  public FileWalker( List<PathPattern> includes, List<PathPattern> excludes ) {
+    this.includes = new ArrayList<PathPattern>( includes );
+    this.excludes = new ArrayList<PathPattern>( excludes );
+  }
+
+  /**
+   * Walks the given directory and reports all matching files to the given visitor.
+   *
+   * @param directory
+   *          the directory to start in
+   * @param visitor
+   *          the visitor to report matching files to
+   */
+  public void walk( File directory, FileVisitor visitor ) {
+    walk( directory, new String[ 0 ], visitor, new HashSet<String>() );
+  }
+
+  boolean isIncluded( String[] folderSegments, String fileName ) {
+    return matchesAny( includes, folderSegments, fileName )
+           && !matchesAny( excludes, folderSegments, fileName );
+  }
+
+  boolean isTraversed( String[] folderSegments ) {
+    for( PathPattern exclude : excludes ) {
+      if( exclude.matchesFolderTree( folderSegments ) ) {
+        return false;
+      }
+    }
+    for( PathPattern include : includes ) {
+      if( include.matchesFolderPrefix( folderSegments ) ) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void walk( File directory, String[] segments, FileVisitor visitor, Set<String> visited ) {
+    File[] children = directory.listFiles();
+    // skip unreadable directories and symbolic link cycles
+    if( children == null || !visited.add( getCanonicalPath( directory ) ) ) {
+      return;
+    }
+    Arrays.sort( children );
+    for( File child : children ) {
+      if( child.isDirectory() ) {
+        String[] childSegments = append( segments, child.getName() );
+        if( isTraversed( childSegments ) ) {
+          walk( child, childSegments, visitor, visited );
+        }
+      } else if( isIncluded( segments, child.getName() ) ) {
+        visitor.visitFile( child );
+      }
+    }
+  }
+
+  private static boolean matchesAny( List<PathPattern> patterns,
+                                     String[] folderSegments,
+                                     String fileName )
+  {
+    for( PathPattern pattern : patterns ) {
+      if( pattern.matchesFolder( folderSegments ) && pattern.matchesFile( fileName ) ) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String[] append( String[] segments, String segment ) {
+    String[] result = new String[ segments.length + 1 ];
+    System.arraycopy( segments, 0, result, 0, segments.length );
+    result[ segments.length ] = segment;
+    return result;
+  }
+
+  private static String getCanonicalPath( File directory ) {
+    try {
+      return directory.getCanonicalPath();
+    } catch( IOException exception ) {
+      return directory.getAbsolutePath();
+    }
+  }
+
+}
@@ -0,0 +1,172 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Ralf Sternberg - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint.internal;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.eclipsesource.jshint.internal.FileWalker.FileVisitor;
+
+
+/**
+ * Detects changes to a set of input files and directories by comparing the modification time and
+ * length of all files between scans. Directories are scanned with a {@link FileWalker}, so new
+ * files are detected if they match the walker's patterns.
+ */
+public class FileWatcher {
+
+  private static final int MAX_COALESCED_SCANS = 4;
+
+  private final List<File> inputs;
+  private final FileWalker walker;
+  private Map<File, Stamp> snapshot;
+
+  public FileWatcher( List<File> inputs, FileWalker walker ) {
+    this.inputs = new ArrayList<File>( inputs );
+    this.walker = walker;
+    snapshot = new HashMap<File, Stamp>();
+  }
+
+  /**
+   * Scans all inputs and returns the changes since the last scan. The first scan reports all
+   * existing files as changed.
+   *
+   * @return the changes since the last scan
+   */
+  public Changes scan() {
+    final Map<File, Stamp> current = new HashMap<File, Stamp>();
+    FileVisitor visitor = new FileVisitor() {
+      public void visitFile( File file ) {
+        current.put( file, new Stamp( file ) );
+      }
+    };
+    for( File input : inputs ) {
+      if( input.isDirectory() ) {
+        walker.walk( input, visitor );
+      } else if( input.exists() ) {
+        visitor.visitFile( input );
+      }
+    }
+    Changes changes = new Changes();
+    for( Map.Entry<File, Stamp> entry : current.entrySet() ) {
+      if( !entry.getValue().equals( snapshot.get( entry.getKey() ) ) ) {
+        changes.changed.add( entry.getKey() );
+      }
+    }
+    for( File file : snapshot.keySet() ) {
+      if( !current.containsKey( file ) ) {
+        changes.removed.add( file );
+      }
+    }
+    snapshot = current;
+    return changes;
+  }
+
+  /**
+   * Scans the inputs in the given interval until there are changes. Editors and build tools often
+   * write several files in a row, so scanning continues until a scan finds no further changes.
+   * All changes are then returned together. Files that change in every interval, like logs, would
+   * prevent this forever, so the changes are returned after at most a few more scans.
+   *
+   * @param interval
+   *          the time between two scans in milliseconds
+   * @return the changes since the last scan, never empty
+   * @throws InterruptedException
+   *           if the thread is interrupted while waiting
+   */
+  public Changes waitForChanges( long interval ) throws InterruptedException {
+    Changes changes = new Changes();
+    do {
+      Thread.sleep( interval );
+      changes.add( scan() );
+    } while( changes.isEmpty() );
+    for( int i = 0; i < MAX_COALESCED_SCANS; i++ ) {
+      Thread.sleep( interval );
+      Changes next = scan();
+      if( next.isEmpty() ) {
+        break;
+      }
+      changes.add( next );
+    }
+    return changes;
+  }
+
+  public static final class Changes {
+
+    private final Set<File> changed = new LinkedHashSet<File>();
+    private final Set<File> removed = new LinkedHashSet<File>();
+
+    /**
+     * Returns the files that have been added or modified.
+     */
+    public List<File> getChangedFiles() {
+      return new ArrayList<File>( changed );
+    }
+
+    /**
+     * Returns the files that have been removed.
+     */
+    public List<File> getRemovedFiles() {
+      return new ArrayList<File>( removed );
+    }
+
+    public boolean isEmpty() {
+      return changed.isEmpty() && removed.isEmpty();
+    }
+
+    void add( Changes later ) {
+      for( File file : later.changed ) {
+        removed.remove( file );
+        changed.add( file );
+      }
+      for( File file : later.removed ) {
+        changed.remove( file );
+        removed.add( file );
+      }
+    }
+
+  }
+
+  private static final class Stamp {
+
+    private final long lastModified;
+    private final long length;
+
+    Stamp( File file ) {
+      lastModified = file.lastModified();
+      length = file.length();
+    }
+
+    @Override
+    public boolean equals( Object object ) {
+      if( object == this ) {
+        return true;
+      }
+      if( !( object instanceof Stamp ) ) {
+        return false;
+      }
+      Stamp other = ( Stamp )object;
+      return lastModified == other.lastModified && length == other.length;
+    }
+
+    @Override
+    public int hashCode() {
+      return ( int )( lastModified ^ length );
+    }
+
+  }
+
+}
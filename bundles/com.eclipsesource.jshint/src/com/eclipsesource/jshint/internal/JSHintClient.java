@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Ralf Sternberg - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.List;
+
+
+/**
+ * Sends the arguments of a command line runner invocation to a {@link JSHintDaemon} and prints
+ * the output. Paths in the arguments must be absolute, since the daemon may run in a different
+ * working directory. The client authenticates with the token the daemon has written for its port,
+ * so only the user who started the daemon can send requests.
+ */
+public class JSHintClient {
+
+  private final int port;
+  private final File tokenDirectory;
+
+  public JSHintClient( int port ) {
+    this( port, JSHintDaemon.DEFAULT_TOKEN_DIRECTORY );
+  }
+
+  JSHintClient( int port, File tokenDirectory ) {
+    this.port = port;
+    this.tokenDirectory = tokenDirectory;
+  }
+
+  /**
+   * Sends a request to the daemon and copies the response to the given stream.
+   *
+   * @param args
+   *          the arguments for the runner
+   * @param out
+   *          the stream to print the output to
+   * @throws IllegalArgumentException
+   *           if an argument is empty or contains line breaks, or if there is no daemon
+   *           listening on the port, or if its token cannot be read
+   * @throws IOException
+   *           if the connection fails while the request is processed
+   */
+  public void send( List<String> args, PrintStream out ) throws IOException {
+    for( String arg : args ) {
+      if( arg.length() == 0 || arg.indexOf( '\n' ) != -1 || arg.indexOf( '\r' ) != -1 ) {
+        throw new IllegalArgumentException( "Argument not supported by the daemon: '" + arg + "'" );
+      }
+    }
+    Socket socket = connect();
+    try {
+      String token = readToken();
+      Writer writer = new OutputStreamWriter( socket.getOutputStream(), JSHintDaemon.CHARSET );
+      writer.write( token );
+      writer.write( '\n' );
+      for( String arg : args ) {
+        writer.write( arg );
+        writer.write( '\n' );
+      }
+      writer.write( '\n' );
+      writer.flush();
+      Reader reader = new InputStreamReader( socket.getInputStream(), JSHintDaemon.CHARSET );
+      char[] buffer = new char[ 8192 ];
+      int count = reader.read( buffer );
+      while( count != -1 ) {
+        out.print( new String( buffer, 0, count ) );
+        count = reader.read( buffer );
+      }
+      out.flush();
+    } finally {
+      socket.close();
+    }
+  }
+
+  private Socket connect() {
+    try {
+      return new Socket( InetAddress.getByName( "127.0.0.1" ), port );
+    } catch( IOException exception ) {
+      throw new IllegalArgumentException( "Cannot connect to JSHint daemon on port " + port );
+    }
+  }
+
+  private String readToken() {
+    File file = JSHintDaemon.getTokenFile( tokenDirectory, port );
+    try {
+      return JSHintDaemon.readToken( file );
+    } catch( IOException exception ) {
+      String message = "Cannot read token of JSHint daemon on port " + port + " from "
+                       + file.getAbsolutePath();
+      throw new IllegalArgumentException( message );
+    }
+  }
+
+}
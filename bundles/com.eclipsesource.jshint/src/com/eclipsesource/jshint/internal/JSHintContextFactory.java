@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Ralf Sternberg - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint.internal;
+
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.ContextFactory;
+
+
+/**
+ * The context factory for all contexts used to load and run JSHint. Contexts created by this
+ * factory are preset to the optimization level and language version JSHint is compiled with, and
+ * have E4X disabled, since JSHint does not use it.
+ * <p>
+ * Note that entering a context on a thread that has already entered a context reuses the existing
+ * context, regardless of the factory that created it.
+ * </p>
+ */
+public class JSHintContextFactory extends ContextFactory {
+
+  private static final JSHintContextFactory INSTANCE = new JSHintContextFactory();
+
+  private JSHintContextFactory() {
+    // singleton
+  }
+
+  public static JSHintContextFactory getInstance() {
+    return INSTANCE;
+  }
+
+  @Override
+  protected Context makeContext() {
+    Context context = super.makeContext();
+    context.setOptimizationLevel( 9 );
+    context.setLanguageVersion( Context.VERSION_1_5 );
+    return context;
+  }
+
+  @Override
+  protected boolean hasFeature( Context context, int featureIndex ) {
+    if( featureIndex == Context.FEATURE_E4X ) {
+      return false;
+    }
+    return super.hasFeature( context, featureIndex );
+  }
+
+}
@@ -0,0 +1,300 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Ralf Sternberg - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint.internal;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.eclipsesource.jshint.JSHintPool;
+
+
+/**
+ * A server that keeps a pool of loaded JSHint instances and runs the command line runner on
+ * behalf of {@link JSHintClient}s. The server only listens on the loopback interface.
+ * <p>
+ * When bound, the daemon writes a random token to a file that only the current user can read.
+ * A client sends this token in the first line, followed by the arguments for the runner, one per
+ * line, and an empty line, all in UTF-8. Requests without the correct token are rejected. The
+ * server runs the runner with these arguments, sends its output back in UTF-8, and closes the
+ * connection. Every connection is read in a separate thread, so a client that does not send its
+ * request cannot block other clients. Requests are run one after another, each request checks its
+ * files in parallel.
+ * </p>
+ */
+public class JSHintDaemon {
+
+  static final String CHARSET = "UTF-8";
+  static final File DEFAULT_TOKEN_DIRECTORY = new File( System.getProperty( "user.home" ),
+                                                       ".jshint-daemon" );
+  private static final int TOKEN_TIMEOUT = 2000;
+  private static final int REQUEST_TIMEOUT = 10000;
+  private static final int TOKEN_LENGTH = 32;
+
+  private final JSHintPool pool;
+  private final String libraryId;
+  private final File tokenDirectory;
+  private final Object requestLock = new Object();
+  private ServerSocket serverSocket;
+  private File tokenFile;
+  private String token;
+
+  /**
+   * Creates a daemon for the given pool.
+   *
+   * @param pool
+   *          the loaded pool to check files with
+   * @param libraryId
+   *          identifies the library the pool has been loaded with, used to key cached results
+   */
+  public JSHintDaemon( JSHintPool pool, String libraryId ) {
+    this( pool, libraryId, DEFAULT_TOKEN_DIRECTORY );
+  }
+
+  JSHintDaemon( JSHintPool pool, String libraryId, File tokenDirectory ) {
+    this.pool = pool;
+    this.libraryId = libraryId;
+    this.tokenDirectory = tokenDirectory;
+  }
+
+  /**
+   * Binds this daemon to the given port on the loopback interface and writes the token file for
+   * this port.
+   *
+   * @param port
+   *          the port to listen on, or 0 to choose a free port
+   * @return the port the daemon is listening on
+   * @throws IOException
+   *           if the port cannot be bound or the token file cannot be written
+   */
+  public int bind( int port ) throws IOException {
+    serverSocket = new ServerSocket( port, 50, InetAddress.getByName( "127.0.0.1" ) );
+    int localPort = serverSocket.getLocalPort();
+    try {
+      token = createToken();
+      tokenFile = getTokenFile( tokenDirectory, localPort );
+      writeTokenFile( tokenFile, token );
+    } catch( IOException exception ) {
+      serverSocket.close();
+      throw exception;
+    }
+    return localPort;
+  }
+
+  /**
+   * Handles requests until this daemon is stopped. Must be called after {@link #bind(int)}.
+   *
+   * @throws IOException
+   *           if accepting connections fails
+   */
+  public void serve() throws IOException {
+    while( !serverSocket.isClosed() ) {
+      Socket socket;
+      try {
+        socket = serverSocket.accept();
+      } catch( SocketException exception ) {
+        if( serverSocket.isClosed() ) {
+          return;
+        }
+        throw exception;
+      }
+      new ConnectionHandler( socket ).start();
+    }
+  }
+
+  /**
+   * Stops this daemon and deletes its token file. Returns immediately, the current request is
+   * still completed.
+   */
+  public void stop() throws IOException {
+    serverSocket.close();
+    if( tokenFile != null ) {
+      tokenFile.delete();
+    }
+  }
+
+  /**
+   * Returns the file that contains the token of the daemon on the given port.
+   *
+   * @param directory
+   *          the directory that contains the token files
+   * @param port
+   *          the port of the daemon
+   * @return the token file, which may not exist
+   */
+  static File getTokenFile( File directory, int port ) {
+    return new File( directory, port + ".token" );
+  }
+
+  /**
+   * Reads the token of a daemon from its token file.
+   *
+   * @param file
+   *          the token file
+   * @return the token
+   * @throws IOException
+   *           if the token file cannot be read
+   */
+  static String readToken( File file ) throws IOException {
+    FileInputStream inputStream = new FileInputStream( file );
+    try {
+      InputStreamReader inputReader = new InputStreamReader( inputStream, CHARSET );
+      String line = new BufferedReader( inputReader ).readLine();
+      return line != null ? line : "";
+    } finally {
+      inputStream.close();
+    }
+  }
+
+  private void handleRequest( Socket socket ) throws IOException {
+    socket.setSoTimeout( TOKEN_TIMEOUT );
+    InputStreamReader inputReader = new InputStreamReader( socket.getInputStream(), CHARSET );
+    BufferedReader reader = new BufferedReader( inputReader );
+    PrintStream out = new PrintStream( socket.getOutputStream(), false, CHARSET );
+    if( isValidToken( reader.readLine() ) ) {
+      socket.setSoTimeout( REQUEST_TIMEOUT );
+      List<String> args = readArgs( reader );
+      synchronized( requestLock ) {
+        new JSHintRunner( pool, libraryId, out ).run( args.toArray( new String[ args.size() ] ) );
+      }
+    } else {
+      out.println( "Request rejected by JSHint daemon: invalid token" );
+    }
+    out.flush();
+  }
+
+  private boolean isValidToken( String line ) throws IOException {
+    // compare in constant time to not reveal matching prefixes
+    return line != null
+           && MessageDigest.isEqual( token.getBytes( CHARSET ), line.getBytes( CHARSET ) );
+  }
+
+  private static List<String> readArgs( BufferedReader reader ) throws IOException {
+    List<String> args = new ArrayList<String>();
+    String line = reader.readLine();
+    while( line != null && line.length() > 0 ) {
+      args.add( line );
+      line = reader.readLine();
+    }
+    return args;
+  }
+
+  private static String createToken() {
+    byte[] bytes = new byte[ TOKEN_LENGTH ];
+    new SecureRandom().nextBytes( bytes );
+    StringBuilder builder = new StringBuilder( bytes.length * 2 );
+    for( byte b : bytes ) {
+      builder.append( Character.forDigit( ( b >> 4 ) & 0xf, 16 ) );
+      builder.append( Character.forDigit( b & 0xf, 16 ) );
+    }
+    return builder.toString();
+  }
+
+  private static void writeTokenFile( File file, String token ) throws IOException {
+    File directory = file.getParentFile();
+    if( !directory.isDirectory() ) {
+      if( !directory.mkdirs() ) {
+        throw new IOException( "Could not create " + directory.getAbsolutePath() );
+      }
+      restrictToOwner( directory );
+    }
+    // Replace a file left by a daemon that has not been stopped, never write to an existing file
+    file.delete();
+    if( !file.createNewFile() ) {
+      throw new IOException( "Could not create " + file.getAbsolutePath() );
+    }
+    restrictToOwner( file );
+    OutputStream outputStream = new FileOutputStream( file );
+    try {
+      outputStream.write( ( token + "\n" ).getBytes( CHARSET ) );
+    } finally {
+      outputStream.close();
+    }
+  }
+
+  /*
+   * Removes all permissions except for the owner, i.e. 0600 for files and 0700 for directories.
+   * These methods are not available in Java 5 and are therefore called reflectively. On Windows,
+   * permissions for others cannot be removed this way, the token relies on the access control of
+   * the user's home directory there.
+   */
+  private static void restrictToOwner( File file ) throws IOException {
+    boolean windows = File.separatorChar == '\\';
+    boolean directory = file.isDirectory();
+    boolean revoked = setPermission( file, "setReadable", false, false )
+                      & setPermission( file, "setWritable", false, false )
+                      & setPermission( file, "setExecutable", false, false );
+    boolean granted = setPermission( file, "setReadable", true, true )
+                      & setPermission( file, "setWritable", true, true )
+                      & ( !directory || setPermission( file, "setExecutable", true, true ) );
+    if( !granted || !revoked && !windows ) {
+      throw new IOException( "Could not restrict access to " + file.getAbsolutePath() );
+    }
+  }
+
+  private static boolean setPermission( File file,
+                                        String methodName,
+                                        boolean value,
+                                        boolean ownerOnly ) throws IOException
+  {
+    try {
+      Method method = File.class.getMethod( methodName, boolean.class, boolean.class );
+      Object result = method.invoke( file, Boolean.valueOf( value ), Boolean.valueOf( ownerOnly ) );
+      return ( (Boolean)result ).booleanValue();
+    } catch( NoSuchMethodException exception ) {
+      throw new IOException( "Setting file permissions requires Java 6 or later" );
+    } catch( Exception exception ) {
+      return false;
+    }
+  }
+
+  private final class ConnectionHandler extends Thread {
+
+    private final Socket socket;
+
+    ConnectionHandler( Socket socket ) {
+      super( "JSHint daemon connection" );
+      this.socket = socket;
+      setDaemon( true );
+    }
+
+    @Override
+    public void run() {
+      try {
+        handleRequest( socket );
+      } catch( IOException exception ) {
+        // the client went away or did not send its request in time
+      } finally {
+        try {
+          socket.close();
+        } catch( IOException exception ) {
+          // ignore
+        }
+      }
+    }
+
+  }
+
+}
@@ -10,19 +10,35 @@
  ******************************************************************************/
 package com.eclipsesource.jshint.internal;
 
-import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
+import com.eclipsesource.jshint.CheckResult;
 import com.eclipsesource.jshint.JSHint;
-import com.eclipsesource.jshint.Problem;
-import com.eclipsesource.jshint.ProblemHandler;
+import com.eclipsesource.jshint.JSHintPool;
+import com.eclipsesource.jshint.Text;
+import com.eclipsesource.jshint.internal.CheckStatistics.FileTiming;
+import com.eclipsesource.jshint.internal.FileWalker.FileVisitor;
+import com.eclipsesource.jshint.internal.ResultCache.FileStamp;
 import com.eclipsesource.json.JsonObject;
 
 
@@ -30,49 +46,209 @@ public class JSHintRunner {
 
   private static final String PARAM_CHARSET = "--charset";
   private static final String PARAM_CUSTOM_JSHINT = "--custom";
+  private static final String PARAM_THREADS = "--threads";
+  private static final String PARAM_INCLUDE = "--include";
+  private static final String PARAM_EXCLUDE = "--exclude";
+  private static final String PARAM_CONFIG = "--config";
+  private static final String PARAM_REPORTER = "--reporter";
+  private static final String PARAM_DAEMON = "--daemon";
+  private static final String PARAM_CONNECT = "--connect";
+  private static final String PARAM_WATCH = "--watch";
+  private static final String PARAM_CACHE = "--cache";
+  private static final String PARAM_STATS = "--stats";
+  private static final String PARAM_STATS_JSON = "--stats-json";
+  private static final String PARAM_SHARD = "--shard";
+  private static final String PARAM_SHARD_BY_SIZE = "--shard-by-size";
+  private static final List<String> PARAMS_WITH_VALUE = Arrays.asList( PARAM_CHARSET,
+                                                                       PARAM_CUSTOM_JSHINT,
+                                                                       PARAM_THREADS,
+                                                                       PARAM_INCLUDE,
+                                                                       PARAM_EXCLUDE,
+                                                                       PARAM_CONFIG,
+                                                                       PARAM_REPORTER,
+                                                                       PARAM_DAEMON,
+                                                                       PARAM_CONNECT,
+                                                                       PARAM_CACHE,
+                                                                       PARAM_STATS_JSON,
+                                                                       PARAM_SHARD );
+  // The daemon must not write files on behalf of its clients
+  private static final List<String> PARAMS_NOT_IN_DAEMON = Arrays.asList( PARAM_CUSTOM_JSHINT,
+                                                                          PARAM_DAEMON,
+                                                                          PARAM_CONNECT,
+                                                                          PARAM_CACHE,
+                                                                          PARAM_STATS_JSON );
+  private static final String DEFAULT_INCLUDE = "//*.js";
+  private static final long WATCH_INTERVAL = 500;
   private List<File> files;
+  private List<PathPattern> includes;
+  private List<PathPattern> excludes;
   private Charset charset;
   private File library;
-  private JSHint jshint;
+  private File configFile;
+  private JsonObject configuration;
+  private ConfigResolver configResolver;
+  private String reporterName = Reporter.DEFAULT;
+  private int threads = Runtime.getRuntime().availableProcessors();
+  private int daemonPort;
+  private int connectPort;
+  private boolean watch;
+  private File cacheFile;
+  private ResultCache cache;
+  private String libraryId;
+  private boolean printStats;
+  private File statsFile;
+  private CheckStatistics statistics;
+  private Shard shard;
+  private boolean shardBySize;
+  private final Map<JsonObject, String> fingerprints = new IdentityHashMap<JsonObject, String>();
+  private Map<File, CheckResult> watchedResults;
+  private List<String> forwardArgs;
+  private final boolean inDaemon;
+  private final PrintStream out;
+  private JSHintPool pool;
+  private final Map<JSHint, JsonObject> appliedConfigurations
+    = new ConcurrentHashMap<JSHint, JsonObject>();
+
+  public JSHintRunner() {
+    out = System.out;
+    inDaemon = false;
+  }
+
+  /*
+   * Creates a runner for a daemon request, which uses the daemon's pool and output stream.
+   */
+  JSHintRunner( JSHintPool pool, String libraryId, PrintStream out ) {
+    this.pool = pool;
+    this.libraryId = libraryId;
+    this.out = out;
+    inDaemon = true;
+  }
 
   public void run( String... args ) {
     try {
       readArgs( args );
-      ensureCharset();
-      ensureInputFiles();
-      loadJSHint();
-      configureJSHint();
-      processFiles();
+      if( connectPort != 0 ) {
+        new JSHintClient( connectPort ).send( forwardArgs, out );
+      } else if( daemonPort != 0 ) {
+        loadJSHint();
+        runDaemon();
+      } else {
+        ensureCharset();
+        ensureInputFiles();
+        ensureIncludes();
+        checkShard();
+        readConfiguration();
+        loadCache();
+        createStatistics();
+        long loadStart = System.nanoTime();
+        loadJSHint();
+        if( statistics != null ) {
+          statistics.setLoadTime( System.nanoTime() - loadStart );
+        }
+        processFiles();
+      }
     } catch( Exception e ) {
-      System.out.println( e.getMessage() );
-      System.out.println();
-      System.out.println( "Usage: JSHint [ <options> ] <input-file> [ <input-file> ... ]" );
-      System.out.println( "Options: --custom <custom-jshint-file>" );
-      System.out.println( "         --charset <charset>" );
+      out.println( e.getMessage() );
+      out.println();
+      out.println( "Usage: JSHint [ <options> ] <input> [ <input> ... ]" );
+      out.println( "       JSHint --daemon <port> [ --custom <custom-jshint-file> ]" );
+      out.println( "Directories are searched for files that match the include patterns," );
+      out.println( "the default include pattern is " + DEFAULT_INCLUDE );
+      out.println( "Files are checked with the nearest " + ConfigResolver.CONFIG_FILE_NAME
+                   + " file unless a config file is given" );
+      out.println( "Options: --custom <custom-jshint-file>" );
+      out.println( "         --config <config-file>" );
+      out.println( "         --charset <charset>" );
+      out.println( "         --threads <number>" );
+      out.println( "         --include <pattern>" );
+      out.println( "         --exclude <pattern>" );
+      out.println( "         --reporter " + getReporterNames() );
+      out.println( "         --connect <daemon-port>" );
+      out.println( "         --watch" );
+      out.println( "         --cache <cache-file>" );
+      out.println( "         --stats" );
+      out.println( "         --stats-json <stats-file>" );
+      out.println( "         --shard <index>/<count> [ --shard-by-size ]" );
     }
   }
 
   private void readArgs( String[] args ) {
     files = new ArrayList<File>();
-    String lastArg = null;
+    includes = new ArrayList<PathPattern>();
+    excludes = new ArrayList<PathPattern>();
+    forwardArgs = new ArrayList<String>();
+    String pendingParam = null;
     for( String arg : args ) {
-      if( PARAM_CHARSET.equals( lastArg ) ) {
-        setCharset( arg );
-      } else if( PARAM_CUSTOM_JSHINT.equals( lastArg ) ) {
-        setLibrary( arg );
-      } else if( PARAM_CHARSET.equals( arg ) || PARAM_CUSTOM_JSHINT.equals( arg ) ) {
-        // continue
+      if( pendingParam != null ) {
+        readParam( pendingParam, arg );
+        pendingParam = null;
+      } else if( PARAM_WATCH.equals( arg ) ) {
+        if( inDaemon ) {
+          throw new IllegalArgumentException( "Not supported by the daemon: " + arg );
+        }
+        watch = true;
+        forwardArgs.add( arg );
+      } else if( PARAM_STATS.equals( arg ) ) {
+        printStats = true;
+        forwardArgs.add( arg );
+      } else if( PARAM_SHARD_BY_SIZE.equals( arg ) ) {
+        shardBySize = true;
+        forwardArgs.add( arg );
+      } else if( PARAMS_WITH_VALUE.contains( arg ) ) {
+        if( inDaemon && PARAMS_NOT_IN_DAEMON.contains( arg ) ) {
+          throw new IllegalArgumentException( "Not supported by the daemon: " + arg );
+        }
+        pendingParam = arg;
       } else {
         File file = new File( arg );
         checkFile( file );
         files.add( file );
+        forwardArgs.add( file.getAbsolutePath() );
       }
-      lastArg = arg;
     }
   }
 
+  private void readParam( String param, String value ) {
+    // The daemon may run in a different working directory and needs absolute paths
+    if( PARAM_CONFIG.equals( param ) || PARAM_CUSTOM_JSHINT.equals( param ) ) {
+      addForwardArgs( param, new File( value ).getAbsolutePath() );
+    } else if( !PARAM_CONNECT.equals( param ) ) {
+      addForwardArgs( param, value );
+    }
+    if( PARAM_CHARSET.equals( param ) ) {
+      setCharset( value );
+    } else if( PARAM_CUSTOM_JSHINT.equals( param ) ) {
+      setLibrary( value );
+    } else if( PARAM_THREADS.equals( param ) ) {
+      setThreads( value );
+    } else if( PARAM_INCLUDE.equals( param ) ) {
+      includes.add( createPattern( value ) );
+    } else if( PARAM_EXCLUDE.equals( param ) ) {
+      excludes.add( createPattern( value ) );
+    } else if( PARAM_CONFIG.equals( param ) ) {
+      configFile = new File( value );
+    } else if( PARAM_REPORTER.equals( param ) ) {
+      setReporter( value );
+    } else if( PARAM_DAEMON.equals( param ) ) {
+      daemonPort = parsePort( value );
+    } else if( PARAM_CONNECT.equals( param ) ) {
+      connectPort = parsePort( value );
+    } else if( PARAM_CACHE.equals( param ) ) {
+      cacheFile = new File( value );
+    } else if( PARAM_STATS_JSON.equals( param ) ) {
+      statsFile = new File( value );
+    } else if( PARAM_SHARD.equals( param ) ) {
+      shard = Shard.parse( value );
+    }
+  }
+
+  private void addForwardArgs( String param, String value ) {
+    forwardArgs.add( param );
+    forwardArgs.add( value );
+  }
+
   private void checkFile( File file ) throws IllegalArgumentException {
-    if( !file.isFile() ) {
+    if( !file.exists() ) {
       throw new IllegalArgumentException( "No such file: " + file.getAbsolutePath() );
     }
     if( !file.canRead() ) {
@@ -98,24 +274,90 @@ public class JSHintRunner {
     library = new File( name );
   }
 
+  private void setThreads( String value ) {
+    try {
+      threads = Integer.parseInt( value );
+    } catch( NumberFormatException exception ) {
+      threads = 0;
+    }
+    if( threads < 1 ) {
+      throw new IllegalArgumentException( "Invalid number of threads: " + value );
+    }
+  }
+
+  private static int parsePort( String value ) {
+    int port;
+    try {
+      port = Integer.parseInt( value );
+    } catch( NumberFormatException exception ) {
+      port = 0;
+    }
+    if( port < 1 || port > 65535 ) {
+      throw new IllegalArgumentException( "Invalid port: " + value );
+    }
+    return port;
+  }
+
+  private void setReporter( String name ) {
+    if( !Reporter.NAMES.contains( name ) ) {
+      throw new IllegalArgumentException( "Unknown reporter: " + name );
+    }
+    reporterName = name;
+  }
+
+  private static String getReporterNames() {
+    StringBuilder builder = new StringBuilder();
+    for( String name : Reporter.NAMES ) {
+      builder.append( builder.length() == 0 ? "" : "|" ).append( name );
+    }
+    return builder.toString();
+  }
+
+  private static PathPattern createPattern( String expression ) {
+    try {
+      return PathPattern.create( expression );
+    } catch( IllegalArgumentException exception ) {
+      throw new IllegalArgumentException( "Invalid pattern: " + expression );
+    }
+  }
+
   private void ensureInputFiles() {
     if( files.isEmpty() ) {
       throw new IllegalArgumentException( "No input files" );
     }
   }
 
+  private void ensureIncludes() {
+    if( includes.isEmpty() ) {
+      includes.add( PathPattern.create( DEFAULT_INCLUDE ) );
+    }
+  }
+
+  private void checkShard() {
+    if( shardBySize && shard == null ) {
+      throw new IllegalArgumentException( PARAM_SHARD_BY_SIZE + " requires " + PARAM_SHARD );
+    }
+    if( shard != null && watch ) {
+      throw new IllegalArgumentException( PARAM_SHARD + " cannot be combined with " + PARAM_WATCH );
+    }
+  }
+
   private void loadJSHint() {
-    jshint = new JSHint();
+    if( inDaemon ) {
+      return;
+    }
+    // Loading engines is expensive, don't load more than there are files to check
+    boolean unknownFileCount = daemonPort != 0 || containsDirectory( files );
+    int poolSize = unknownFileCount ? threads : Math.min( threads, files.size() );
+    pool = new JSHintPool( poolSize );
     try {
       if( library != null ) {
-        FileInputStream inputStream = new FileInputStream( library );
-        try {
-          jshint.load( inputStream );
-        } finally {
-          inputStream.close();
-        }
+        byte[] bytes = readBytes( library );
+        pool.load( new ByteArrayInputStream( bytes ) );
+        libraryId = "custom:" + ResultCache.hash( bytes );
       } else {
-        jshint.load();
+        pool.load();
+        libraryId = "jshint:" + JSHint.getDefaultLibraryVersion();
       }
     } catch( Exception exception ) {
       String message = "Failed to load JSHint library: " + exception.getMessage();
@@ -123,49 +365,478 @@ public class JSHintRunner {
     }
   }
 
-  private void processFiles() throws IOException {
+  private void runDaemon() throws IOException {
+    final JSHintDaemon daemon = new JSHintDaemon( pool, libraryId );
+    int port = daemon.bind( daemonPort );
+    // the daemon is usually stopped by killing the process, remove the token file in this case
+    Runtime.getRuntime().addShutdownHook( new Thread() {
+      @Override
+      public void run() {
+        try {
+          daemon.stop();
+        } catch( IOException exception ) {
+          // ignore, the process is terminating
+        }
+      }
+    } );
+    out.println( "JSHint daemon listening on port " + port );
+    out.flush();
+    daemon.serve();
+  }
+
+  private void readConfiguration() {
+    if( configFile != null ) {
+      checkFile( configFile );
+      configuration = ConfigResolver.readConfiguration( configFile );
+    } else {
+      JsonObject defaultConfiguration = new JsonObject();
+      defaultConfiguration.add( "undef", true );
+      configResolver = new ConfigResolver( defaultConfiguration );
+    }
+  }
+
+  private void loadCache() {
+    if( cacheFile != null ) {
+      cache = new ResultCache( cacheFile );
+      try {
+        cache.load();
+      } catch( IOException exception ) {
+        String message = "Failed to read cache file " + cacheFile.getAbsolutePath() + ": "
+                         + exception.getMessage();
+        throw new IllegalArgumentException( message );
+      }
+    }
+  }
+
+  private void createStatistics() {
+    if( printStats || statsFile != null ) {
+      statistics = new CheckStatistics();
+    }
+  }
+
+  private void reportStatistics() {
+    if( statistics == null ) {
+      return;
+    }
+    if( printStats ) {
+      statistics.print( out );
+    }
+    if( statsFile != null ) {
+      try {
+        statistics.writeTo( statsFile );
+      } catch( IOException exception ) {
+        out.println( "Failed to write statistics file " + statsFile.getAbsolutePath() + ": "
+                     + exception.getMessage() );
+      }
+    }
+    out.flush();
+  }
+
+  private void saveCache() {
+    if( cache != null ) {
+      try {
+        cache.save();
+      } catch( IOException exception ) {
+        // a cache that cannot be written should not fail the check
+        out.println( "Failed to write cache file " + cacheFile.getAbsolutePath() + ": "
+                     + exception.getMessage() );
+        out.flush();
+      }
+    }
+  }
+
+  /*
+   * Everything besides the file content that affects the result of a check.
+   */
+  private String getFingerprint( JsonObject configuration ) {
+    String fingerprint = fingerprints.get( configuration );
+    if( fingerprint == null ) {
+      fingerprint = ResultCache.fingerprint( libraryId, charset.name(), configuration.toString() );
+      fingerprints.put( configuration, fingerprint );
+    }
+    return fingerprint;
+  }
+
+  private JsonObject getConfiguration( File file ) {
+    return configResolver != null ? configResolver.getConfiguration( file ) : configuration;
+  }
+
+  /*
+   * Configurations are shared between files, so an instance only needs to be reconfigured when
+   * the next file uses a different configuration.
+   */
+  private void ensureConfigured( JSHint jshint, JsonObject configuration ) {
+    if( appliedConfigurations.get( jshint ) != configuration ) {
+      jshint.configure( configuration );
+      appliedConfigurations.put( jshint, configuration );
+    }
+  }
+
+  private void processFiles() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool( pool.getSize(), new WorkerFactory() );
+    try {
+      FileWalker walker = new FileWalker( includes, excludes );
+      FileWatcher watcher = null;
+      if( watch ) {
+        // Take the snapshot first to detect changes that are made during the initial check
+        watcher = new FileWatcher( files, walker );
+        watcher.scan();
+        watchedResults = new HashMap<File, CheckResult>();
+      }
+      if( statistics != null ) {
+        statistics.start();
+      }
+      CheckQueue queue = new CheckQueue( executor, statistics );
+      ShardFilter filter = shard != null ? new ShardFilter( queue ) : null;
+      // Files are checked while the directories are still being walked
+      for( File file : files ) {
+        if( filter != null ) {
+          filter.walk( walker, file );
+        } else if( file.isDirectory() ) {
+          walker.walk( file, queue );
+        } else {
+          queue.visitFile( file );
+        }
+      }
+      if( filter != null ) {
+        filter.flush();
+      }
+      queue.report();
+      if( statistics != null ) {
+        statistics.stop();
+      }
+      saveCache();
+      reportStatistics();
+      if( watcher != null ) {
+        watchFiles( watcher, executor );
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /*
+   * Rechecks changed files on the loaded instances until the thread is interrupted. Only the
+   * differences to the previous results are printed. Note that configurations are not reloaded.
+   */
+  private void watchFiles( FileWatcher watcher, ExecutorService executor ) throws Exception {
+    out.println( "Watching for changes" );
+    out.flush();
+    try {
+      while( !Thread.currentThread().isInterrupted() ) {
+        FileWatcher.Changes changes = watcher.waitForChanges( WATCH_INTERVAL );
+        CheckQueue queue = new CheckQueue( executor, null );
+        for( File file : changes.getChangedFiles() ) {
+          queue.visitFile( file );
+        }
+        queue.reportChanges( changes.getRemovedFiles() );
+        saveCache();
+      }
+    } catch( InterruptedException exception ) {
+      // stop watching
+    }
+  }
+
+  private void reportDelta( File file, CheckResult oldResult, CheckResult newResult ) {
+    Map<String, Integer> oldProblems = getProblemCounts( oldResult );
+    Map<String, Integer> newProblems = getProblemCounts( newResult );
+    String path = file.getAbsolutePath();
+    if( newResult != null ) {
+      for( int i = 0; i < newResult.size(); i++ ) {
+        if( !decrement( oldProblems, getProblemKey( newResult, i ) ) ) {
+          out.println( "Problem in file " + path + " at line " + newResult.getLine( i ) + ": "
+                       + newResult.getMessage( i ) );
+        }
+      }
+    }
+    if( oldResult != null ) {
+      for( int i = 0; i < oldResult.size(); i++ ) {
+        if( !decrement( newProblems, getProblemKey( oldResult, i ) ) ) {
+          out.println( "Resolved in file " + path + " at line " + oldResult.getLine( i ) + ": "
+                       + oldResult.getMessage( i ) );
+        }
+      }
+    }
+  }
+
+  private static Map<String, Integer> getProblemCounts( CheckResult result ) {
+    Map<String, Integer> counts = new HashMap<String, Integer>();
+    if( result != null ) {
+      for( int i = 0; i < result.size(); i++ ) {
+        String key = getProblemKey( result, i );
+        Integer count = counts.get( key );
+        counts.put( key, Integer.valueOf( count == null ? 1 : count.intValue() + 1 ) );
+      }
+    }
+    return counts;
+  }
+
+  private static boolean decrement( Map<String, Integer> counts, String key ) {
+    Integer count = counts.get( key );
+    if( count == null ) {
+      return false;
+    }
+    if( count.intValue() == 1 ) {
+      counts.remove( key );
+    } else {
+      counts.put( key, Integer.valueOf( count.intValue() - 1 ) );
+    }
+    return true;
+  }
+
+  private static String getProblemKey( CheckResult result, int index ) {
+    return result.getLine( index )
+           + ":"
+           + result.getCharacter( index )
+           + ":"
+           + result.getCode( index )
+           + ":"
+           + result.getMessage( index );
+  }
+
+  private static boolean containsDirectory( List<File> files ) {
     for( File file : files ) {
-      String code = readFileContents( file );
-      ProblemHandler handler = new SysoutProblemHandler( file.getAbsolutePath() );
-      jshint.check( code, handler );
+      if( file.isDirectory() ) {
+        return true;
+      }
     }
+    return false;
   }
 
-  private void configureJSHint() {
-    JsonObject configuration = new JsonObject();
-    configuration.add( "undef", true );
-    jshint.configure( configuration );
+  private static void begin( FileTiming timing ) {
+    if( timing != null ) {
+      timing.begin();
+    }
   }
 
-  private String readFileContents( File file ) throws FileNotFoundException, IOException {
+  private static void end( FileTiming timing, int phase ) {
+    if( timing != null ) {
+      timing.end( phase );
+    }
+  }
+
+  private static byte[] readBytes( File file ) throws IOException {
     FileInputStream inputStream = new FileInputStream( file );
-    BufferedReader reader = new BufferedReader( new InputStreamReader( inputStream, charset ) );
     try {
-      StringBuilder builder = new StringBuilder();
-      String line = reader.readLine();
-      while( line != null ) {
-        builder.append( line );
-        builder.append( '\n' );
-        line = reader.readLine();
-      }
-      return builder.toString();
+      ByteArrayOutputStream outputStream = new ByteArrayOutputStream( ( int )file.length() );
+      byte[] buffer = new byte[ 8192 ];
+      int read = inputStream.read( buffer );
+      while( read != -1 ) {
+        outputStream.write( buffer, 0, read );
+        read = inputStream.read( buffer );
+      }
+      return outputStream.toByteArray();
     } finally {
-      reader.close();
+      inputStream.close();
+    }
+  }
+
+  private static CheckResult getResult( Future<CheckResult> future ) throws Exception {
+    try {
+      return future.get();
+    } catch( ExecutionException exception ) {
+      Throwable cause = exception.getCause();
+      if( cause instanceof Exception ) {
+        throw ( Exception )cause;
+      }
+      if( cause instanceof Error ) {
+        throw ( Error )cause;
+      }
+      throw new RuntimeException( cause );
     }
   }
 
-  private static final class SysoutProblemHandler implements ProblemHandler {
+  private final class CheckQueue implements FileVisitor {
 
-    private final String fileName;
+    private final ExecutorService executor;
+    private final CheckStatistics statistics;
+    private final List<File> checkedFiles = new ArrayList<File>();
+    private final List<FileTiming> timings = new ArrayList<FileTiming>();
+    private final List<Future<CheckResult>> results = new ArrayList<Future<CheckResult>>();
 
-    public SysoutProblemHandler( String fileName ) {
-      this.fileName = fileName;
+    CheckQueue( ExecutorService executor, CheckStatistics statistics ) {
+      this.executor = executor;
+      this.statistics = statistics;
     }
 
-    public void handleProblem( Problem problem ) {
-      int line = problem.getLine();
-      String message = problem.getMessage();
-      System.out.println( "Problem in file " + fileName + " at line " + line + ": " + message );
+    public void visitFile( File file ) {
+      // Configurations are resolved here, the resolver is not thread-safe
+      JsonObject configuration = getConfiguration( file );
+      String fingerprint = cache != null ? getFingerprint( configuration ) : null;
+      FileTiming timing = statistics != null ? statistics.addFile( file ) : null;
+      checkedFiles.add( file );
+      timings.add( timing );
+      results.add( executor.submit( new CheckTask( file, configuration, fingerprint, timing ) ) );
+    }
+
+    void report() throws Exception {
+      Reporter reporter = Reporter.create( reporterName, out );
+      try {
+        reporter.begin();
+        // Report in the order of the input files to keep the output deterministic
+        for( int i = 0; i < results.size(); i++ ) {
+          CheckResult result = getResult( results.get( i ) );
+          FileTiming timing = timings.get( i );
+          begin( timing );
+          reporter.reportFile( checkedFiles.get( i ).getAbsolutePath(), result );
+          end( timing, FileTiming.REPORT );
+          if( watchedResults != null ) {
+            watchedResults.put( checkedFiles.get( i ), result );
+          }
+        }
+        reporter.end();
+      } finally {
+        reporter.flush();
+      }
+    }
+
+    void reportChanges( List<File> removedFiles ) {
+      for( int i = 0; i < results.size(); i++ ) {
+        File file = checkedFiles.get( i );
+        try {
+          CheckResult result = getResult( results.get( i ) );
+          reportDelta( file, watchedResults.put( file, result ), result );
+        } catch( Exception exception ) {
+          // the file may have been removed in the meantime, it will show up in the next changes
+          out.println( "Failed to check file " + file.getAbsolutePath() + ": "
+                       + exception.getMessage() );
+        }
+      }
+      for( File file : removedFiles ) {
+        reportDelta( file, watchedResults.remove( file ), null );
+      }
+      out.println( "Checked " + results.size() + " changed files" );
+      out.flush();
+    }
+
+  }
+
+  /*
+   * Passes on only the files of the shard to check. Files are identified by their path relative to
+   * the input directory, which is the same on every machine. When distributing by size, all files
+   * need to be known first, they are passed on in the order of discovery by flush().
+   */
+  private final class ShardFilter implements FileVisitor {
+
+    private final FileVisitor visitor;
+    private final List<File> discoveredFiles = new ArrayList<File>();
+    private final List<String> paths = new ArrayList<String>();
+    private final List<Long> lengths = new ArrayList<Long>();
+    private String rootPath;
+
+    ShardFilter( FileVisitor visitor ) {
+      this.visitor = visitor;
+    }
+
+    void walk( FileWalker walker, File input ) {
+      if( input.isDirectory() ) {
+        rootPath = input.getPath();
+        walker.walk( input, this );
+      } else {
+        rootPath = null;
+        visitFile( input );
+      }
+    }
+
+    public void visitFile( File file ) {
+      String path = getRelativePath( file );
+      if( shardBySize ) {
+        discoveredFiles.add( file );
+        paths.add( path );
+        lengths.add( Long.valueOf( file.length() ) );
+      } else if( shard.contains( path ) ) {
+        visitor.visitFile( file );
+      }
+    }
+
+    void flush() {
+      if( shardBySize ) {
+        for( Integer index : shard.selectBySize( paths, lengths ) ) {
+          visitor.visitFile( discoveredFiles.get( index.intValue() ) );
+        }
+      }
+    }
+
+    private String getRelativePath( File file ) {
+      if( rootPath == null ) {
+        return file.getName();
+      }
+      // Files found by the walker are created from the path of their parent directory
+      String path = file.getPath().substring( rootPath.length() );
+      if( path.charAt( 0 ) == File.separatorChar ) {
+        path = path.substring( 1 );
+      }
+      return path.replace( File.separatorChar, '/' );
+    }
+
+  }
+
+  private final class CheckTask implements Callable<CheckResult> {
+
+    private final File file;
+    private final JsonObject configuration;
+    private final String fingerprint;
+    private final FileTiming timing;
+
+    CheckTask( File file, JsonObject configuration, String fingerprint, FileTiming timing ) {
+      this.file = file;
+      this.configuration = configuration;
+      this.fingerprint = fingerprint;
+      this.timing = timing;
+    }
+
+    public CheckResult call() throws Exception {
+      if( cache == null && timing == null ) {
+        return check( new Text( file, charset ) );
+      }
+      begin( timing );
+      // Cache hits neither decode the content nor run JSHint
+      // The stamp is taken before reading, a file that is saved meanwhile is not cached
+      FileStamp stamp = cache != null ? FileStamp.of( file ) : null;
+      CheckResult result = cache != null ? cache.get( file, stamp, fingerprint ) : null;
+      if( result == null ) {
+        byte[] content = readBytes( file );
+        String hash = cache != null ? ResultCache.hash( content ) : null;
+        result = cache != null ? cache.get( file, stamp, hash, fingerprint ) : null;
+        end( timing, FileTiming.READ );
+        if( result == null ) {
+          begin( timing );
+          Text text = new Text( ByteBuffer.wrap( content ), charset );
+          end( timing, FileTiming.TEXT );
+          result = check( text );
+          if( cache != null ) {
+            cache.put( file, stamp, hash, fingerprint, result );
+          }
+        }
+      } else {
+        end( timing, FileTiming.READ );
+      }
+      return result;
+    }
+
+    private CheckResult check( Text text ) throws InterruptedException {
+      JSHint jshint = pool.borrow();
+      try {
+        ensureConfigured( jshint, configuration );
+        begin( timing );
+        CheckResult result = jshint.check( text );
+        end( timing, FileTiming.CHECK );
+        return result;
+      } finally {
+        pool.release( jshint );
+      }
+    }
+
+  }
+
+  private static final class WorkerFactory implements ThreadFactory {
+
+    private int count;
+
+    public synchronized Thread newThread( Runnable runnable ) {
+      Thread thread = new Thread( runnable, "JSHint worker " + ++count );
+      thread.setDaemon( true );
+      return thread;
     }
 
   }
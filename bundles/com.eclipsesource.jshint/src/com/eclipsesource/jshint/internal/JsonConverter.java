@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Ralf Sternberg - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint.internal;
+
+import java.util.List;
+
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.Scriptable;
+import org.mozilla.javascript.ScriptableObject;
+
+import com.eclipsesource.json.JsonArray;
+import com.eclipsesource.json.JsonObject;
+import com.eclipsesource.json.JsonObject.Member;
+import com.eclipsesource.json.JsonValue;
+
+
+/**
+ * Converts JSON values to the corresponding JavaScript objects without going through the
+ * JavaScript parser.
+ */
+public class JsonConverter {
+
+  private JsonConverter() {
+    // prevent instantiation
+  }
+
+  /**
+   * Converts the given JSON value to a JavaScript value. Objects and arrays are converted to new
+   * JavaScript objects and arrays, strings, numbers and booleans are converted to the
+   * corresponding Java wrapper types.
+   *
+   * @param context
+   *          the current context
+   * @param scope
+   *          the scope to create objects and arrays in
+   * @param value
+   *          the value to convert
+   * @return the JavaScript value, or <code>null</code> for the JSON literal <code>null</code>
+   */
+  public static Object toJavaScript( Context context, Scriptable scope, JsonValue value ) {
+    if( value.isObject() ) {
+      return toJavaScriptObject( context, scope, value.asObject() );
+    }
+    if( value.isArray() ) {
+      return toJavaScriptArray( context, scope, value.asArray() );
+    }
+    if( value.isString() ) {
+      return value.asString();
+    }
+    if( value.isNumber() ) {
+      return Double.valueOf( value.asDouble() );
+    }
+    if( value.isBoolean() ) {
+      return Boolean.valueOf( value.asBoolean() );
+    }
+    return null;
+  }
+
+  private static Scriptable toJavaScriptObject( Context context,
+                                                Scriptable scope,
+                                                JsonObject object )
+  {
+    Scriptable result = context.newObject( scope );
+    for( Member member : object ) {
+      Object value = toJavaScript( context, scope, member.getValue() );
+      int index = toArrayIndex( member.getName() );
+      if( index != -1 ) {
+        ScriptableObject.putProperty( result, index, value );
+      } else {
+        ScriptableObject.putProperty( result, member.getName(), value );
+      }
+    }
+    return result;
+  }
+
+  private static Scriptable toJavaScriptArray( Context context, Scriptable scope, JsonArray array ) {
+    List<JsonValue> values = array.values();
+    Object[] elements = new Object[ values.size() ];
+    for( int i = 0; i < elements.length; i++ ) {
+      elements[ i ] = toJavaScript( context, scope, values.get( i ) );
+    }
+    return context.newArray( scope, elements );
+  }
+
+  /*
+   * Rhino stores integer property names separately from string names, so names like "0" must be
+   * put as index to be found by JavaScript code.
+   */
+  private static int toArrayIndex( String name ) {
+    int length = name.length();
+    if( length == 0 || length > 9 || ( length > 1 && name.charAt( 0 ) == '0' ) ) {
+      return -1;
+    }
+    int index = 0;
+    for( int i = 0; i < length; i++ ) {
+      char ch = name.charAt( i );
+      if( ch < '0' || ch > '9' ) {
+        return -1;
+      }
+      index = index * 10 + ch - '0';
+    }
+    return index;
+  }
+
+}
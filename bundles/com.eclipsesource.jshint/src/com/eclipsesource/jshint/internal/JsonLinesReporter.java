@@ -0,0 +1,47 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Ralf Sternberg - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint.internal;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import com.eclipsesource.jshint.CheckResult;
+import com.eclipsesource.json.JsonObject;
+
+
+/**
+ * Reports one JSON object per problem, each on a separate line:
+ *
+ * <pre>
+ * {"file":"/path/to/file.js","line":1,"character":0,"code":"W117","message":"'a' is not defined"}
+ * </pre>
+ */
+public class JsonLinesReporter extends Reporter {
+
+  public JsonLinesReporter( Writer writer ) {
+    super( writer );
+  }
+
+  @Override
+  public void reportFile( String path, CheckResult result ) throws IOException {
+    for( int i = 0; i < result.size(); i++ ) {
+      JsonObject problem = new JsonObject();
+      problem.add( "file", path );
+      problem.add( "line", result.getLine( i ) );
+      problem.add( "character", result.getCharacter( i ) );
+      problem.add( "code", result.getCode( i ) );
+      problem.add( "message", result.getMessage( i ) );
+      problem.writeTo( writer );
+      writer.write( '\n' );
+    }
+  }
+
+}
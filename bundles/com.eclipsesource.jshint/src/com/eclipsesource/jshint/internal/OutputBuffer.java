@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Ralf Sternberg - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint.internal;
+
+import java.io.IOException;
+import java.io.Writer;
+
+
+/**
+ * A buffering writer that, unlike <code>BufferedWriter</code>, does not synchronize on every
+ * write. The buffer is only passed to the underlying writer when it is full or when the writer is
+ * flushed. Instances must not be shared between threads.
+ */
+public class OutputBuffer extends Writer {
+
+  private static final int DEFAULT_SIZE = 64 * 1024;
+
+  private final Writer writer;
+  private final char[] buffer;
+  private int fill;
+
+  public OutputBuffer( Writer writer ) {
+    this( writer, DEFAULT_SIZE );
+  }
+
+  public OutputBuffer( Writer writer, int size ) {
+    if( size < 1 ) {
+      throw new IllegalArgumentException( "Invalid buffer size: " + size );
+    }
+    this.writer = writer;
+    buffer = new char[ size ];
+  }
+
+  @Override
+  public void write( int ch ) throws IOException {
+    if( fill == buffer.length ) {
+      flushBuffer();
+    }
+    buffer[ fill++ ] = ( char )ch;
+  }
+
+  @Override
+  public void write( char[] chars, int offset, int length ) throws IOException {
+    if( length > buffer.length ) {
+      flushBuffer();
+      writer.write( chars, offset, length );
+      return;
+    }
+    if( fill + length > buffer.length ) {
+      flushBuffer();
+    }
+    System.arraycopy( chars, offset, buffer, fill, length );
+    fill += length;
+  }
+
+  @Override
+  public void write( String string ) throws IOException {
+    write( string, 0, string.length() );
+  }
+
+  @Override
+  public void write( String string, int offset, int length ) throws IOException {
+    if( length > buffer.length ) {
+      flushBuffer();
+      writer.write( string, offset, length );
+      return;
+    }
+    if( fill + length > buffer.length ) {
+      flushBuffer();
+    }
+    string.getChars( offset, offset + length, buffer, fill );
+    fill += length;
+  }
+
+  @Override
+  public void flush() throws IOException {
+    flushBuffer();
+    writer.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    flush();
+    writer.close();
+  }
+
+  private void flushBuffer() throws IOException {
+    if( fill > 0 ) {
+      writer.write( buffer, 0, fill );
+      fill = 0;
+    }
+  }
+
+}
@@ -8,7 +8,7 @@
  * Contributors:
  *    Ralf Sternberg initial implementation and API
  ******************************************************************************/
-package com.eclipsesource.jshint.ui.internal.preferences;
+package com.eclipsesource.jshint.internal;
 
 
 /**
@@ -80,6 +80,36 @@ public class PathPattern {
     return match( 0, 0, pathSegments );
   }
 
+  /**
+   * Checks whether this pattern can match files in the given folder or in any of its subfolders.
+   * If this method returns <code>false</code>, a folder does not need to be traversed.
+   *
+   * @param pathSegments
+   *          the names of the path segments that constitute the folder path
+   * @return <code>true</code> if the pattern may match files in the given folder or below
+   */
+  public boolean matchesFolderPrefix( String... pathSegments ) {
+    return matchPrefix( 0, 0, pathSegments );
+  }
+
+  /**
+   * Checks whether this pattern matches all files in the given folder and in all of its
+   * subfolders, e.g. <code>lib//</code> matches the entire tree of <code>/lib/</code>. If an
+   * exclude pattern matches a folder tree, the folder does not need to be traversed.
+   *
+   * @param pathSegments
+   *          the names of the path segments that constitute the folder path
+   * @return <code>true</code> if the pattern matches all files in the given folder tree
+   */
+  public boolean matchesFolderTree( String... pathSegments ) {
+    int length = segmentPatterns.length;
+    // a trailing double slash matches all subfolders of a matching folder
+    return matchesAllFiles()
+           && length > 1
+           && segmentPatterns[ length - 2 ] == PathSegmentPattern.ANY_NUMBER
+           && matchesFolder( pathSegments );
+  }
+
   /**
    * Checks whether the file part of this pattern matches all files in a folder, independent from
    * the path part. For example, this method will return <code>true</code> for <code>src/*</code>,
@@ -164,6 +194,30 @@ public class PathPattern {
     return false;
   }
 
+  private boolean matchPrefix( int patternPos, int inputPos, String[] segments ) {
+    if( inputPos == segments.length ) {
+      // input is eaten up, remaining pattern segments may match subfolders
+      return true;
+    }
+    if( patternPos == segmentPatterns.length - 1 ) {
+      // pattern is eaten up ( -1 because we ignore the file segment )
+      return false;
+    }
+    if( segmentPatterns[ patternPos ] == PathSegmentPattern.ANY_NUMBER ) {
+      int nextInputPos = inputPos;
+      while( nextInputPos <= segments.length ) {
+        if( matchPrefix( patternPos + 1, nextInputPos, segments ) ) {
+          return true;
+        }
+        nextInputPos++;
+      }
+      return false;
+    } else if( segmentPatterns[ patternPos ].matches( segments[ inputPos ] ) ) {
+      return matchPrefix( patternPos + 1, inputPos + 1, segments );
+    }
+    return false;
+  }
+
   private static void checkExpression( String expression ) {
     if( expression.contains( "///" ) ) {
       throw new IllegalArgumentException( "Too many successive slashes in expression" );
@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Ralf Sternberg - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint.internal;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.List;
+
+import com.eclipsesource.jshint.CheckResult;
+
+
+/**
+ * Writes the results of the command line runner in a certain format. A reporter is notified once
+ * for every checked file, in the order of the input files. Output is written to an
+ * {@link OutputBuffer}, it is not complete before {@link #flush()} has been called.
+ */
+public abstract class Reporter {
+
+  public static final String DEFAULT = "default";
+  public static final String JSON_LINES = "jsonl";
+  public static final String CHECKSTYLE = "checkstyle";
+  public static final String SARIF = "sarif";
+  public static final List<String> NAMES = Arrays.asList( DEFAULT, JSON_LINES, CHECKSTYLE, SARIF );
+
+  protected final Writer writer;
+
+  protected Reporter( Writer writer ) {
+    this.writer = writer;
+  }
+
+  /**
+   * Creates the reporter with the given name. The default reporter writes text in the encoding of
+   * the given print stream, all others write UTF-8.
+   *
+   * @param name
+   *          the name of the reporter, one of {@link #NAMES}
+   * @param printStream
+   *          the stream to write to
+   * @return the new reporter
+   * @throws IllegalArgumentException
+   *           if there is no reporter with the given name
+   */
+  public static Reporter create( String name, PrintStream printStream ) {
+    if( DEFAULT.equals( name ) ) {
+      return new TextReporter( new OutputBuffer( new PrintStreamWriter( printStream ) ) );
+    }
+    Writer writer = createUtf8Writer( printStream );
+    if( JSON_LINES.equals( name ) ) {
+      return new JsonLinesReporter( writer );
+    }
+    if( CHECKSTYLE.equals( name ) ) {
+      return new CheckstyleReporter( writer );
+    }
+    if( SARIF.equals( name ) ) {
+      return new SarifReporter( writer );
+    }
+    throw new IllegalArgumentException( "Unknown reporter: " + name );
+  }
+
+  /**
+   * Called once before the first file is reported.
+   */
+  public void begin() throws IOException {
+  }
+
+  /**
+   * Reports the result of checking the given file.
+   *
+   * @param path
+   *          the path of the checked file
+   * @param result
+   *          the result of the check
+   */
+  public abstract void reportFile( String path, CheckResult result ) throws IOException;
+
+  /**
+   * Called once after the last file has been reported.
+   */
+  public void end() throws IOException {
+  }
+
+  /**
+   * Writes all buffered output to the underlying stream.
+   */
+  public void flush() throws IOException {
+    writer.flush();
+  }
+
+  /*
+   * JSHint error codes start with "E", warnings with "W", and informational messages with "I".
+   */
+  static boolean isError( String code ) {
+    return code != null && code.startsWith( "E" );
+  }
+
+  private static Writer createUtf8Writer( PrintStream printStream ) {
+    try {
+      return new OutputBuffer( new OutputStreamWriter( printStream, "UTF-8" ) );
+    } catch( IOException exception ) {
+      throw new RuntimeException( "UTF-8 not supported", exception );
+    }
+  }
+
+  /*
+   * Writes text through the print stream to keep its encoding. Closing this writer does not close
+   * the stream, which is usually System.out.
+   */
+  private static final class PrintStreamWriter extends Writer {
+
+    private final PrintStream printStream;
+
+    PrintStreamWriter( PrintStream printStream ) {
+      this.printStream = printStream;
+    }
+
+    @Override
+    public void write( char[] chars, int offset, int length ) {
+      printStream.print( new String( chars, offset, length ) );
+    }
+
+    @Override
+    public void flush() {
+      printStream.flush();
+    }
+
+    @Override
+    public void close() {
+      flush();
+    }
+
+  }
+
+}
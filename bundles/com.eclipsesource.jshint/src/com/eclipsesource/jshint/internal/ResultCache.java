@@ -0,0 +1,469 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Ralf Sternberg - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint.internal;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.eclipsesource.jshint.CheckResult;
+import com.eclipsesource.jshint.Problem;
+import com.eclipsesource.json.JsonArray;
+import com.eclipsesource.json.JsonObject;
+import com.eclipsesource.json.JsonValue;
+
+
+/**
+ * Caches check results across runs of the command line runner. Results are keyed by the hash of
+ * the file content and a fingerprint of everything else that affects the result, i.e. the
+ * configuration, the library, and the charset.
+ * <p>
+ * For every file, the cache also stores its length and modification time. As long as these do
+ * not change, a cached result is returned without reading the file. Otherwise, the file has to be
+ * read and hashed, but it is not checked again unless its content has changed. Callers take the
+ * {@link FileStamp} of a file before reading it, a stamp that has changed while the file was read
+ * is not stored.
+ * </p>
+ * <p>
+ * Many file systems store modification times in whole seconds or less precise. A file that is
+ * modified shortly after it has been read may keep its modification time and length. Therefore,
+ * the stamp is only trusted if the file has been modified clearly before the stamp was taken.
+ * Otherwise, the file is read and hashed again.
+ * </p>
+ * <p>
+ * The cache file contains one JSON object per line. New entries are appended, and entries that
+ * are read later replace earlier ones for the same file and fingerprint. When more than half of
+ * the lines are outdated, the file is rewritten. Only entries that have been used in the current
+ * run and entries for existing files with a fingerprint used in the current run are kept, entries
+ * for deleted files and for previous configurations are dropped. The rewritten file is renamed
+ * into place, so a later run never sees a half-written cache. Lines that cannot be parsed are
+ * ignored. This class is thread-safe.
+ * </p>
+ */
+public class ResultCache {
+
+  private static final String CHARSET = "UTF-8";
+  // FAT file systems store modification times with a precision of two seconds
+  private static final long TIMESTAMP_PRECISION = 2000;
+
+  private final File cacheFile;
+  private final Map<String, Entry> entriesByFile;
+  private final Map<String, CheckResult> resultsByContent;
+  private final List<Entry> newEntries;
+  private final Set<String> usedKeys;
+  private final Set<String> usedFingerprints;
+  private int lineCount;
+
+  public ResultCache( File cacheFile ) {
+    this.cacheFile = cacheFile;
+    entriesByFile = new LinkedHashMap<String, Entry>();
+    resultsByContent = new HashMap<String, CheckResult>();
+    newEntries = new ArrayList<Entry>();
+    usedKeys = new HashSet<String>();
+    usedFingerprints = new HashSet<String>();
+  }
+
+  /**
+   * Reads the cache file if it exists.
+   *
+   * @throws IOException
+   *           if the cache file exists but cannot be read
+   */
+  public synchronized void load() throws IOException {
+    if( !cacheFile.exists() ) {
+      return;
+    }
+    FileInputStream inputStream = new FileInputStream( cacheFile );
+    try {
+      InputStreamReader inputReader = new InputStreamReader( inputStream, CHARSET );
+      BufferedReader reader = new BufferedReader( inputReader );
+      String line = reader.readLine();
+      while( line != null ) {
+        lineCount++;
+        Entry entry = parseEntry( line );
+        if( entry != null ) {
+          addEntry( entry );
+        }
+        line = reader.readLine();
+      }
+    } finally {
+      inputStream.close();
+    }
+  }
+
+  /**
+   * Returns the cached result for the given file if the file has not been modified since it has
+   * been cached. The file is not read. No result is returned if the file has been modified too
+   * shortly before it has been cached to detect later modifications from its stamp.
+   *
+   * @param file
+   *          the file to find a result for
+   * @param stamp
+   *          the current stamp of the file
+   * @param fingerprint
+   *          the fingerprint of the configuration the file is checked with
+   * @return the cached result, or <code>null</code> if the file may have changed
+   */
+  public synchronized CheckResult get( File file, FileStamp stamp, String fingerprint ) {
+    usedFingerprints.add( fingerprint );
+    String key = getFileKey( file, fingerprint );
+    Entry entry = entriesByFile.get( key );
+    if( entry != null
+        && entry.length == stamp.length
+        && entry.lastModified == stamp.lastModified
+        && entry.lastModified + TIMESTAMP_PRECISION <= entry.stampTime )
+    {
+      usedKeys.add( key );
+      return entry.result;
+    }
+    return null;
+  }
+
+  /**
+   * Returns the cached result for the given file content. If a result is found, the given stamp
+   * is stored, so the next lookup does not need the content.
+   *
+   * @param file
+   *          the file the content has been read from
+   * @param stamp
+   *          the stamp of the file, taken before the content has been read
+   * @param contentHash
+   *          the hash of the file content, as returned by {@link #hash(byte[])}
+   * @param fingerprint
+   *          the fingerprint of the configuration the file is checked with
+   * @return the cached result, or <code>null</code> if this content has not been checked before
+   */
+  public synchronized CheckResult get( File file,
+                                       FileStamp stamp,
+                                       String contentHash,
+                                       String fingerprint )
+  {
+    CheckResult result = resultsByContent.get( getContentKey( contentHash, fingerprint ) );
+    if( result != null ) {
+      put( file, stamp, contentHash, fingerprint, result );
+    }
+    return result;
+  }
+
+  /**
+   * Adds a result to the cache. If the file has been modified since the stamp has been taken, the
+   * result is not stored, since the stamp might not belong to the checked content.
+   *
+   * @param file
+   *          the checked file
+   * @param stamp
+   *          the stamp of the file, taken before the content has been read
+   * @param contentHash
+   *          the hash of the checked content, as returned by {@link #hash(byte[])}
+   * @param fingerprint
+   *          the fingerprint of the configuration the file has been checked with
+   * @param result
+   *          the result of the check
+   */
+  public synchronized void put( File file,
+                                FileStamp stamp,
+                                String contentHash,
+                                String fingerprint,
+                                CheckResult result )
+  {
+    if( !stamp.equals( FileStamp.of( file ) ) ) {
+      return;
+    }
+    Entry entry = new Entry( file.getAbsolutePath(),
+                             stamp.length,
+                             stamp.lastModified,
+                             stamp.time,
+                             contentHash,
+                             fingerprint,
+                             result );
+    addEntry( entry );
+    newEntries.add( entry );
+    usedKeys.add( getFileKey( entry.path, fingerprint ) );
+    usedFingerprints.add( fingerprint );
+  }
+
+  /**
+   * Writes new entries to the cache file. Appends to the existing file, or rewrites it when it
+   * contains too many outdated entries.
+   *
+   * @throws IOException
+   *           if the cache file cannot be written
+   */
+  public synchronized void save() throws IOException {
+    if( newEntries.isEmpty() ) {
+      return;
+    }
+    List<Entry> liveEntries = getLiveEntries();
+    int outdatedLines = lineCount + newEntries.size() - liveEntries.size();
+    if( outdatedLines > liveEntries.size() ) {
+      rewrite( liveEntries );
+    } else {
+      append();
+    }
+    newEntries.clear();
+  }
+
+  /**
+   * Computes a fingerprint for the given parts, e.g. a library version and a configuration.
+   *
+   * @param parts
+   *          the parts to include in the fingerprint
+   * @return a hex string that identifies the given parts
+   */
+  public static String fingerprint( String... parts ) {
+    StringBuilder builder = new StringBuilder();
+    for( String part : parts ) {
+      builder.append( part ).append( '\n' );
+    }
+    try {
+      return hash( builder.toString().getBytes( CHARSET ) );
+    } catch( UnsupportedEncodingException exception ) {
+      throw new RuntimeException( exception );
+    }
+  }
+
+  /**
+   * Computes the hash of a file content.
+   *
+   * @param content
+   *          the content to hash
+   * @return the SHA-1 hash of the content, as hex string
+   */
+  public static String hash( byte[] content ) {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance( "SHA-1" );
+    } catch( NoSuchAlgorithmException exception ) {
+      throw new RuntimeException( exception );
+    }
+    byte[] bytes = digest.digest( content );
+    StringBuilder builder = new StringBuilder( bytes.length * 2 );
+    for( byte b : bytes ) {
+      builder.append( Character.forDigit( ( b >> 4 ) & 0xf, 16 ) );
+      builder.append( Character.forDigit( b & 0xf, 16 ) );
+    }
+    return builder.toString();
+  }
+
+  private void addEntry( Entry entry ) {
+    entriesByFile.put( getFileKey( entry.path, entry.fingerprint ), entry );
+    resultsByContent.put( getContentKey( entry.hash, entry.fingerprint ), entry.result );
+  }
+
+  private void append() throws IOException {
+    cacheFile.getAbsoluteFile().getParentFile().mkdirs();
+    writeEntries( new FileOutputStream( cacheFile, true ), newEntries );
+    lineCount += newEntries.size();
+  }
+
+  private List<Entry> getLiveEntries() {
+    List<Entry> liveEntries = new ArrayList<Entry>();
+    for( Entry entry : entriesByFile.values() ) {
+      if( usedKeys.contains( getFileKey( entry.path, entry.fingerprint ) )
+          || usedFingerprints.contains( entry.fingerprint ) && new File( entry.path ).exists() )
+      {
+        liveEntries.add( entry );
+      }
+    }
+    return liveEntries;
+  }
+
+  private void rewrite( List<Entry> liveEntries ) throws IOException {
+    File parent = cacheFile.getAbsoluteFile().getParentFile();
+    parent.mkdirs();
+    File tmpFile = File.createTempFile( cacheFile.getName(), ".tmp", parent );
+    try {
+      writeEntries( new FileOutputStream( tmpFile ), liveEntries );
+      // File.renameTo does not replace existing files on all platforms
+      if( !tmpFile.renameTo( cacheFile ) ) {
+        cacheFile.delete();
+        if( !tmpFile.renameTo( cacheFile ) ) {
+          throw new IOException( "Could not replace " + cacheFile.getAbsolutePath() );
+        }
+      }
+    } finally {
+      tmpFile.delete();
+    }
+    entriesByFile.clear();
+    resultsByContent.clear();
+    for( Entry entry : liveEntries ) {
+      addEntry( entry );
+    }
+    lineCount = liveEntries.size();
+  }
+
+  private static void writeEntries( FileOutputStream outputStream, Iterable<Entry> entries )
+    throws IOException
+  {
+    Writer writer = new OutputBuffer( new OutputStreamWriter( outputStream, CHARSET ) );
+    try {
+      for( Entry entry : entries ) {
+        toJson( entry ).writeTo( writer );
+        writer.write( '\n' );
+      }
+    } finally {
+      writer.close();
+    }
+  }
+
+  private static JsonObject toJson( Entry entry ) {
+    JsonArray problems = new JsonArray();
+    CheckResult result = entry.result;
+    for( int i = 0; i < result.size(); i++ ) {
+      problems.add( new JsonArray().add( result.getLine( i ) )
+                                   .add( result.getCharacter( i ) )
+                                   .add( result.getCode( i ) )
+                                   .add( result.getMessage( i ) ) );
+    }
+    JsonObject object = new JsonObject();
+    object.add( "file", entry.path );
+    object.add( "length", entry.length );
+    object.add( "modified", entry.lastModified );
+    object.add( "stamped", entry.stampTime );
+    object.add( "hash", entry.hash );
+    object.add( "config", entry.fingerprint );
+    object.add( "valid", result.isValid() );
+    object.add( "problems", problems );
+    return object;
+  }
+
+  private static Entry parseEntry( String line ) {
+    try {
+      JsonObject object = JsonObject.readFrom( line );
+      List<Problem> problems = new ArrayList<Problem>();
+      for( JsonValue value : object.get( "problems" ).asArray() ) {
+        JsonArray problem = value.asArray();
+        JsonValue code = problem.get( 2 );
+        problems.add( new ProblemImpl( problem.get( 0 ).asInt(),
+                                       problem.get( 1 ).asInt(),
+                                       problem.get( 3 ).asString(),
+                                       code.isNull() ? null : code.asString() ) );
+      }
+      // entries of older versions do not have a stamp time and are not trusted
+      JsonValue stamped = object.get( "stamped" );
+      return new Entry( object.get( "file" ).asString(),
+                        object.get( "length" ).asLong(),
+                        object.get( "modified" ).asLong(),
+                        stamped == null ? 0 : stamped.asLong(),
+                        object.get( "hash" ).asString(),
+                        object.get( "config" ).asString(),
+                        CheckResult.create( object.get( "valid" ).asBoolean(), problems ) );
+    } catch( RuntimeException exception ) {
+      // ignore incomplete or corrupt lines
+      return null;
+    }
+  }
+
+  private static String getFileKey( File file, String fingerprint ) {
+    return getFileKey( file.getAbsolutePath(), fingerprint );
+  }
+
+  private static String getFileKey( String path, String fingerprint ) {
+    return fingerprint + ':' + path;
+  }
+
+  private static String getContentKey( String contentHash, String fingerprint ) {
+    return fingerprint + ':' + contentHash;
+  }
+
+  /**
+   * The length and modification time of a file, used to detect modifications without reading the
+   * file. Two stamps are equal if they have the same length and modification time, regardless of
+   * the time they have been taken.
+   */
+  public static final class FileStamp {
+
+    final long length;
+    final long lastModified;
+    final long time;
+
+    FileStamp( long length, long lastModified, long time ) {
+      this.length = length;
+      this.lastModified = lastModified;
+      this.time = time;
+    }
+
+    /**
+     * Returns the current stamp of the given file.
+     *
+     * @param file
+     *          the file to get the stamp for
+     * @return the current stamp of the file
+     */
+    public static FileStamp of( File file ) {
+      long time = System.currentTimeMillis();
+      return new FileStamp( file.length(), file.lastModified(), time );
+    }
+
+    @Override
+    public boolean equals( Object object ) {
+      if( this == object ) {
+        return true;
+      }
+      if( !( object instanceof FileStamp ) ) {
+        return false;
+      }
+      FileStamp other = (FileStamp)object;
+      return length == other.length && lastModified == other.lastModified;
+    }
+
+    @Override
+    public int hashCode() {
+      return (int)( length ^ lastModified ^ ( lastModified >>> 32 ) );
+    }
+
+  }
+
+  private static final class Entry {
+
+    final String path;
+    final long length;
+    final long lastModified;
+    final long stampTime;
+    final String hash;
+    final String fingerprint;
+    final CheckResult result;
+
+    Entry( String path,
+           long length,
+           long lastModified,
+           long stampTime,
+           String hash,
+           String fingerprint,
+           CheckResult result )
+    {
+      this.path = path;
+      this.length = length;
+      this.lastModified = lastModified;
+      this.stampTime = stampTime;
+      this.hash = hash;
+      this.fingerprint = fingerprint;
+      this.result = result;
+    }
+
+  }
+
+}
@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Ralf Sternberg - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+
+import com.eclipsesource.jshint.CheckResult;
+import com.eclipsesource.json.JsonArray;
+import com.eclipsesource.json.JsonObject;
+
+
+/**
+ * Reports problems in the Static Analysis Results Interchange Format (SARIF), version 2.1.0. The
+ * log contains a single run, results are streamed into it as files are reported.
+ */
+public class SarifReporter extends Reporter {
+
+  private static final String SCHEMA = "https://json.schemastore.org/sarif-2.1.0.json";
+
+  private boolean hasResults;
+
+  public SarifReporter( Writer writer ) {
+    super( writer );
+  }
+
+  @Override
+  public void begin() throws IOException {
+    JsonObject driver = new JsonObject();
+    driver.add( "name", "JSHint" );
+    driver.add( "informationUri", "http://jshint.com/" );
+    writer.write( "{\"version\":\"2.1.0\",\"$schema\":\"" + SCHEMA + "\",\"runs\":[{\"tool\":" );
+    new JsonObject().add( "driver", driver ).writeTo( writer );
+    writer.write( ",\"results\":[" );
+  }
+
+  @Override
+  public void reportFile( String path, CheckResult result ) throws IOException {
+    String uri = new File( path ).toURI().toString();
+    for( int i = 0; i < result.size(); i++ ) {
+      if( hasResults ) {
+        writer.write( ',' );
+      }
+      writer.write( '\n' );
+      createResult( uri, result, i ).writeTo( writer );
+      hasResults = true;
+    }
+  }
+
+  @Override
+  public void end() throws IOException {
+    writer.write( "]}]}\n" );
+  }
+
+  private static JsonObject createResult( String uri, CheckResult result, int index ) {
+    JsonObject physicalLocation = new JsonObject();
+    physicalLocation.add( "artifactLocation", new JsonObject().add( "uri", uri ) );
+    int line = result.getLine( index );
+    if( line > 0 ) {
+      JsonObject region = new JsonObject();
+      region.add( "startLine", line );
+      // SARIF columns start with 1
+      region.add( "startColumn", Math.max( result.getCharacter( index ), 0 ) + 1 );
+      physicalLocation.add( "region", region );
+    }
+    JsonObject location = new JsonObject().add( "physicalLocation", physicalLocation );
+    JsonObject sarifResult = new JsonObject();
+    sarifResult.add( "ruleId", result.getCode( index ) );
+    sarifResult.add( "level", isError( result.getCode( index ) ) ? "error" : "warning" );
+    sarifResult.add( "message", new JsonObject().add( "text", result.getMessage( index ) ) );
+    sarifResult.add( "locations", new JsonArray().add( location ) );
+    return sarifResult;
+  }
+
+}
@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Ralf Sternberg - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+
+/**
+ * One of several shards that a set of files is split into, so that every shard can be checked on
+ * a different machine. Files are identified by their path relative to the input they were found
+ * in, using forward slashes, so that all machines agree on the partition regardless of where the
+ * files are located.
+ * <p>
+ * By default, a file is assigned to a shard by the hash of its path. This does not need the full
+ * list of files and lets files be checked while they are discovered. Alternatively, files can be
+ * distributed by size, which leads to more even shards but requires all files to be known in
+ * advance.
+ * </p>
+ */
+public class Shard {
+
+  private final int index;
+  private final int count;
+
+  /**
+   * Creates a shard.
+   *
+   * @param index
+   *          the number of this shard, beginning with 1
+   * @param count
+   *          the total number of shards
+   */
+  public Shard( int index, int count ) {
+    if( count < 1 || index < 1 || index > count ) {
+      throw new IllegalArgumentException( "Invalid shard: " + index + "/" + count );
+    }
+    this.index = index;
+    this.count = count;
+  }
+
+  /**
+   * Parses a shard in the form <code>index/count</code>, e.g. <code>2/4</code>.
+   *
+   * @param value
+   *          the string to parse
+   * @return the shard
+   * @throws IllegalArgumentException
+   *           if the string is not a valid shard
+   */
+  public static Shard parse( String value ) {
+    int slash = value.indexOf( '/' );
+    try {
+      int index = Integer.parseInt( value.substring( 0, slash ) );
+      int count = Integer.parseInt( value.substring( slash + 1 ) );
+      return new Shard( index, count );
+    } catch( RuntimeException exception ) {
+      throw new IllegalArgumentException( "Invalid shard: " + value );
+    }
+  }
+
+  /**
+   * Indicates whether the file with the given path belongs to this shard.
+   *
+   * @param path
+   *          the relative path of the file
+   * @return <code>true</code> if the file is to be checked in this shard
+   */
+  public boolean contains( String path ) {
+    return getHashShard( path ) == index - 1;
+  }
+
+  /**
+   * Distributes the given files to all shards so that the total size of every shard is about the
+   * same, and returns the files of this shard. Larger files are distributed first, each to the
+   * shard that has the smallest total size so far.
+   *
+   * @param paths
+   *          the relative paths of all files
+   * @param lengths
+   *          the lengths of all files, in the same order as the paths
+   * @return the indexes of the files of this shard, in ascending order
+   */
+  public List<Integer> selectBySize( final List<String> paths, final List<Long> lengths ) {
+    List<Integer> order = new ArrayList<Integer>( paths.size() );
+    for( int i = 0; i < paths.size(); i++ ) {
+      order.add( Integer.valueOf( i ) );
+    }
+    // Sort by length and path, the order of discovery may differ between machines
+    Collections.sort( order, new Comparator<Integer>() {
+      public int compare( Integer index1, Integer index2 ) {
+        int result = lengths.get( index2.intValue() ).compareTo( lengths.get( index1.intValue() ) );
+        if( result == 0 ) {
+          result = paths.get( index1.intValue() ).compareTo( paths.get( index2.intValue() ) );
+        }
+        return result;
+      }
+    } );
+    long[] totals = new long[ count ];
+    List<Integer> selected = new ArrayList<Integer>();
+    for( Integer file : order ) {
+      int smallest = 0;
+      for( int i = 1; i < count; i++ ) {
+        if( totals[ i ] < totals[ smallest ] ) {
+          smallest = i;
+        }
+      }
+      totals[ smallest ] += lengths.get( file.intValue() ).longValue();
+      if( smallest == index - 1 ) {
+        selected.add( file );
+      }
+    }
+    Collections.sort( selected );
+    return selected;
+  }
+
+  /*
+   * String.hashCode() is specified and therefore the same on every JVM. The bits are mixed since
+   * similar paths differ mostly in the lower bits.
+   */
+  private int getHashShard( String path ) {
+    int hash = path.hashCode() * 0x9e3779b9;
+    hash ^= hash >>> 16;
+    return ( hash & 0x7fffffff ) % count;
+  }
+
+}
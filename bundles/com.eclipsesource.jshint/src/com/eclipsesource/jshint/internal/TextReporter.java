@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Ralf Sternberg - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint.internal;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import com.eclipsesource.jshint.CheckResult;
+
+
+/**
+ * Reports one line of text per problem, the default output of the command line runner.
+ */
+public class TextReporter extends Reporter {
+
+  private static final String LINE_SEPARATOR = System.getProperty( "line.separator" );
+
+  public TextReporter( Writer writer ) {
+    super( writer );
+  }
+
+  @Override
+  public void reportFile( String path, CheckResult result ) throws IOException {
+    for( int i = 0; i < result.size(); i++ ) {
+      writer.write( "Problem in file " );
+      writer.write( path );
+      writer.write( " at line " );
+      writer.write( Integer.toString( result.getLine( i ) ) );
+      writer.write( ": " );
+      writer.write( result.getMessage( i ) );
+      writer.write( LINE_SEPARATOR );
+    }
+  }
+
+}
@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Ralf Sternberg - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.eclipsesource.jshint.internal.ProblemImpl;
+
+import static org.junit.Assert.*;
+
+
+public class CheckResult_Test {
+
+  private CheckResult result;
+
+  @Before
+  public void setUp() {
+    result = new CheckResult( false );
+  }
+
+  @Test
+  public void isValid() {
+    assertTrue( new CheckResult( true ).isValid() );
+    assertFalse( new CheckResult( false ).isValid() );
+  }
+
+  @Test
+  public void create() {
+    List<Problem> problems = new ArrayList<Problem>();
+    problems.add( new ProblemImpl( 3, 7, "message", "W001" ) );
+    problems.add( new ProblemImpl( 5, 0, "message", "W002" ) );
+
+    CheckResult created = CheckResult.create( false, problems );
+
+    assertFalse( created.isValid() );
+    assertEquals( 2, created.size() );
+    assertEquals( 5, created.getLine( 1 ) );
+    assertEquals( 0, created.getCharacter( 1 ) );
+    assertEquals( "message", created.getMessage( 1 ) );
+    assertEquals( "W002", created.getCode( 1 ) );
+  }
+
+  @Test( expected = NullPointerException.class )
+  public void create_withNullProblems() {
+    CheckResult.create( true, null );
+  }
+
+  @Test
+  public void size_isZeroInitially() {
+    assertEquals( 0, result.size() );
+  }
+
+  @Test
+  public void add() {
+    result.add( 3, 7, "message", "W001" );
+
+    assertEquals( 1, result.size() );
+    assertEquals( 3, result.getLine( 0 ) );
+    assertEquals( 7, result.getCharacter( 0 ) );
+    assertEquals( "message", result.getMessage( 0 ) );
+    assertEquals( "W001", result.getCode( 0 ) );
+  }
+
+  @Test
+  public void add_manyProblems() {
+    for( int i = 0; i < 100; i++ ) {
+      result.add( i, i * 2, "message " + ( i % 3 ), "W00" + ( i % 5 ) );
+    }
+    result.complete();
+
+    assertEquals( 100, result.size() );
+    assertEquals( 99, result.getLine( 99 ) );
+    assertEquals( 198, result.getCharacter( 99 ) );
+    assertEquals( "message 0", result.getMessage( 99 ) );
+    assertEquals( "W004", result.getCode( 99 ) );
+  }
+
+  @Test
+  public void add_sharesEqualStrings() {
+    result.add( 1, 1, new String( "message" ), "W001" );
+    result.add( 2, 1, new String( "message" ), "W001" );
+
+    assertSame( result.getMessage( 0 ), result.getMessage( 1 ) );
+  }
+
+  @Test
+  public void add_afterComplete() {
+    result.add( 1, 1, "message 1", "W001" );
+    result.complete();
+
+    result.add( 2, 1, "message 2", "W001" );
+
+    assertEquals( 2, result.size() );
+    assertEquals( "message 2", result.getMessage( 1 ) );
+    assertEquals( "W001", result.getCode( 1 ) );
+  }
+
+  @Test
+  public void getProblem() {
+    result.add( 3, 7, "message", "E001" );
+
+    Problem problem = result.getProblem( 0 );
+
+    assertEquals( 3, problem.getLine() );
+    assertEquals( 7, problem.getCharacter() );
+    assertEquals( "message", problem.getMessage() );
+    assertEquals( "E001", problem.getCode() );
+    assertTrue( problem.isError() );
+  }
+
+  @Test( expected = IndexOutOfBoundsException.class )
+  public void getLine_failsWithIllegalIndex() {
+    result.add( 3, 7, "message", "E001" );
+
+    result.getLine( 1 );
+  }
+
+  @Test( expected = IndexOutOfBoundsException.class )
+  public void getProblem_failsWithNegativeIndex() {
+    result.getProblem( -1 );
+  }
+
+  @Test( expected = NullPointerException.class )
+  public void report_failsWithNullHandler() {
+    result.report( null );
+  }
+
+  @Test
+  public void report() {
+    result.add( 1, 2, "message 1", "W001" );
+    result.add( 3, 4, "message 2", "W002" );
+    final List<Problem> problems = new ArrayList<Problem>();
+
+    result.report( new ProblemHandler() {
+      public void handleProblem( Problem problem ) {
+        problems.add( problem );
+      }
+    } );
+
+    assertEquals( 2, problems.size() );
+    assertEquals( "message 1", problems.get( 0 ).getMessage() );
+    assertEquals( "message 2", problems.get( 1 ).getMessage() );
+  }
+
+}
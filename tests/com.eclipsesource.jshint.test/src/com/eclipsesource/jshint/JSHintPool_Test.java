@@ -0,0 +1,200 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Ralf Sternberg - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.eclipsesource.json.JsonObject;
+
+import static org.junit.Assert.*;
+
+
+public class JSHintPool_Test {
+
+  private JSHintPool pool;
+
+  @Before
+  public void setUp() throws Exception {
+    pool = new JSHintPool( 2, false );
+    pool.load();
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void create_failsWithZeroSize() {
+    new JSHintPool( 0 );
+  }
+
+  @Test
+  public void getSize() {
+    assertEquals( 2, pool.getSize() );
+  }
+
+  @Test( expected = IllegalStateException.class )
+  public void borrow_failsWithoutLoad() throws Exception {
+    new JSHintPool( 1 ).borrow();
+  }
+
+  @Test( expected = IllegalStateException.class )
+  public void load_failsWhenLoadedTwice() throws Exception {
+    pool.load();
+  }
+
+  @Test
+  public void load_withCustomLibrary() throws Exception {
+    JSHintPool pool = new JSHintPool( 2 );
+    String library = "JSHINT = function() { return false; }; JSHINT.errors = [];";
+
+    pool.load( new ByteArrayInputStream( library.getBytes() ) );
+
+    JSHint jshint1 = pool.borrow();
+    JSHint jshint2 = pool.borrow();
+    assertFalse( jshint1.check( "var a = 23;", null ) );
+    assertFalse( jshint2.check( "var a = 23;", null ) );
+  }
+
+  @Test( expected = NullPointerException.class )
+  public void configure_failsWithNull() {
+    pool.configure( null );
+  }
+
+  @Test
+  public void borrow_returnsDistinctInstances() throws Exception {
+    JSHint jshint1 = pool.borrow();
+    JSHint jshint2 = pool.borrow();
+
+    assertNotNull( jshint1 );
+    assertNotNull( jshint2 );
+    assertNotSame( jshint1, jshint2 );
+  }
+
+  @Test
+  public void borrow_returnsNullWhenExhaustedAndNotBlocking() throws Exception {
+    pool.borrow();
+    pool.borrow();
+
+    assertNull( pool.borrow() );
+  }
+
+  @Test
+  public void borrow_returnsReleasedInstance() throws Exception {
+    JSHint jshint1 = pool.borrow();
+    pool.borrow();
+
+    pool.release( jshint1 );
+
+    assertSame( jshint1, pool.borrow() );
+  }
+
+  @Test
+  public void borrow_appliesConfiguration() throws Exception {
+    pool.configure( new JsonObject().add( "undef", true ) );
+
+    JSHint jshint = pool.borrow();
+
+    assertFalse( jshint.check( "x = 23;", null ) );
+  }
+
+  @Test
+  public void borrow_appliesChangedConfiguration() throws Exception {
+    pool.configure( new JsonObject().add( "undef", true ) );
+    JSHint jshint = pool.borrow();
+    pool.release( jshint );
+
+    pool.configure( new JsonObject() );
+    jshint = pool.borrow();
+
+    assertTrue( jshint.check( "x = 23;", null ) );
+  }
+
+  @Test
+  public void configure_doesNotModifyParameter() throws Exception {
+    JsonObject configuration = new JsonObject().add( "globals", new JsonObject() );
+
+    pool.configure( configuration );
+    pool.borrow();
+
+    assertNotNull( configuration.get( "globals" ) );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void release_failsWithForeignInstance() {
+    pool.release( new JSHint() );
+  }
+
+  @Test( expected = IllegalStateException.class )
+  public void release_failsWhenReleasedTwice() throws Exception {
+    JSHint jshint = pool.borrow();
+    pool.release( jshint );
+
+    pool.release( jshint );
+  }
+
+  @Test
+  public void concurrentChecks() throws Exception {
+    final JSHintPool pool = new JSHintPool( 2 );
+    pool.load();
+    pool.configure( new JsonObject().add( "undef", true ) );
+    ExecutorService executor = Executors.newFixedThreadPool( 4 );
+    List<Future<String>> results = new ArrayList<Future<String>>();
+    try {
+      for( int i = 0; i < 20; i++ ) {
+        final String code = "var a = 1;\nx" + i + " = a;\n";
+        results.add( executor.submit( new Callable<String>() {
+          public String call() throws Exception {
+            JSHint jshint = pool.borrow();
+            try {
+              ProblemCollector collector = new ProblemCollector();
+              jshint.check( code, collector );
+              return collector.toString();
+            } finally {
+              pool.release( jshint );
+            }
+          }
+        } ) );
+      }
+      for( int i = 0; i < results.size(); i++ ) {
+        assertEquals( "2:0:'x" + i + "' is not defined\n", results.get( i ).get() );
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private static class ProblemCollector implements ProblemHandler {
+
+    private final StringBuilder log = new StringBuilder();
+
+    public void handleProblem( Problem problem ) {
+      log.append( problem.getLine() );
+      log.append( ':' );
+      log.append( problem.getCharacter() );
+      log.append( ':' );
+      log.append( problem.getMessage() );
+      log.append( '\n' );
+    }
+
+    @Override
+    public String toString() {
+      return log.toString();
+    }
+
+  }
+
+}
@@ -11,6 +11,7 @@
 package com.eclipsesource.jshint;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
@@ -85,6 +86,51 @@ public class JSHint_Test {
     assertEquals( "'x' is not defined", problems.get( 0 ).getMessage() );
   }
 
+  @Test
+  public void configureWithGlobals() {
+    JsonObject globals = new JsonObject().add( "x", true );
+    JsonObject configuration = new JsonObject().add( "undef", true ).add( "globals", globals );
+
+    jsHint.configure( configuration );
+    jsHint.check( "x = 23; y = 42;", handler );
+
+    assertEquals( 1, problems.size() );
+    assertEquals( "'y' is not defined", problems.get( 0 ).getMessage() );
+  }
+
+  @Test
+  public void configure_doesNotModifyConfiguration() {
+    JsonObject globals = new JsonObject().add( "x", true );
+    JsonObject configuration = new JsonObject().add( "undef", true ).add( "globals", globals );
+
+    jsHint.configure( configuration );
+
+    assertEquals( globals, configuration.get( "globals" ) );
+  }
+
+  @Test
+  public void configure_withChangedConfiguration() {
+    JsonObject configuration = new JsonObject().add( "undef", true );
+    jsHint.configure( configuration );
+    configuration.set( "undef", false );
+
+    jsHint.configure( configuration );
+    jsHint.check( "x = 23;", handler );
+
+    assertTrue( problems.isEmpty() );
+  }
+
+  @Test
+  public void configure_withSameConfigurationAgain() {
+    jsHint.configure( new JsonObject().add( "undef", true ) );
+    jsHint.configure( new JsonObject() );
+
+    jsHint.configure( new JsonObject().add( "undef", true ) );
+    jsHint.check( "x = 23;", handler );
+
+    assertEquals( "'x' is not defined", problems.get( 0 ).getMessage() );
+  }
+
   @Test( expected = IllegalStateException.class )
   public void checkWithoutLoad() {
     JSHint jsHint = new JSHint();
@@ -184,6 +230,161 @@ public class JSHint_Test {
     assertFalse( problems.isEmpty() );
   }
 
+  @Test
+  public void loadWithCacheDirectory() throws Exception {
+    File directory = File.createTempFile( "jshint-test", ".dir" );
+    directory.delete();
+    JSHint.setCacheDirectory( directory );
+    try {
+      JSHint jsHint = new JSHint();
+      jsHint.load( new ByteArrayInputStream( "JSHINT = function() { return true; };".getBytes() ) );
+
+      assertTrue( jsHint.check( "var a = 1;", handler ) );
+      assertEquals( 1, directory.listFiles().length );
+    } finally {
+      JSHint.setCacheDirectory( null );
+      for( File file : directory.listFiles() ) {
+        file.delete();
+      }
+      directory.delete();
+    }
+  }
+
+  @Test
+  public void loadWithTieredLoading() throws Exception {
+    JSHint.setTieredLoading( true );
+    try {
+      JSHint jsHint = new JSHint();
+      jsHint.load( new ByteArrayInputStream( "JSHINT = function() { return !!'tiered'; };".getBytes() ) );
+
+      assertTrue( jsHint.check( "var a = 1;", handler ) );
+    } finally {
+      JSHint.setTieredLoading( false );
+    }
+  }
+
+  @Test( expected = NullPointerException.class )
+  public void checkResultWithNullText() {
+    jsHint.check( (Text)null );
+  }
+
+  @Test( expected = IllegalStateException.class )
+  public void checkResultWithoutLoad() {
+    new JSHint().check( new Text( "var a = 1;" ) );
+  }
+
+  @Test
+  public void checkResultWithValidCode() {
+    CheckResult result = jsHint.check( new Text( "var a = 1;" ) );
+
+    assertTrue( result.isValid() );
+    assertEquals( 0, result.size() );
+  }
+
+  @Test
+  public void checkResultWithBlankCode() {
+    CheckResult result = jsHint.check( new Text( " \n" ) );
+
+    assertTrue( result.isValid() );
+    assertEquals( 0, result.size() );
+  }
+
+  @Test
+  public void checkResultWithProblems() {
+    jsHint.configure( new JsonObject().add( "undef", true ) );
+
+    CheckResult result = jsHint.check( new Text( "x = 23;\ny = 42;" ) );
+
+    assertFalse( result.isValid() );
+    assertEquals( 2, result.size() );
+    assertEquals( 2, result.getLine( 1 ) );
+    assertEquals( 0, result.getCharacter( 1 ) );
+    assertEquals( "'y' is not defined", result.getMessage( 1 ) );
+    assertEquals( "W117", result.getCode( 1 ) );
+  }
+
+  @Test
+  public void session_checkResult() {
+    JSHint.Session session = jsHint.openSession();
+    try {
+      CheckResult result = session.check( new Text( "var a = 1" ) );
+
+      assertFalse( result.isValid() );
+      assertEquals( 1, result.size() );
+    } finally {
+      session.close();
+    }
+  }
+
+  @Test( expected = IllegalStateException.class )
+  public void openSessionWithoutLoad() {
+    new JSHint().openSession();
+  }
+
+  @Test
+  public void session_check() {
+    jsHint.configure( new JsonObject().add( "undef", true ) );
+    JSHint.Session session = jsHint.openSession();
+    try {
+      assertTrue( session.check( "var a = 1;", handler ) );
+      assertFalse( session.check( "x = 23;", handler ) );
+    } finally {
+      session.close();
+    }
+
+    assertEquals( "'x' is not defined", problems.get( 0 ).getMessage() );
+  }
+
+  @Test( expected = NullPointerException.class )
+  public void session_checkWithNullText() {
+    JSHint.Session session = jsHint.openSession();
+    try {
+      session.check( (Text)null, handler );
+    } finally {
+      session.close();
+    }
+  }
+
+  @Test( expected = IllegalStateException.class )
+  public void session_checkAfterClose() {
+    JSHint.Session session = jsHint.openSession();
+    session.close();
+
+    session.check( "var a = 1;", handler );
+  }
+
+  @Test
+  public void session_closeTwice() {
+    JSHint.Session session = jsHint.openSession();
+    session.close();
+
+    session.close();
+  }
+
+  @Test
+  public void session_checkOnOtherThread() throws Exception {
+    final JSHint.Session session = jsHint.openSession();
+    final List<Throwable> exceptions = new ArrayList<Throwable>();
+    try {
+      Thread thread = new Thread() {
+        @Override
+        public void run() {
+          try {
+            session.check( "var a = 1;", handler );
+          } catch( Throwable exception ) {
+            exceptions.add( exception );
+          }
+        }
+      };
+      thread.start();
+      thread.join();
+    } finally {
+      session.close();
+    }
+
+    assertTrue( exceptions.get( 0 ) instanceof IllegalStateException );
+  }
+
   @Test
   public void checkWithEmptyCode() {
     boolean result = jsHint.check( "", handler );
@@ -341,7 +542,7 @@ public class JSHint_Test {
     Text text = new Text( "line1\nline2\n" );
     ScriptableObject error = mockError( "foo", 1, 3, "T001" );
 
-    Problem problem = jsHint.createProblem( error, text );
+    Problem problem = createProblem( error, text );
 
     assertEquals( "foo", problem.getMessage() );
     assertEquals( 1, problem.getLine() );
@@ -354,7 +555,7 @@ public class JSHint_Test {
     Text text = new Text( "line1\nline2\n" );
     ScriptableObject error = mockError( "Foo.", 1, 3, "T001" );
 
-    Problem problem = jsHint.createProblem( error, text );
+    Problem problem = createProblem( error, text );
 
     assertEquals( "Foo", problem.getMessage() );
   }
@@ -364,7 +565,7 @@ public class JSHint_Test {
     Text text = new Text( "\tline1\n" );
     ScriptableObject error = mockError( "foo", 1, 6, "T001" );
 
-    Problem problem = jsHint.createProblem( error, text );
+    Problem problem = createProblem( error, text );
 
     assertEquals( 1, problem.getLine() );
     assertEquals( 2, problem.getCharacter() );
@@ -378,12 +579,36 @@ public class JSHint_Test {
     Text text = new Text( "line1\nline2\n" );
     ScriptableObject error = mockError( "Foo.", 4, 7, "T001" );
 
-    Problem problem = jsHint.createProblem( error, text );
+    Problem problem = createProblem( error, text );
 
     assertEquals( -1, problem.getLine() );
     assertEquals( -1, problem.getCharacter() );
   }
 
+  @Test
+  public void createProblem_internsMessageAndCode() {
+    Text text = new Text( "line1\nline2\n" );
+    ScriptableObject error1 = mockError( new String( "Foo." ), 1, 3, new String( "T001" ) );
+    ScriptableObject error2 = mockError( new String( "Foo." ), 2, 3, new String( "T001" ) );
+
+    Problem problem1 = createProblem( error1, text );
+    Problem problem2 = createProblem( error2, text );
+
+    assertSame( problem1.getMessage(), problem2.getMessage() );
+    assertSame( problem1.getCode(), problem2.getCode() );
+  }
+
+  @Test
+  public void createProblem_acceptsCharSequenceMessage() {
+    Text text = new Text( "line1\nline2\n" );
+    ScriptableObject error = mockError( "", 1, 3, "T001" );
+    when( error.get( eq( "reason" ), any( Scriptable.class ) ) ).thenReturn( new StringBuilder( "Foo." ) );
+
+    Problem problem = createProblem( error, text );
+
+    assertEquals( "Foo", problem.getMessage() );
+  }
+
   /*
    * index:  | 0 | 1 | 2 | 3 | 4 | 5 | 6 | 7 | 8 | 9 | 10| 11|
    * char:   | a | » | b | » | c |
@@ -410,6 +635,12 @@ public class JSHint_Test {
     assertEquals( 4, jsHint.visualToCharIndex( text, 1, 5 ) );
   }
 
+  private Problem createProblem( ScriptableObject error, Text text ) {
+    CheckResult result = new CheckResult( false );
+    jsHint.addProblem( result, error, text );
+    return result.getProblem( 0 );
+  }
+
   private static ScriptableObject mockError( String message, int line, int character, String code )
   {
     ScriptableObject error = mock( ScriptableObject.class );
@@ -10,9 +10,15 @@
  ******************************************************************************/
 package com.eclipsesource.jshint;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
 
 import org.junit.Test;
 
@@ -20,10 +26,13 @@ import static org.hamcrest.CoreMatchers.endsWith;
 import static org.hamcrest.CoreMatchers.startsWith;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 
 
 public class Text_Test {
 
+  private static final Charset UTF_8 = Charset.forName( "UTF-8" );
+
   @Test( expected = NullPointerException.class )
   public void creation_failsWithNullString() {
     new Text( (String)null );
@@ -34,6 +43,127 @@ public class Text_Test {
     new Text( (Reader)null );
   }
 
+  @Test( expected = NullPointerException.class )
+  public void creation_failsWithNullBuffer() {
+    new Text( (ByteBuffer)null, UTF_8 );
+  }
+
+  @Test( expected = NullPointerException.class )
+  public void creation_failsWithNullCharset() {
+    new Text( ByteBuffer.allocate( 0 ), null );
+  }
+
+  @Test( expected = NullPointerException.class )
+  public void creation_failsWithNullFile() throws IOException {
+    new Text( (File)null, UTF_8 );
+  }
+
+  @Test( expected = NullPointerException.class )
+  public void creation_failsWithNullChannel() throws IOException {
+    new Text( (FileChannel)null, UTF_8 );
+  }
+
+  @Test
+  public void creation_withByteBuffer() throws IOException {
+    ByteBuffer buffer = ByteBuffer.wrap( "f\u00f6\u00f6\nbar".getBytes( "UTF-8" ) );
+
+    Text text = new Text( buffer, UTF_8 );
+
+    assertEquals( "f\u00f6\u00f6\nbar", text.getContent() );
+    assertEquals( "0, 4", getAllLineOffsets( text ) );
+    assertEquals( "4, 3", getAllLineLengths( text ) );
+  }
+
+  @Test
+  public void creation_withByteBuffer_singleByteCharset() throws IOException {
+    ByteBuffer buffer = ByteBuffer.wrap( "f\u00f6\u00f6\nbar".getBytes( "ISO-8859-1" ) );
+
+    Text text = new Text( buffer, Charset.forName( "ISO-8859-1" ) );
+
+    assertEquals( "f\u00f6\u00f6\nbar", text.getContent() );
+  }
+
+  @Test
+  public void creation_withByteBuffer_empty() {
+    Text text = new Text( ByteBuffer.allocate( 0 ), UTF_8 );
+
+    assertEquals( "", text.getContent() );
+    assertEquals( 1, text.getLineCount() );
+  }
+
+  @Test
+  public void creation_withByteBuffer_replacesMalformedInput() {
+    ByteBuffer buffer = ByteBuffer.wrap( new byte[] { 'a', ( byte )0xff, 'b' } );
+
+    Text text = new Text( buffer, UTF_8 );
+
+    assertEquals( "a\ufffdb", text.getContent() );
+  }
+
+  @Test
+  public void creation_withByteBuffer_readsRemainingBytes() throws IOException {
+    ByteBuffer buffer = ByteBuffer.wrap( "foo\nbar".getBytes( "UTF-8" ) );
+    buffer.position( 4 );
+
+    Text text = new Text( buffer, UTF_8 );
+
+    assertEquals( "bar", text.getContent() );
+  }
+
+  @Test
+  public void creation_withFile() throws IOException {
+    File file = createTmpFile( "foo\nb\u00e4r\n" );
+
+    Text text = new Text( file, UTF_8 );
+
+    assertEquals( "foo\nb\u00e4r\n", text.getContent() );
+    assertEquals( "0, 4, 8", getAllLineOffsets( text ) );
+  }
+
+  @Test
+  public void creation_withLargeFile() throws IOException {
+    StringBuilder builder = new StringBuilder();
+    while( builder.length() < 1024 * 1024 ) {
+      builder.append( "var f\u00f6\u00f6 = 23;\n" );
+    }
+    File file = createTmpFile( builder.toString() );
+
+    Text text = new Text( file, UTF_8 );
+
+    assertEquals( builder.toString(), text.getContent() );
+    assertEquals( 14, text.getLineOffset( 1 ) );
+  }
+
+  @Test
+  public void creation_withLargeFile_releasesFile() throws IOException {
+    StringBuilder builder = new StringBuilder();
+    while( builder.length() < 1024 * 1024 ) {
+      builder.append( "var foo = 23;\n" );
+    }
+    File file = createTmpFile( builder.toString() );
+
+    new Text( file, UTF_8 );
+
+    assertTrue( file.delete() );
+  }
+
+  @Test
+  public void creation_withFileChannel() throws IOException {
+    File file = createTmpFile( "foo\nbar" );
+    FileInputStream inputStream = new FileInputStream( file );
+    try {
+      FileChannel channel = inputStream.getChannel();
+      channel.position( 4 );
+
+      Text text = new Text( channel, UTF_8 );
+
+      assertEquals( "bar", text.getContent() );
+      assertEquals( 7, channel.position() );
+    } finally {
+      inputStream.close();
+    }
+  }
+
   @Test
   public void creation_withString() {
     Text text = new Text( "foo\nbar" );
@@ -165,6 +295,79 @@ public class Text_Test {
     text.getLineLength( 3 );
   }
 
+  @Test
+  public void getLineAtOffset() {
+    Text text = new Text( "foo\n\nbar" );
+
+    assertEquals( 0, text.getLineAtOffset( 0 ) );
+    assertEquals( 0, text.getLineAtOffset( 3 ) );
+    assertEquals( 1, text.getLineAtOffset( 4 ) );
+    assertEquals( 2, text.getLineAtOffset( 5 ) );
+    assertEquals( 2, text.getLineAtOffset( 8 ) );
+  }
+
+  @Test
+  public void getLineAtOffset_atEndOfText() {
+    Text text = new Text( "foo\n" );
+
+    assertEquals( 1, text.getLineAtOffset( 4 ) );
+  }
+
+  @Test( expected = IndexOutOfBoundsException.class )
+  public void getLineAtOffset_failsWithNegativeOffset() {
+    new Text( "foo" ).getLineAtOffset( -1 );
+  }
+
+  @Test( expected = IndexOutOfBoundsException.class )
+  public void getLineAtOffset_failsWithOffsetBeyondText() {
+    new Text( "foo" ).getLineAtOffset( 4 );
+  }
+
+  @Test
+  public void getCharIndexAtVisualColumn() {
+    Text text = new Text( "a\tb\tc" );
+
+    assertEquals( 0, text.getCharIndexAtVisualColumn( 0, 1, 4 ) );
+    assertEquals( 1, text.getCharIndexAtVisualColumn( 0, 2, 4 ) );
+    assertEquals( 2, text.getCharIndexAtVisualColumn( 0, 6, 4 ) );
+    assertEquals( 3, text.getCharIndexAtVisualColumn( 0, 7, 4 ) );
+    assertEquals( 4, text.getCharIndexAtVisualColumn( 0, 11, 4 ) );
+  }
+
+  @Test
+  public void getCharIndexAtVisualColumn_inSecondLine() {
+    Text text = new Text( "\tfoo\n\t\tbar" );
+
+    assertEquals( 2, text.getCharIndexAtVisualColumn( 1, 9, 4 ) );
+    assertEquals( 3, text.getCharIndexAtVisualColumn( 1, 10, 4 ) );
+  }
+
+  @Test
+  public void getCharIndexAtVisualColumn_withinTabMapsToEndOfText() {
+    Text text = new Text( "a\tb" );
+
+    assertEquals( 2, text.getCharIndexAtVisualColumn( 0, 4, 4 ) );
+  }
+
+  @Test
+  public void getCharIndexAtVisualColumn_beyondEndOfText() {
+    Text text = new Text( "abc" );
+
+    assertEquals( 2, text.getCharIndexAtVisualColumn( 0, 23, 4 ) );
+  }
+
+  private static File createTmpFile( String content ) throws IOException {
+    File file = File.createTempFile( "jshint-test", ".tmp" );
+    file.deleteOnExit();
+    FileOutputStream outputStream = new FileOutputStream( file );
+    try {
+      outputStream.write( content.getBytes( "UTF-8" ) );
+    } finally {
+      outputStream.close();
+    }
+    return file;
+  }
+
   private static String getAllLineOffsets( Text text ) {
     StringBuilder result = new StringBuilder();
     int line = 0;
@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Ralf Sternberg - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.eclipsesource.jshint.internal.CheckStatistics.FileTiming;
+import com.eclipsesource.json.JsonObject;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.junit.Assert.*;
+
+
+public class CheckStatistics_Test {
+
+  private CheckStatistics statistics;
+
+  @Before
+  public void setUp() {
+    statistics = new CheckStatistics();
+  }
+
+  @Test
+  public void fileTiming_total() {
+    FileTiming timing = statistics.addFile( new File( "/a.js" ) );
+
+    timing.add( FileTiming.READ, 1 );
+    timing.add( FileTiming.TEXT, 20 );
+    timing.add( FileTiming.CHECK, 300 );
+    timing.add( FileTiming.REPORT, 4000 );
+
+    assertEquals( 4321, timing.getTotal() );
+  }
+
+  @Test
+  public void fileTiming_beginAndEnd() throws Exception {
+    FileTiming timing = statistics.addFile( new File( "/a.js" ) );
+
+    timing.begin();
+    Thread.sleep( 5 );
+    timing.end( FileTiming.CHECK );
+
+    assertTrue( timing.getTotal() >= 5000000 );
+  }
+
+  @Test
+  public void getSlowestFiles_areSorted() {
+    addFile( "/a.js", 2000 );
+    addFile( "/b.js", 3000 );
+    addFile( "/c.js", 1000 );
+
+    List<FileTiming> slowest = statistics.getSlowestFiles();
+
+    assertEquals( 3000, slowest.get( 0 ).getTotal() );
+    assertEquals( 2000, slowest.get( 1 ).getTotal() );
+    assertEquals( 1000, slowest.get( 2 ).getTotal() );
+  }
+
+  @Test
+  public void getSlowestFiles_areLimited() {
+    for( int i = 0; i < 20; i++ ) {
+      addFile( "/" + i + ".js", i );
+    }
+
+    List<FileTiming> slowest = statistics.getSlowestFiles();
+
+    assertEquals( 10, slowest.size() );
+    assertEquals( 19, slowest.get( 0 ).getTotal() );
+  }
+
+  @Test
+  public void toJson() {
+    FileTiming timing = statistics.addFile( new File( "/a.js" ) );
+    timing.add( FileTiming.READ, 1000000 );
+    timing.add( FileTiming.CHECK, 2500000 );
+
+    JsonObject json = statistics.toJson();
+
+    assertEquals( 1, json.get( "fileCount" ).asInt() );
+    assertEquals( 1.0, json.get( "read" ).asDouble(), 0 );
+    assertEquals( 2.5, json.get( "check" ).asDouble(), 0 );
+    String path = new File( "/a.js" ).getAbsolutePath();
+    assertEquals( path, json.get( "slowest" ).asArray().get( 0 ).asString() );
+    JsonObject file = json.get( "files" ).asArray().get( 0 ).asObject();
+    assertEquals( path, file.get( "file" ).asString() );
+    assertEquals( 3.5, file.get( "total" ).asDouble(), 0 );
+  }
+
+  @Test
+  public void print() {
+    statistics.start();
+    addFile( "/a.js", 1500000000L );
+    statistics.stop();
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    statistics.print( new PrintStream( output, true ) );
+
+    String printed = output.toString();
+    assertThat( printed, startsWith( "Checked 1 files in " ) );
+    assertThat( printed, containsString( "check 1.500 s" ) );
+    assertThat( printed, containsString( "Slowest files:" ) );
+    assertThat( printed, containsString( "1.500 s  " + new File( "/a.js" ).getAbsolutePath() ) );
+  }
+
+  private void addFile( String path, long nanos ) {
+    statistics.addFile( new File( path ) ).add( FileTiming.CHECK, nanos );
+  }
+
+}
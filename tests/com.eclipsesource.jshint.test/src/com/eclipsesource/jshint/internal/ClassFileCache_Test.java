@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Ralf Sternberg - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint.internal;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.Script;
+import org.mozilla.javascript.Scriptable;
+
+import static org.junit.Assert.*;
+
+
+public class ClassFileCache_Test {
+
+  private Context context;
+  private File directory;
+  private ClassFileCache cache;
+
+  @Before
+  public void setUp() throws IOException {
+    context = Context.enter();
+    context.setOptimizationLevel( 9 );
+    context.setLanguageVersion( Context.VERSION_1_5 );
+    directory = createTmpDir();
+    cache = new ClassFileCache( directory );
+  }
+
+  @After
+  public void tearDown() {
+    Context.exit();
+    deleteDir( directory );
+  }
+
+  @Test( expected = NullPointerException.class )
+  public void create_failsWithNullDirectory() {
+    new ClassFileCache( null );
+  }
+
+  @Test
+  public void getScript_returnsExecutableScript() {
+    Script script = cache.getScript( context, "var a = 23;", "digest" );
+
+    assertEquals( "23", execute( script, "a" ) );
+  }
+
+  @Test
+  public void getScript_createsCacheFile() {
+    cache.getScript( context, "var a = 23;", "digest" );
+
+    String key = ClassFileCache.createKey( context, "digest" );
+    assertTrue( cache.getCacheFile( key ).isFile() );
+  }
+
+  @Test
+  public void getScript_createsMissingDirectory() {
+    File subDirectory = new File( directory, "sub" );
+
+    new ClassFileCache( subDirectory ).getScript( context, "var a = 23;", "digest" );
+
+    assertEquals( 1, subDirectory.list().length );
+  }
+
+  @Test
+  public void getScript_readsFromCacheFile() {
+    cache.getScript( context, "var a = 23;", "digest" );
+
+    // a cache hit ignores the source
+    Script script = new ClassFileCache( directory ).getScript( context, "var a = 42;", "digest" );
+
+    assertEquals( "23", execute( script, "a" ) );
+  }
+
+  @Test
+  public void getScript_recompilesWithCorruptCacheFile() throws IOException {
+    String key = ClassFileCache.createKey( context, "digest" );
+    writeFile( cache.getCacheFile( key ), new byte[] { 1, 2, 3 } );
+
+    Script script = cache.getScript( context, "var a = 23;", "digest" );
+
+    assertEquals( "23", execute( script, "a" ) );
+  }
+
+  @Test
+  public void createKey_dependsOnDigest() {
+    String key1 = ClassFileCache.createKey( context, "digest1" );
+    String key2 = ClassFileCache.createKey( context, "digest2" );
+
+    assertFalse( key1.equals( key2 ) );
+  }
+
+  @Test
+  public void createKey_dependsOnOptimizationLevel() {
+    String key1 = ClassFileCache.createKey( context, "digest" );
+    context.setOptimizationLevel( 1 );
+    String key2 = ClassFileCache.createKey( context, "digest" );
+
+    assertFalse( key1.equals( key2 ) );
+  }
+
+  private String execute( Script script, String variable ) {
+    Scriptable scope = context.initStandardObjects();
+    script.exec( context, scope );
+    return Context.toString( scope.get( variable, scope ) );
+  }
+
+  private static void writeFile( File file, byte[] bytes ) throws IOException {
+    FileOutputStream outputStream = new FileOutputStream( file );
+    try {
+      outputStream.write( bytes );
+    } finally {
+      outputStream.close();
+    }
+  }
+
+  private static File createTmpDir() throws IOException {
+    File file = File.createTempFile( "jshint-test", ".dir" );
+    file.delete();
+    file.mkdirs();
+    return file;
+  }
+
+  private static void deleteDir( File directory ) {
+    File[] files = directory.listFiles();
+    if( files != null ) {
+      for( File file : files ) {
+        if( file.isDirectory() ) {
+          deleteDir( file );
+        } else {
+          file.delete();
+        }
+      }
+    }
+    directory.delete();
+  }
+
+}
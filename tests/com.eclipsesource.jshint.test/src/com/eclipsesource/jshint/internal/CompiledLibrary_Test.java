@@ -0,0 +1,223 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Ralf Sternberg - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint.internal;
+
+import java.io.StringReader;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.EvaluatorException;
+import org.mozilla.javascript.Script;
+import org.mozilla.javascript.Scriptable;
+import org.mozilla.javascript.ScriptableObject;
+
+import static org.junit.Assert.*;
+
+
+public class CompiledLibrary_Test {
+
+  private Context context;
+
+  @Before
+  public void setUp() {
+    context = Context.enter();
+  }
+
+  @After
+  public void tearDown() {
+    Context.exit();
+  }
+
+  @Test
+  public void get_returnsSameInstanceForSameSource() throws Exception {
+    CompiledLibrary library1 = CompiledLibrary.get( context, new StringReader( "var a = 1;" ) );
+    CompiledLibrary library2 = CompiledLibrary.get( context, new StringReader( "var a = 1;" ) );
+
+    assertSame( library1, library2 );
+  }
+
+  @Test
+  public void get_returnsDifferentInstancesForDifferentSource() throws Exception {
+    CompiledLibrary library1 = CompiledLibrary.get( context, new StringReader( "var a = 1;" ) );
+    CompiledLibrary library2 = CompiledLibrary.get( context, new StringReader( "var a = 2;" ) );
+
+    assertNotSame( library1, library2 );
+    assertFalse( library1.getDigest().equals( library2.getDigest() ) );
+  }
+
+  @Test
+  public void get_dropsLeastRecentlyUsedLibrary() throws Exception {
+    CompiledLibrary library = CompiledLibrary.get( context, new StringReader( "var a = 1;" ) );
+    for( int i = 0; i < CompiledLibrary.MAX_CACHED_LIBRARIES; i++ ) {
+      CompiledLibrary.get( context, new StringReader( "var b = " + i + ";" ) );
+    }
+
+    assertNotSame( library, CompiledLibrary.get( context, new StringReader( "var a = 1;" ) ) );
+  }
+
+  @Test
+  public void get_keepsRecentlyUsedLibrary() throws Exception {
+    CompiledLibrary library = CompiledLibrary.get( context, new StringReader( "var a = 1;" ) );
+    for( int i = 0; i < CompiledLibrary.MAX_CACHED_LIBRARIES; i++ ) {
+      CompiledLibrary.get( context, new StringReader( "var a = 1;" ) );
+      CompiledLibrary.get( context, new StringReader( "var b = " + i + ";" ) );
+    }
+
+    assertSame( library, CompiledLibrary.get( context, new StringReader( "var a = 1;" ) ) );
+  }
+
+  @Test
+  public void getDigest() throws Exception {
+    CompiledLibrary library = CompiledLibrary.get( context, new StringReader( "var a = 1;" ) );
+
+    assertTrue( library.getDigest().matches( "[0-9a-f]{40}" ) );
+  }
+
+  @Test( expected = EvaluatorException.class )
+  public void get_failsWithSyntaxError() throws Exception {
+    CompiledLibrary.get( context, new StringReader( "cheese! :D" ) );
+  }
+
+  @Test
+  public void get_withTieredCompilation_createsUsableLibrary() throws Exception {
+    CompiledLibrary.setTieredCompilation( true );
+    try {
+      String source = "var tiered = 23;";
+      CompiledLibrary library = CompiledLibrary.get( context, new StringReader( source ) );
+
+      Scriptable scope = library.createScope( context );
+
+      assertEquals( "23", Context.toString( scope.get( "tiered", scope ) ) );
+    } finally {
+      CompiledLibrary.setTieredCompilation( false );
+    }
+  }
+
+  @Test
+  public void get_withTieredCompilation_optimizesInBackground() throws Exception {
+    CompiledLibrary.setTieredCompilation( true );
+    try {
+      String source = "var tiered = 42;";
+      CompiledLibrary library = CompiledLibrary.get( context, new StringReader( source ) );
+      library.createScope( context );
+      waitUntilOptimized( library );
+
+      Scriptable scope = library.createScope( context );
+
+      assertEquals( "42", Context.toString( scope.get( "tiered", scope ) ) );
+    } finally {
+      CompiledLibrary.setTieredCompilation( false );
+    }
+  }
+
+  @Test
+  public void get_withoutTieredCompilation_isOptimized() throws Exception {
+    CompiledLibrary library = CompiledLibrary.get( context, new StringReader( "var a = 5;" ) );
+
+    assertTrue( library.isOptimized() );
+  }
+
+  @Test
+  public void getPrecompiled_returnsNullForMissingClass() {
+    assertNull( CompiledLibrary.getPrecompiled( "com.example.Missing" ) );
+  }
+
+  @Test
+  public void getPrecompiled_returnsNullForNonScriptClass() {
+    assertNull( CompiledLibrary.getPrecompiled( String.class.getName() ) );
+  }
+
+  @Test
+  public void getPrecompiled_returnsSameInstance() {
+    CompiledLibrary library1 = CompiledLibrary.getPrecompiled( TestScript.class.getName() );
+    CompiledLibrary library2 = CompiledLibrary.getPrecompiled( TestScript.class.getName() );
+
+    assertSame( library1, library2 );
+    assertEquals( TestScript.class.getName(), library1.getDigest() );
+  }
+
+  @Test
+  public void getPrecompiled_createScope_executesScript() {
+    CompiledLibrary library = CompiledLibrary.getPrecompiled( TestScript.class.getName() );
+
+    Scriptable scope = library.createScope( context );
+
+    assertEquals( "23", Context.toString( scope.get( "a", scope ) ) );
+  }
+
+  @Test
+  public void createScope_executesLibrary() throws Exception {
+    CompiledLibrary library = CompiledLibrary.get( context, new StringReader( "var a = 23;" ) );
+
+    Scriptable scope = library.createScope( context );
+
+    assertEquals( Integer.valueOf( 23 ), Context.jsToJava( scope.get( "a", scope ), Integer.class ) );
+  }
+
+  @Test
+  public void createScope_createsIndependentScopes() throws Exception {
+    String source = "var count = 0; function inc() { count++; }";
+    CompiledLibrary library = CompiledLibrary.get( context, new StringReader( source ) );
+    Scriptable scope1 = library.createScope( context );
+    Scriptable scope2 = library.createScope( context );
+
+    context.evaluateString( scope1, "inc(); inc();", "test", 1, null );
+
+    assertEquals( "2", Context.toString( scope1.get( "count", scope1 ) ) );
+    assertEquals( "0", Context.toString( scope2.get( "count", scope2 ) ) );
+  }
+
+  @Test
+  public void createScope_providesStandardObjects() throws Exception {
+    String source = "var result = [ 1, 2 ].join( '-' ) + JSON.stringify( {} );";
+    CompiledLibrary library = CompiledLibrary.get( context, new StringReader( source ) );
+
+    Scriptable scope = library.createScope( context );
+
+    assertEquals( "1-2{}", Context.toString( scope.get( "result", scope ) ) );
+  }
+
+  @Test
+  public void createScope_includesShims() throws Exception {
+    CompiledLibrary library = CompiledLibrary.get( context, new StringReader( "console.log();" ) );
+
+    Scriptable scope = library.createScope( context );
+
+    assertSame( scope, scope.get( "global", scope ) );
+  }
+
+  @Test
+  public void getSharedScope_isSealed() {
+    ScriptableObject scope = CompiledLibrary.getSharedScope( context );
+
+    assertTrue( scope.isSealed() );
+    assertSame( scope, CompiledLibrary.getSharedScope( context ) );
+  }
+
+  private static void waitUntilOptimized( CompiledLibrary library ) throws InterruptedException {
+    long timeout = System.currentTimeMillis() + 10000;
+    while( !library.isOptimized() && System.currentTimeMillis() < timeout ) {
+      Thread.sleep( 10 );
+    }
+    assertTrue( library.isOptimized() );
+  }
+
+  public static class TestScript implements Script {
+
+    public Object exec( Context context, Scriptable scope ) {
+      return context.evaluateString( scope, "var a = 23;", "test", 1, null );
+    }
+
+  }
+
+}
@@ -0,0 +1,168 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Ralf Sternberg - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint.internal;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.eclipsesource.json.JsonObject;
+
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.junit.Assert.*;
+
+
+public class ConfigResolver_Test {
+
+  private File root;
+  private JsonObject defaultConfiguration;
+  private ConfigResolver resolver;
+
+  @Before
+  public void setUp() throws IOException {
+    root = File.createTempFile( "jshint-test", ".dir" );
+    root.delete();
+    root.mkdirs();
+    defaultConfiguration = new JsonObject().add( "undef", true );
+    resolver = new ConfigResolver( defaultConfiguration );
+  }
+
+  @After
+  public void tearDown() {
+    deleteDir( root );
+  }
+
+  @Test
+  public void getConfiguration_withoutConfigFile() {
+    JsonObject configuration = resolver.getConfiguration( new File( root, "a.js" ) );
+
+    assertSame( defaultConfiguration, configuration );
+  }
+
+  @Test
+  public void getConfiguration_fromSameDirectory() throws IOException {
+    createFile( ".jshintrc", "{\"eqeqeq\": true}" );
+
+    JsonObject configuration = resolver.getConfiguration( new File( root, "a.js" ) );
+
+    assertEquals( "{\"eqeqeq\":true}", configuration.toString() );
+  }
+
+  @Test
+  public void getConfiguration_fromParentDirectory() throws IOException {
+    createFile( ".jshintrc", "{\"eqeqeq\": true}" );
+
+    JsonObject configuration = resolver.getConfiguration( new File( root, "sub/sub/a.js" ) );
+
+    assertEquals( "{\"eqeqeq\":true}", configuration.toString() );
+  }
+
+  @Test
+  public void getConfiguration_prefersNearestConfigFile() throws IOException {
+    createFile( ".jshintrc", "{\"eqeqeq\": true}" );
+    createFile( "sub/.jshintrc", "{\"bitwise\": true}" );
+
+    JsonObject outer = resolver.getConfiguration( new File( root, "a.js" ) );
+    JsonObject inner = resolver.getConfiguration( new File( root, "sub/a.js" ) );
+
+    assertEquals( "{\"eqeqeq\":true}", outer.toString() );
+    assertEquals( "{\"bitwise\":true}", inner.toString() );
+  }
+
+  @Test
+  public void getConfiguration_ignoresComments() throws IOException {
+    createFile( ".jshintrc", "{\n  // comment\n  \"eqeqeq\": true /* comment */\n}" );
+
+    JsonObject configuration = resolver.getConfiguration( new File( root, "a.js" ) );
+
+    assertEquals( "{\"eqeqeq\":true}", configuration.toString() );
+  }
+
+  @Test
+  public void getConfiguration_isSharedWithinDirectoryTree() throws IOException {
+    createFile( ".jshintrc", "{\"eqeqeq\": true}" );
+
+    JsonObject configuration1 = resolver.getConfiguration( new File( root, "a.js" ) );
+    JsonObject configuration2 = resolver.getConfiguration( new File( root, "b.js" ) );
+    JsonObject configuration3 = resolver.getConfiguration( new File( root, "sub/c.js" ) );
+
+    assertSame( configuration1, configuration2 );
+    assertSame( configuration1, configuration3 );
+  }
+
+  @Test
+  public void getConfiguration_isRememberedPerDirectory() throws IOException {
+    File configFile = createFile( ".jshintrc", "{\"eqeqeq\": true}" );
+    JsonObject configuration1 = resolver.getConfiguration( new File( root, "a.js" ) );
+    configFile.delete();
+
+    JsonObject configuration2 = resolver.getConfiguration( new File( root, "b.js" ) );
+
+    assertSame( configuration1, configuration2 );
+  }
+
+  @Test
+  public void getConfiguration_withInvalidConfigFile() throws IOException {
+    createFile( ".jshintrc", "{\"eqeqeq\": }" );
+
+    try {
+      resolver.getConfiguration( new File( root, "a.js" ) );
+      fail();
+    } catch( IllegalArgumentException exception ) {
+      String expected = "Failed to read configuration file " + new File( root, ".jshintrc" );
+      assertThat( exception.getMessage(), startsWith( expected ) );
+    }
+  }
+
+  @Test
+  public void readConfiguration_withMissingFile() {
+    File file = new File( root, "missing" );
+
+    try {
+      ConfigResolver.readConfiguration( file );
+      fail();
+    } catch( IllegalArgumentException exception ) {
+      String expected = "Failed to read configuration file " + file.getAbsolutePath();
+      assertThat( exception.getMessage(), startsWith( expected ) );
+    }
+  }
+
+  private File createFile( String path, String content ) throws IOException {
+    File file = new File( root, path );
+    file.getParentFile().mkdirs();
+    FileOutputStream outputStream = new FileOutputStream( file );
+    try {
+      outputStream.write( content.getBytes( "UTF-8" ) );
+    } finally {
+      outputStream.close();
+    }
+    return file;
+  }
+
+  private static void deleteDir( File directory ) {
+    File[] files = directory.listFiles();
+    if( files != null ) {
+      for( File file : files ) {
+        if( file.isDirectory() ) {
+          deleteDir( file );
+        } else {
+          file.delete();
+        }
+      }
+    }
+    directory.delete();
+  }
+
+}
@@ -0,0 +1,166 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Ralf Sternberg - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.eclipsesource.jshint.internal.FileWalker.FileVisitor;
+
+import static org.junit.Assert.*;
+
+
+public class FileWalker_Test {
+
+  private File root;
+  private List<PathPattern> includes;
+  private List<PathPattern> excludes;
+  private List<String> visited;
+  private FileVisitor visitor;
+
+  @Before
+  public void setUp() throws IOException {
+    root = File.createTempFile( "jshint-test", ".dir" );
+    root.delete();
+    root.mkdirs();
+    includes = new ArrayList<PathPattern>();
+    excludes = new ArrayList<PathPattern>();
+    visited = new ArrayList<String>();
+    visitor = new FileVisitor() {
+      public void visitFile( File file ) {
+        String path = file.getAbsolutePath().substring( root.getAbsolutePath().length() );
+        visited.add( path.replace( File.separatorChar, '/' ) );
+      }
+    };
+  }
+
+  @After
+  public void tearDown() {
+    deleteDir( root );
+  }
+
+  @Test
+  public void walk_includesMatchingFilesInAllFolders() throws IOException {
+    createFiles( "a.js", "b.txt", "src/c.js", "src/sub/d.js" );
+    includes.add( PathPattern.create( "//*.js" ) );
+
+    walk();
+
+    assertEquals( "[/a.js, /src/c.js, /src/sub/d.js]", visited.toString() );
+  }
+
+  @Test
+  public void walk_reportsFilesInSortedOrder() throws IOException {
+    createFiles( "c.js", "a.js", "b/x.js" );
+    includes.add( PathPattern.create( "//*.js" ) );
+
+    walk();
+
+    assertEquals( "[/a.js, /b/x.js, /c.js]", visited.toString() );
+  }
+
+  @Test
+  public void walk_withExcludedFiles() throws IOException {
+    createFiles( "a.js", "a.min.js", "src/b.min.js" );
+    includes.add( PathPattern.create( "//*.js" ) );
+    excludes.add( PathPattern.create( "//*.min.js" ) );
+
+    walk();
+
+    assertEquals( "[/a.js]", visited.toString() );
+  }
+
+  @Test
+  public void walk_withExcludedFolderTree() throws IOException {
+    createFiles( "a.js", "lib/b.js", "lib/sub/c.js", "src/lib/d.js" );
+    includes.add( PathPattern.create( "//*.js" ) );
+    excludes.add( PathPattern.create( "lib//" ) );
+
+    walk();
+
+    assertEquals( "[/a.js, /src/lib/d.js]", visited.toString() );
+  }
+
+  @Test
+  public void walk_withExcludedFolderOnly() throws IOException {
+    createFiles( "lib/a.js", "lib/sub/b.js" );
+    includes.add( PathPattern.create( "//*.js" ) );
+    excludes.add( PathPattern.create( "lib/" ) );
+
+    walk();
+
+    assertEquals( "[/lib/sub/b.js]", visited.toString() );
+  }
+
+  @Test
+  public void walk_withIncludedFolder() throws IOException {
+    createFiles( "a.js", "src/b.js", "src/sub/c.js", "test/d.js" );
+    includes.add( PathPattern.create( "src//*.js" ) );
+
+    walk();
+
+    assertEquals( "[/src/b.js, /src/sub/c.js]", visited.toString() );
+  }
+
+  @Test
+  public void isTraversed_falseForFoldersOutsideIncludes() {
+    includes.add( PathPattern.create( "src//*.js" ) );
+    FileWalker walker = new FileWalker( includes, excludes );
+
+    assertTrue( walker.isTraversed( new String[] { "src" } ) );
+    assertTrue( walker.isTraversed( new String[] { "src", "sub" } ) );
+    assertFalse( walker.isTraversed( new String[] { "test" } ) );
+  }
+
+  @Test
+  public void isTraversed_falseForExcludedFolderTrees() {
+    includes.add( PathPattern.create( "//*.js" ) );
+    excludes.add( PathPattern.create( "//node_modules//" ) );
+    FileWalker walker = new FileWalker( includes, excludes );
+
+    assertTrue( walker.isTraversed( new String[] { "src" } ) );
+    assertFalse( walker.isTraversed( new String[] { "node_modules" } ) );
+    assertFalse( walker.isTraversed( new String[] { "src", "node_modules" } ) );
+  }
+
+  private void walk() {
+    new FileWalker( includes, excludes ).walk( root, visitor );
+  }
+
+  private void createFiles( String... paths ) throws IOException {
+    for( String path : paths ) {
+      File file = new File( root, path );
+      file.getParentFile().mkdirs();
+      file.createNewFile();
+    }
+  }
+
+  private static void deleteDir( File directory ) {
+    File[] files = directory.listFiles();
+    if( files != null ) {
+      for( File file : files ) {
+        if( file.isDirectory() ) {
+          deleteDir( file );
+        } else {
+          file.delete();
+        }
+      }
+    }
+    directory.delete();
+  }
+
+}
@@ -0,0 +1,228 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Ralf Sternberg - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint.internal;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.eclipsesource.jshint.internal.FileWatcher.Changes;
+
+import static org.junit.Assert.*;
+
+
+public class FileWatcher_Test {
+
+  private File root;
+  private FileWatcher watcher;
+
+  @Before
+  public void setUp() throws IOException {
+    root = File.createTempFile( "jshint-test", ".dir" );
+    root.delete();
+    root.mkdirs();
+    List<PathPattern> includes = Arrays.asList( PathPattern.create( "//*.js" ) );
+    FileWalker walker = new FileWalker( includes, Collections.<PathPattern>emptyList() );
+    watcher = new FileWatcher( Arrays.asList( root ), walker );
+  }
+
+  @After
+  public void tearDown() {
+    deleteDir( root );
+  }
+
+  @Test
+  public void scan_initiallyReportsAllFiles() throws IOException {
+    File file1 = writeFile( "a.js", "a" );
+    File file2 = writeFile( "sub/b.js", "b" );
+    writeFile( "c.txt", "c" );
+
+    Changes changes = watcher.scan();
+
+    assertEquals( set( file1, file2 ), set( changes.getChangedFiles() ) );
+    assertTrue( changes.getRemovedFiles().isEmpty() );
+  }
+
+  @Test
+  public void scan_withoutChanges() throws IOException {
+    writeFile( "a.js", "a" );
+    watcher.scan();
+
+    Changes changes = watcher.scan();
+
+    assertTrue( changes.isEmpty() );
+  }
+
+  @Test
+  public void scan_reportsModifiedFiles() throws IOException {
+    File file = writeFile( "a.js", "a" );
+    writeFile( "b.js", "b" );
+    watcher.scan();
+
+    writeFile( "a.js", "aa" );
+    Changes changes = watcher.scan();
+
+    assertEquals( Arrays.asList( file ), changes.getChangedFiles() );
+  }
+
+  @Test
+  public void scan_reportsAddedFiles() throws IOException {
+    writeFile( "a.js", "a" );
+    watcher.scan();
+
+    File file = writeFile( "sub/b.js", "b" );
+    Changes changes = watcher.scan();
+
+    assertEquals( Arrays.asList( file ), changes.getChangedFiles() );
+  }
+
+  @Test
+  public void scan_reportsRemovedFiles() throws IOException {
+    File file = writeFile( "a.js", "a" );
+    watcher.scan();
+
+    file.delete();
+    Changes changes = watcher.scan();
+
+    assertTrue( changes.getChangedFiles().isEmpty() );
+    assertEquals( Arrays.asList( file ), changes.getRemovedFiles() );
+  }
+
+  @Test
+  public void scan_withSingleFileInput() throws IOException {
+    File file = writeFile( "a.txt", "a" );
+    FileWalker walker = new FileWalker( Collections.<PathPattern>emptyList(),
+                                        Collections.<PathPattern>emptyList() );
+    watcher = new FileWatcher( Arrays.asList( file ), walker );
+    watcher.scan();
+
+    writeFile( "a.txt", "aa" );
+    Changes changes = watcher.scan();
+
+    assertEquals( Arrays.asList( file ), changes.getChangedFiles() );
+  }
+
+  @Test
+  public void waitForChanges_coalescesChanges() throws Exception {
+    final File file1 = writeFile( "a.js", "a" );
+    final File file2 = writeFile( "b.js", "b" );
+    watcher.scan();
+    Thread writer = new Thread() {
+      @Override
+      public void run() {
+        try {
+          writeFile( "a.js", "aa" );
+          Thread.sleep( 30 );
+          writeFile( "b.js", "bb" );
+        } catch( Exception exception ) {
+          throw new RuntimeException( exception );
+        }
+      }
+    };
+
+    writer.start();
+    Changes changes = watcher.waitForChanges( 50 );
+    writer.join();
+
+    assertEquals( set( file1, file2 ), set( changes.getChangedFiles() ) );
+  }
+
+  @Test( timeout = 10000 )
+  public void waitForChanges_returnsWhileFileKeepsChanging() throws Exception {
+    final File file = writeFile( "a.js", "a" );
+    watcher.scan();
+    Thread writer = new Thread() {
+      @Override
+      public void run() {
+        try {
+          StringBuilder content = new StringBuilder( "a" );
+          while( !isInterrupted() ) {
+            writeFile( "a.js", content.append( 'a' ).toString() );
+            Thread.sleep( 5 );
+          }
+        } catch( InterruptedException exception ) {
+          // stopped by the test
+        } catch( Exception exception ) {
+          throw new RuntimeException( exception );
+        }
+      }
+    };
+
+    writer.start();
+    try {
+      Changes changes = watcher.waitForChanges( 20 );
+
+      assertEquals( Arrays.asList( file ), changes.getChangedFiles() );
+    } finally {
+      writer.interrupt();
+      writer.join();
+    }
+  }
+
+  @Test
+  public void waitForChanges_fileRemovedAndRecreated() throws Exception {
+    File file = writeFile( "a.js", "a" );
+    watcher.scan();
+    file.delete();
+    Changes changes = watcher.scan();
+
+    writeFile( "a.js", "aa" );
+    changes.add( watcher.scan() );
+
+    assertEquals( Arrays.asList( file ), changes.getChangedFiles() );
+    assertTrue( changes.getRemovedFiles().isEmpty() );
+  }
+
+  private File writeFile( String path, String content ) throws IOException {
+    File file = new File( root, path );
+    file.getParentFile().mkdirs();
+    FileOutputStream outputStream = new FileOutputStream( file );
+    try {
+      outputStream.write( content.getBytes( "UTF-8" ) );
+    } finally {
+      outputStream.close();
+    }
+    return file;
+  }
+
+  private static List<File> set( File... files ) {
+    return set( Arrays.asList( files ) );
+  }
+
+  private static List<File> set( List<File> files ) {
+    List<File> sorted = new ArrayList<File>( files );
+    Collections.sort( sorted );
+    return sorted;
+  }
+
+  private static void deleteDir( File directory ) {
+    File[] files = directory.listFiles();
+    if( files != null ) {
+      for( File file : files ) {
+        if( file.isDirectory() ) {
+          deleteDir( file );
+        } else {
+          file.delete();
+        }
+      }
+    }
+    directory.delete();
+  }
+
+}
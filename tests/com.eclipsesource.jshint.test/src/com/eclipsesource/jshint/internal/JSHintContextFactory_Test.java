@@ -0,0 +1,55 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Ralf Sternberg - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint.internal;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mozilla.javascript.Context;
+
+import static org.junit.Assert.*;
+
+
+public class JSHintContextFactory_Test {
+
+  private Context context;
+
+  @Before
+  public void setUp() {
+    context = JSHintContextFactory.getInstance().enterContext();
+  }
+
+  @After
+  public void tearDown() {
+    Context.exit();
+  }
+
+  @Test
+  public void getInstance_returnsSameInstance() {
+    assertSame( JSHintContextFactory.getInstance(), JSHintContextFactory.getInstance() );
+  }
+
+  @Test
+  public void enterContext_presetsOptimizationLevel() {
+    assertEquals( 9, context.getOptimizationLevel() );
+  }
+
+  @Test
+  public void enterContext_presetsLanguageVersion() {
+    assertEquals( Context.VERSION_1_5, context.getLanguageVersion() );
+  }
+
+  @Test
+  public void enterContext_disablesE4X() {
+    assertFalse( context.hasFeature( Context.FEATURE_E4X ) );
+  }
+
+}
@@ -0,0 +1,306 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Ralf Sternberg - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint.internal;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.eclipsesource.jshint.JSHintPool;
+
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.junit.Assert.*;
+
+
+public class JSHintDaemon_Test {
+
+  private static final String LINE_SEPARATOR = System.getProperty( "line.separator" );
+
+  private File tmpDir;
+  private File tokenDirectory;
+  private JSHintDaemon daemon;
+  private Thread serverThread;
+  private int port;
+  private ByteArrayOutputStream output;
+
+  @Before
+  public void setUp() throws Exception {
+    JSHintPool pool = new JSHintPool( 2 );
+    pool.load();
+    tmpDir = createTmpDir();
+    tokenDirectory = new File( tmpDir, "tokens" );
+    daemon = new JSHintDaemon( pool, "jshint:test", tokenDirectory );
+    port = daemon.bind( 0 );
+    serverThread = new Thread() {
+      @Override
+      public void run() {
+        try {
+          daemon.serve();
+        } catch( IOException exception ) {
+          throw new RuntimeException( exception );
+        }
+      }
+    };
+    serverThread.start();
+    output = new ByteArrayOutputStream();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    daemon.stop();
+    serverThread.join( 5000 );
+    deleteDir( tmpDir );
+  }
+
+  @Test
+  public void bind_choosesFreePort() {
+    assertTrue( port > 0 );
+  }
+
+  @Test
+  public void bind_writesTokenFile() throws Exception {
+    File tokenFile = JSHintDaemon.getTokenFile( tokenDirectory, port );
+
+    assertTrue( tokenFile.isFile() );
+    assertTrue( JSHintDaemon.readToken( tokenFile ).matches( "[0-9a-f]{64}" ) );
+  }
+
+  @Test
+  public void bind_createsNewTokenForEveryDaemon() throws Exception {
+    JSHintDaemon daemon2 = new JSHintDaemon( new JSHintPool( 1 ), "jshint:test", tokenDirectory );
+    int port2 = daemon2.bind( 0 );
+    try {
+      String token1 = JSHintDaemon.readToken( JSHintDaemon.getTokenFile( tokenDirectory, port ) );
+      String token2 = JSHintDaemon.readToken( JSHintDaemon.getTokenFile( tokenDirectory, port2 ) );
+
+      assertFalse( token1.equals( token2 ) );
+    } finally {
+      daemon2.stop();
+    }
+  }
+
+  @Test
+  public void stop_deletesTokenFile() throws Exception {
+    daemon.stop();
+    serverThread.join( 5000 );
+
+    assertFalse( JSHintDaemon.getTokenFile( tokenDirectory, port ).exists() );
+  }
+
+  @Test
+  public void stop_terminatesServe() throws Exception {
+    daemon.stop();
+    serverThread.join( 5000 );
+
+    assertFalse( serverThread.isAlive() );
+  }
+
+  @Test
+  public void send_checksFiles() throws Exception {
+    File file = createTmpFile( "a = 1;" );
+
+    send( file.getAbsolutePath() );
+
+    String expected = "Problem in file " + file.getAbsolutePath() + " at line 1: "
+                      + "'a' is not defined" + LINE_SEPARATOR;
+    assertEquals( expected, getOutput() );
+  }
+
+  @Test
+  public void send_withReporter() throws Exception {
+    File file = createTmpFile( "a = 1;" );
+
+    send( "--reporter", "jsonl", file.getAbsolutePath() );
+
+    assertThat( getOutput(), startsWith( "{\"file\":" ) );
+  }
+
+  @Test
+  public void send_multipleRequests() throws Exception {
+    File file1 = createTmpFile( "a = 1;" );
+    File file2 = createTmpFile( "var b = 2;" );
+
+    send( file1.getAbsolutePath() );
+    send( file2.getAbsolutePath() );
+    send( file1.getAbsolutePath() );
+
+    String expected = "Problem in file " + file1.getAbsolutePath() + " at line 1: "
+                      + "'a' is not defined" + LINE_SEPARATOR;
+    assertEquals( expected + expected, getOutput() );
+  }
+
+  @Test
+  public void send_withInvalidArguments() throws Exception {
+    send( "--threads", "foo" );
+
+    assertThat( getOutput(), startsWith( "Invalid number of threads: foo" ) );
+  }
+
+  @Test
+  public void send_withCustomLibrary() throws Exception {
+    send( "--custom", "/foo/jshint.js", "/foo/test.js" );
+
+    assertThat( getOutput(), startsWith( "Not supported by the daemon: --custom" ) );
+  }
+
+  @Test( timeout = 5000 )
+  public void send_whileOtherClientIsIdle() throws Exception {
+    File file = createTmpFile( "var a = 1;" );
+    Socket idleSocket = new Socket( InetAddress.getByName( "127.0.0.1" ), port );
+    try {
+      send( file.getAbsolutePath() );
+    } finally {
+      idleSocket.close();
+    }
+
+    assertEquals( "", getOutput() );
+  }
+
+  @Test
+  public void send_withoutToken() throws Exception {
+    Socket socket = new Socket( InetAddress.getByName( "127.0.0.1" ), port );
+    try {
+      OutputStream outputStream = socket.getOutputStream();
+      outputStream.write( "/foo/test.js\n\n".getBytes( "UTF-8" ) );
+      outputStream.flush();
+      BufferedReader reader
+        = new BufferedReader( new InputStreamReader( socket.getInputStream(), "UTF-8" ) );
+
+      assertEquals( "Request rejected by JSHint daemon: invalid token", reader.readLine() );
+    } finally {
+      socket.close();
+    }
+  }
+
+  @Test
+  public void send_withCacheFile() throws Exception {
+    send( "--cache", new File( tmpDir, "cache" ).getAbsolutePath(), "/foo/test.js" );
+
+    assertThat( getOutput(), startsWith( "Not supported by the daemon: --cache" ) );
+    assertFalse( new File( tmpDir, "cache" ).exists() );
+  }
+
+  @Test
+  public void send_withStatsFile() throws Exception {
+    send( "--stats-json", new File( tmpDir, "stats" ).getAbsolutePath(), "/foo/test.js" );
+
+    assertThat( getOutput(), startsWith( "Not supported by the daemon: --stats-json" ) );
+    assertFalse( new File( tmpDir, "stats" ).exists() );
+  }
+
+  @Test
+  public void send_withInvalidToken() throws Exception {
+    File file = createTmpFile( "a = 1;" );
+    writeFile( JSHintDaemon.getTokenFile( tokenDirectory, port ), "foo\n" );
+
+    send( file.getAbsolutePath() );
+
+    assertEquals( "Request rejected by JSHint daemon: invalid token" + LINE_SEPARATOR,
+                  getOutput() );
+  }
+
+  @Test
+  public void send_withoutTokenFile() throws Exception {
+    File tokenFile = JSHintDaemon.getTokenFile( tokenDirectory, port );
+    tokenFile.delete();
+
+    try {
+      send( "/foo/test.js" );
+      fail();
+    } catch( IllegalArgumentException exception ) {
+      String expected = "Cannot read token of JSHint daemon on port " + port + " from "
+                        + tokenFile.getAbsolutePath();
+      assertEquals( expected, exception.getMessage() );
+    }
+  }
+
+  @Test
+  public void send_withEmptyArgument() throws Exception {
+    try {
+      send( "" );
+      fail();
+    } catch( IllegalArgumentException exception ) {
+      assertEquals( "Argument not supported by the daemon: ''", exception.getMessage() );
+    }
+  }
+
+  @Test
+  public void send_withoutDaemon() throws Exception {
+    daemon.stop();
+    serverThread.join( 5000 );
+
+    try {
+      send( "/foo/test.js" );
+      fail();
+    } catch( IllegalArgumentException exception ) {
+      assertEquals( "Cannot connect to JSHint daemon on port " + port, exception.getMessage() );
+    }
+  }
+
+  private void send( String... args ) throws IOException {
+    PrintStream out = new PrintStream( output, true, "UTF-8" );
+    new JSHintClient( port, tokenDirectory ).send( Arrays.asList( args ), out );
+  }
+
+  private String getOutput() throws IOException {
+    return output.toString( "UTF-8" );
+  }
+
+  private static File createTmpFile( String content ) throws IOException {
+    File file = File.createTempFile( "jshint-test", ".js" );
+    file.deleteOnExit();
+    writeFile( file, content );
+    return file;
+  }
+
+  private static void writeFile( File file, String content ) throws IOException {
+    FileOutputStream outputStream = new FileOutputStream( file );
+    try {
+      outputStream.write( content.getBytes( "UTF-8" ) );
+    } finally {
+      outputStream.close();
+    }
+  }
+
+  private static File createTmpDir() throws IOException {
+    File file = File.createTempFile( "jshint-test", ".dir" );
+    file.delete();
+    file.mkdirs();
+    return file;
+  }
+
+  private static void deleteDir( File directory ) {
+    File[] files = directory.listFiles();
+    if( files != null ) {
+      for( File file : files ) {
+        if( file.isDirectory() ) {
+          deleteDir( file );
+        } else {
+          file.delete();
+        }
+      }
+    }
+    directory.delete();
+  }
+
+}
@@ -18,15 +18,27 @@ import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.PrintStream;
 import java.io.UnsupportedEncodingException;
+import java.net.ServerSocket;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.eclipsesource.jshint.Text;
+import com.eclipsesource.json.JsonObject;
+import com.eclipsesource.json.JsonValue;
+
 import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.startsWith;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 
 
 public class JSHintRunner_Test {
@@ -170,6 +182,426 @@ public class JSHintRunner_Test {
     assertThat( getSysout(), startsWith( expected ) );
   }
 
+  @Test
+  public void threads() throws Exception {
+    JSHintRunner runner = new JSHintRunner();
+    File file1 = createTmpFile( "a = 1;", "UTF-8" );
+    File file2 = createTmpFile( "var b = 2;", "UTF-8" );
+    File file3 = createTmpFile( "c = 3;", "UTF-8" );
+
+    runner.run( "--threads", "2", file1.getAbsolutePath(), file2.getAbsolutePath(),
+                file3.getAbsolutePath() );
+
+    String expected = "Problem in file " + file1.getAbsolutePath() + " at line 1: "
+                      + "'a' is not defined" + LINE_SEPARATOR
+                      + "Problem in file " + file3.getAbsolutePath() + " at line 1: "
+                      + "'c' is not defined" + LINE_SEPARATOR;
+    assertEquals( expected, getSysout() );
+  }
+
+  @Test
+  public void threads_keepsInputOrder() throws Exception {
+    JSHintRunner runner = new JSHintRunner();
+    List<String> args = new ArrayList<String>();
+    args.add( "--threads" );
+    args.add( "4" );
+    StringBuilder expected = new StringBuilder();
+    for( int i = 0; i < 20; i++ ) {
+      File file = createTmpFile( "x" + i + " = " + i + ";", "UTF-8" );
+      args.add( file.getAbsolutePath() );
+      expected.append( "Problem in file " + file.getAbsolutePath() + " at line 1: 'x" + i
+                       + "' is not defined" + LINE_SEPARATOR );
+    }
+
+    runner.run( args.toArray( new String[ args.size() ] ) );
+
+    assertEquals( expected.toString(), getSysout() );
+  }
+
+  @Test
+  public void threads_invalidNumber() throws Exception {
+    JSHintRunner runner = new JSHintRunner();
+    File file = createTmpFile( "var a = 23;", "UTF-8" );
+
+    runner.run( "--threads", "0", file.getAbsolutePath() );
+
+    assertThat( getSysout(), startsWith( "Invalid number of threads: 0" ) );
+  }
+
+  @Test
+  public void threads_notANumber() throws Exception {
+    JSHintRunner runner = new JSHintRunner();
+    File file = createTmpFile( "var a = 23;", "UTF-8" );
+
+    runner.run( "--threads", "many", file.getAbsolutePath() );
+
+    assertThat( getSysout(), startsWith( "Invalid number of threads: many" ) );
+  }
+
+  @Test
+  public void directory() throws Exception {
+    JSHintRunner runner = new JSHintRunner();
+    File directory = createTmpDir();
+    File file1 = createFile( directory, "a.js", "a = 1;" );
+    createFile( directory, "b.txt", "b = 2;" );
+    File file2 = createFile( directory, "sub/c.js", "c = 3;" );
+
+    runner.run( directory.getAbsolutePath() );
+
+    String expected = "Problem in file " + file1.getAbsolutePath() + " at line 1: "
+                      + "'a' is not defined" + LINE_SEPARATOR
+                      + "Problem in file " + file2.getAbsolutePath() + " at line 1: "
+                      + "'c' is not defined" + LINE_SEPARATOR;
+    assertEquals( expected, getSysout() );
+  }
+
+  @Test
+  public void directory_withIncludeAndExclude() throws Exception {
+    JSHintRunner runner = new JSHintRunner();
+    File directory = createTmpDir();
+    createFile( directory, "a.js", "a = 1;" );
+    File file = createFile( directory, "b.txt", "b = 2;" );
+    createFile( directory, "lib/c.txt", "c = 3;" );
+
+    runner.run( "--include", "//*.txt", "--exclude", "lib//", directory.getAbsolutePath() );
+
+    String expected = "Problem in file " + file.getAbsolutePath() + " at line 1: "
+                      + "'b' is not defined" + LINE_SEPARATOR;
+    assertEquals( expected, getSysout() );
+  }
+
+  @Test
+  public void invalidPattern() throws Exception {
+    JSHintRunner runner = new JSHintRunner();
+    File directory = createTmpDir();
+
+    runner.run( "--include", "src///", directory.getAbsolutePath() );
+
+    assertThat( getSysout(), startsWith( "Invalid pattern: src///" ) );
+  }
+
+  @Test
+  public void configFile() throws Exception {
+    JSHintRunner runner = new JSHintRunner();
+    File directory = createTmpDir();
+    File file = createFile( directory, "a.js", "if (a == null) {}" );
+    File config = createFile( directory, "config.json", "{\"eqnull\": false}" );
+
+    runner.run( "--config", config.getAbsolutePath(), file.getAbsolutePath() );
+
+    assertThat( getSysout(), startsWith( "Problem in file " + file.getAbsolutePath()
+                                         + " at line 1: Use '===' to compare with 'null'" ) );
+  }
+
+  @Test
+  public void configFile_overridesJshintrc() throws Exception {
+    JSHintRunner runner = new JSHintRunner();
+    File directory = createTmpDir();
+    File file = createFile( directory, "a.js", "a = 1;" );
+    createFile( directory, ".jshintrc", "{\"undef\": true}" );
+    File config = createFile( directory, "config.json", "{}" );
+
+    runner.run( "--config", config.getAbsolutePath(), file.getAbsolutePath() );
+
+    assertEquals( "", getSysout() );
+  }
+
+  @Test
+  public void configFile_missing() throws Exception {
+    JSHintRunner runner = new JSHintRunner();
+    File file = createTmpFile( "", "UTF-8" );
+
+    runner.run( "--config", "/nowhere/missing.json", file.getAbsolutePath() );
+
+    assertThat( getSysout(), startsWith( "No such file: /nowhere/missing.json" ) );
+  }
+
+  @Test
+  public void configFile_invalid() throws Exception {
+    JSHintRunner runner = new JSHintRunner();
+    File directory = createTmpDir();
+    File file = createFile( directory, "a.js", "" );
+    File config = createFile( directory, "config.json", "{ foo" );
+
+    runner.run( "--config", config.getAbsolutePath(), file.getAbsolutePath() );
+
+    String expected = "Failed to read configuration file " + config.getAbsolutePath();
+    assertThat( getSysout(), startsWith( expected ) );
+  }
+
+  @Test
+  public void jshintrc_nearestFileIsUsed() throws Exception {
+    JSHintRunner runner = new JSHintRunner();
+    File directory = createTmpDir();
+    createFile( directory, ".jshintrc", "{ // no undef\n}" );
+    createFile( directory, "a.js", "a = 1;" );
+    createFile( directory, "sub/.jshintrc", "{\"undef\": true}" );
+    File file = createFile( directory, "sub/b.js", "b = 2;" );
+
+    runner.run( directory.getAbsolutePath() );
+
+    String expected = "Problem in file " + file.getAbsolutePath() + " at line 1: "
+                      + "'b' is not defined" + LINE_SEPARATOR;
+    assertEquals( expected, getSysout() );
+  }
+
+  @Test
+  public void reporter_jsonLines() throws Exception {
+    JSHintRunner runner = new JSHintRunner();
+    File file = createTmpFile( "a = 1;", "UTF-8" );
+
+    runner.run( "--reporter", "jsonl", file.getAbsolutePath() );
+
+    String expected = "{\"file\":" + JsonValue.valueOf( file.getAbsolutePath() ) + ","
+                      + "\"line\":1,\"character\":0,\"code\":\"W117\","
+                      + "\"message\":\"'a' is not defined\"}\n";
+    assertEquals( expected, getSysout() );
+  }
+
+  @Test
+  public void reporter_checkstyle() throws Exception {
+    JSHintRunner runner = new JSHintRunner();
+    File file = createTmpFile( "a = 1;", "UTF-8" );
+
+    runner.run( "--reporter", "checkstyle", file.getAbsolutePath() );
+
+    assertThat( getSysout(), startsWith( "<?xml" ) );
+    assertThat( getSysout(), containsString( "source=\"jshint.W117\"" ) );
+  }
+
+  @Test
+  public void reporter_unknown() throws Exception {
+    JSHintRunner runner = new JSHintRunner();
+    File file = createTmpFile( "", "UTF-8" );
+
+    runner.run( "--reporter", "foo", file.getAbsolutePath() );
+
+    assertThat( getSysout(), startsWith( "Unknown reporter: foo" ) );
+  }
+
+  @Test
+  public void connect_withoutDaemon() throws Exception {
+    JSHintRunner runner = new JSHintRunner();
+    ServerSocket socket = new ServerSocket( 0 );
+    int port = socket.getLocalPort();
+    socket.close();
+    File file = createTmpFile( "", "UTF-8" );
+
+    runner.run( "--connect", Integer.toString( port ), file.getAbsolutePath() );
+
+    assertThat( getSysout(), startsWith( "Cannot connect to JSHint daemon on port " + port ) );
+  }
+
+  @Test
+  public void daemon_invalidPort() throws Exception {
+    JSHintRunner runner = new JSHintRunner();
+
+    runner.run( "--daemon", "foo" );
+
+    assertThat( getSysout(), startsWith( "Invalid port: foo" ) );
+  }
+
+  @Test
+  public void watch_reportsDelta() throws Exception {
+    final JSHintRunner runner = new JSHintRunner();
+    File directory = createTmpDir();
+    final File file = createFile( directory, "a.js", "a = 1;" );
+    Thread thread = new Thread() {
+      @Override
+      public void run() {
+        runner.run( "--watch", file.getParentFile().getAbsolutePath() );
+      }
+    };
+    thread.start();
+    try {
+      waitForSysout( "Watching for changes" );
+
+      createFile( directory, "a.js", "b = 1; // changed" );
+      waitForSysout( "Checked 1 changed files" );
+    } finally {
+      thread.interrupt();
+      thread.join( 5000 );
+    }
+
+    String path = file.getAbsolutePath();
+    String expected = "Problem in file " + path + " at line 1: 'a' is not defined" + LINE_SEPARATOR
+                      + "Watching for changes" + LINE_SEPARATOR
+                      + "Problem in file " + path + " at line 1: 'b' is not defined"
+                      + LINE_SEPARATOR
+                      + "Resolved in file " + path + " at line 1: 'a' is not defined"
+                      + LINE_SEPARATOR
+                      + "Checked 1 changed files" + LINE_SEPARATOR;
+    assertEquals( expected, getSysout() );
+    assertFalse( thread.isAlive() );
+  }
+
+  @Test
+  public void cache() throws Exception {
+    File directory = createTmpDir();
+    File file = createFile( directory, "a.js", "a = 1;" );
+    File cacheFile = new File( directory, "cache" );
+    cacheFile.deleteOnExit();
+    new JSHintRunner().run( "--cache", cacheFile.getAbsolutePath(), file.getAbsolutePath() );
+    String firstOutput = getSysout();
+    sysout.reset();
+
+    new JSHintRunner().run( "--cache", cacheFile.getAbsolutePath(), file.getAbsolutePath() );
+
+    assertTrue( cacheFile.exists() );
+    assertEquals( firstOutput, getSysout() );
+  }
+
+  @Test
+  public void cache_hitDoesNotCheckAgain() throws Exception {
+    File directory = createTmpDir();
+    File file = createFile( directory, "a.js", "a = 1;" );
+    File cacheFile = new File( directory, "cache" );
+    cacheFile.deleteOnExit();
+    new JSHintRunner().run( "--cache", cacheFile.getAbsolutePath(), file.getAbsolutePath() );
+    String cacheContent = readFile( cacheFile ).replace( "is not defined", "from cache" );
+    createFile( directory, "cache", cacheContent );
+    sysout.reset();
+
+    new JSHintRunner().run( "--cache", cacheFile.getAbsolutePath(), file.getAbsolutePath() );
+
+    assertThat( getSysout(), containsString( "'a' from cache" ) );
+  }
+
+  @Test
+  public void cache_missAfterChange() throws Exception {
+    File directory = createTmpDir();
+    File file = createFile( directory, "a.js", "a = 1;" );
+    File cacheFile = new File( directory, "cache" );
+    cacheFile.deleteOnExit();
+    new JSHintRunner().run( "--cache", cacheFile.getAbsolutePath(), file.getAbsolutePath() );
+    createFile( directory, "a.js", "b = 1;" );
+    sysout.reset();
+
+    new JSHintRunner().run( "--cache", cacheFile.getAbsolutePath(), file.getAbsolutePath() );
+
+    assertThat( getSysout(), containsString( "'b' is not defined" ) );
+  }
+
+  @Test
+  public void stats() throws Exception {
+    JSHintRunner runner = new JSHintRunner();
+    File file = createTmpFile( "a = 1;", "UTF-8" );
+
+    runner.run( "--stats", file.getAbsolutePath() );
+
+    assertThat( getSysout(), containsString( "'a' is not defined" ) );
+    assertThat( getSysout(), containsString( "Checked 1 files in " ) );
+    assertThat( getSysout(), containsString( "Slowest files:" ) );
+  }
+
+  @Test
+  public void statsJson() throws Exception {
+    JSHintRunner runner = new JSHintRunner();
+    File directory = createTmpDir();
+    File file = createFile( directory, "a.js", "a = 1;" );
+    File statsFile = new File( directory, "stats.json" );
+    statsFile.deleteOnExit();
+
+    runner.run( "--stats-json", statsFile.getAbsolutePath(), file.getAbsolutePath() );
+
+    JsonObject stats = JsonObject.readFrom( readFile( statsFile ) );
+    assertEquals( 1, stats.get( "fileCount" ).asInt() );
+    assertThat( getSysout(), not( containsString( "Checked" ) ) );
+  }
+
+  @Test
+  public void shard_partitionsFiles() throws Exception {
+    File directory = createTmpDir();
+    for( int i = 0; i < 8; i++ ) {
+      createFile( directory, "sub" + i % 2 + "/file" + i + ".js", "a" + i + " = 1;" );
+    }
+    List<String> expected = runAndGetLines( directory.getAbsolutePath() );
+
+    List<String> shard1 = runAndGetLines( "--shard", "1/2", directory.getAbsolutePath() );
+    List<String> shard2 = runAndGetLines( "--shard", "2/2", directory.getAbsolutePath() );
+
+    assertEquals( expected, merge( expected, shard1, shard2 ) );
+  }
+
+  @Test
+  public void shard_bySize() throws Exception {
+    File directory = createTmpDir();
+    createFile( directory, "a.js", "a = 1;" );
+    createFile( directory, "b.js", "b = 1; b = 2; b = 3; b = 4;" );
+    createFile( directory, "c.js", "c = 1;" );
+    List<String> expected = runAndGetLines( directory.getAbsolutePath() );
+
+    String path = directory.getAbsolutePath();
+    List<String> shard1 = runAndGetLines( "--shard", "1/2", "--shard-by-size", path );
+    List<String> shard2 = runAndGetLines( "--shard", "2/2", "--shard-by-size", path );
+
+    assertEquals( expected, merge( expected, shard1, shard2 ) );
+    assertEquals( 4, shard1.size() );
+  }
+
+  @Test
+  public void shard_invalid() throws Exception {
+    JSHintRunner runner = new JSHintRunner();
+    File file = createTmpFile( "var a = 23;", "UTF-8" );
+
+    runner.run( "--shard", "3/2", file.getAbsolutePath() );
+
+    assertThat( getSysout(), startsWith( "Invalid shard: 3/2" ) );
+  }
+
+  @Test
+  public void shardBySize_withoutShard() throws Exception {
+    JSHintRunner runner = new JSHintRunner();
+    File file = createTmpFile( "var a = 23;", "UTF-8" );
+
+    runner.run( "--shard-by-size", file.getAbsolutePath() );
+
+    assertThat( getSysout(), startsWith( "--shard-by-size requires --shard" ) );
+  }
+
+  private List<String> runAndGetLines( String... args ) {
+    sysout.reset();
+    new JSHintRunner().run( args );
+    String[] lines = getSysout().split( LINE_SEPARATOR );
+    List<String> result = new ArrayList<String>( Arrays.asList( lines ) );
+    result.remove( "" );
+    return result;
+  }
+
+  /*
+   * Merges the output of two shards by the order of the lines in the expected output. Both shards
+   * must report their lines in the same order as a single run.
+   */
+  private static List<String> merge( List<String> order,
+                                     List<String> shard1,
+                                     List<String> shard2 )
+  {
+    List<String> result = new ArrayList<String>();
+    int position1 = 0;
+    int position2 = 0;
+    for( String line : order ) {
+      if( position1 < shard1.size() && shard1.get( position1 ).equals( line ) ) {
+        result.add( line );
+        position1++;
+      }
+      if( position2 < shard2.size() && shard2.get( position2 ).equals( line ) ) {
+        result.add( line );
+        position2++;
+      }
+    }
+    result.addAll( shard1.subList( position1, shard1.size() ) );
+    result.addAll( shard2.subList( position2, shard2.size() ) );
+    return result;
+  }
+
+  private void waitForSysout( String expected ) throws InterruptedException {
+    long timeout = System.currentTimeMillis() + 10000;
+    while( !getSysout().contains( expected ) && System.currentTimeMillis() < timeout ) {
+      Thread.sleep( 20 );
+    }
+    assertThat( getSysout(), containsString( expected ) );
+  }
+
   private String getSysout() {
     try {
       return sysout.toString( SYSOUT_ENCODING );
@@ -178,6 +610,34 @@ public class JSHintRunner_Test {
     }
   }
 
+  private static String readFile( File file ) throws IOException {
+    return new Text( file, Charset.forName( "UTF-8" ) ).getContent();
+  }
+
+  private static File createTmpDir() throws IOException {
+    File directory = File.createTempFile( "jshint-test", ".dir" );
+    directory.delete();
+    directory.mkdirs();
+    directory.deleteOnExit();
+    return directory;
+  }
+
+  private static File createFile( File directory, String path, String content )
+    throws IOException
+  {
+    File file = new File( directory, path );
+    file.getParentFile().mkdirs();
+    FileOutputStream outputStream = new FileOutputStream( file );
+    try {
+      outputStream.write( content.getBytes( "UTF-8" ) );
+    } finally {
+      outputStream.close();
+    }
+    file.deleteOnExit();
+    file.getParentFile().deleteOnExit();
+    return file;
+  }
+
   private static File createTmpFile( String content, String charset ) throws IOException {
     File file = File.createTempFile( "jshint-test", ".tmp" );
     FileOutputStream outputStream = new FileOutputStream( file );
@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Ralf Sternberg - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint.internal;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mozilla.javascript.Context;
+import org.mozilla.javascript.NativeArray;
+import org.mozilla.javascript.NativeObject;
+import org.mozilla.javascript.Scriptable;
+
+import com.eclipsesource.json.JsonArray;
+import com.eclipsesource.json.JsonObject;
+import com.eclipsesource.json.JsonValue;
+
+import static org.junit.Assert.*;
+
+
+public class JsonConverter_Test {
+
+  private Context context;
+  private Scriptable scope;
+
+  @Before
+  public void setUp() {
+    context = Context.enter();
+    scope = context.initStandardObjects();
+  }
+
+  @After
+  public void tearDown() {
+    Context.exit();
+  }
+
+  @Test
+  public void toJavaScript_literals() {
+    assertNull( convert( JsonValue.NULL ) );
+    assertEquals( Boolean.TRUE, convert( JsonValue.TRUE ) );
+    assertEquals( Boolean.FALSE, convert( JsonValue.FALSE ) );
+  }
+
+  @Test
+  public void toJavaScript_string() {
+    assertEquals( "foo", convert( JsonValue.valueOf( "foo" ) ) );
+  }
+
+  @Test
+  public void toJavaScript_number() {
+    assertEquals( Double.valueOf( 23.5 ), convert( JsonValue.valueOf( 23.5 ) ) );
+  }
+
+  @Test
+  public void toJavaScript_object() {
+    JsonObject object = new JsonObject().add( "a", 23 ).add( "b", "foo" );
+
+    Object result = convert( object );
+
+    assertTrue( result instanceof NativeObject );
+    assertEquals( "{\"a\":23,\"b\":\"foo\"}", stringify( result ) );
+  }
+
+  @Test
+  public void toJavaScript_objectWithIndexNames() {
+    JsonObject object = new JsonObject().add( "0", true ).add( "01", false );
+
+    Object result = convert( object );
+
+    assertEquals( Boolean.TRUE, evaluate( result, "value[0]" ) );
+    assertEquals( Boolean.FALSE, evaluate( result, "value['01']" ) );
+  }
+
+  @Test
+  public void toJavaScript_array() {
+    JsonArray array = new JsonArray().add( 1 ).add( "foo" ).add( new JsonArray() );
+
+    Object result = convert( array );
+
+    assertTrue( result instanceof NativeArray );
+    assertEquals( "[1,\"foo\",[]]", stringify( result ) );
+  }
+
+  @Test
+  public void toJavaScript_nested() {
+    JsonObject object = new JsonObject().add( "a", new JsonObject().add( "b", new JsonArray() ) );
+
+    Object result = convert( object );
+
+    assertEquals( "{\"a\":{\"b\":[]}}", stringify( result ) );
+  }
+
+  private Object convert( JsonValue value ) {
+    return JsonConverter.toJavaScript( context, scope, value );
+  }
+
+  private String stringify( Object value ) {
+    return Context.toString( evaluate( value, "JSON.stringify( value )" ) );
+  }
+
+  private Object evaluate( Object value, String expression ) {
+    scope.put( "value", scope, value );
+    return context.evaluateString( scope, expression, "test", 1, null );
+  }
+
+}
@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Ralf Sternberg - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint.internal;
+
+import java.io.StringWriter;
+import java.io.Writer;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+public class OutputBuffer_Test {
+
+  private StringWriter target;
+  private OutputBuffer buffer;
+
+  @Before
+  public void setUp() {
+    target = new StringWriter();
+    buffer = new OutputBuffer( target, 4 );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void create_withInvalidSize() {
+    new OutputBuffer( target, 0 );
+  }
+
+  @Test
+  public void write_isBuffered() throws Exception {
+    buffer.write( "foo" );
+
+    assertEquals( "", target.toString() );
+  }
+
+  @Test
+  public void flush_writesBufferedChars() throws Exception {
+    buffer.write( "fo" );
+    buffer.write( 'o' );
+
+    buffer.flush();
+
+    assertEquals( "foo", target.toString() );
+  }
+
+  @Test
+  public void write_exceedingBuffer_writesBufferedChars() throws Exception {
+    buffer.write( "foo" );
+    buffer.write( "ba" );
+
+    assertEquals( "foo", target.toString() );
+  }
+
+  @Test
+  public void write_exceedingBufferByChar() throws Exception {
+    buffer.write( "abcd" );
+    buffer.write( 'e' );
+    buffer.flush();
+
+    assertEquals( "abcde", target.toString() );
+  }
+
+  @Test
+  public void write_largerThanBuffer() throws Exception {
+    buffer.write( "ab" );
+    buffer.write( "cdefgh" );
+
+    assertEquals( "abcdefgh", target.toString() );
+  }
+
+  @Test
+  public void write_substring() throws Exception {
+    buffer.write( "foobar", 1, 3 );
+    buffer.flush();
+
+    assertEquals( "oob", target.toString() );
+  }
+
+  @Test
+  public void write_charArray() throws Exception {
+    buffer.write( "foobar".toCharArray(), 3, 3 );
+    buffer.write( "foobar".toCharArray(), 0, 6 );
+    buffer.flush();
+
+    assertEquals( "barfoobar", target.toString() );
+  }
+
+  @Test
+  public void close_flushesAndClosesTarget() throws Exception {
+    final boolean[] closed = new boolean[ 1 ];
+    Writer writer = new StringWriter() {
+      @Override
+      public void close() {
+        closed[ 0 ] = true;
+      }
+    };
+    buffer = new OutputBuffer( writer );
+    buffer.write( "foo" );
+
+    buffer.close();
+
+    assertEquals( "foo", writer.toString() );
+    assertTrue( closed[ 0 ] );
+  }
+
+}
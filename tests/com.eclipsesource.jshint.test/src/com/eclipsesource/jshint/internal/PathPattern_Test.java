@@ -8,7 +8,7 @@
  * Contributors:
  *    Ralf Sternberg initial implementation and API
  ******************************************************************************/
-package com.eclipsesource.jshint.ui.internal.preferences;
+package com.eclipsesource.jshint.internal;
 
 import java.util.Arrays;
 
@@ -186,6 +186,78 @@ public class PathPattern_Test {
     assertCreateFailsWithTooManySuccessiveSlashes( "foo///bar" );
   }
 
+  @Test
+  public void matchesFolderPrefix_withFixedPath() {
+    PathPattern pattern = PathPattern.create( "src/js/*.js" );
+
+    assertTrue( pattern.matchesFolderPrefix() );
+    assertTrue( pattern.matchesFolderPrefix( "src" ) );
+    assertTrue( pattern.matchesFolderPrefix( "src", "js" ) );
+
+    assertFalse( pattern.matchesFolderPrefix( "lib" ) );
+    assertFalse( pattern.matchesFolderPrefix( "src", "css" ) );
+    assertFalse( pattern.matchesFolderPrefix( "src", "js", "foo" ) );
+  }
+
+  @Test
+  public void matchesFolderPrefix_withDoubleSlash() {
+    PathPattern pattern = PathPattern.create( "src//*.js" );
+
+    assertTrue( pattern.matchesFolderPrefix( "src" ) );
+    assertTrue( pattern.matchesFolderPrefix( "src", "foo", "bar" ) );
+
+    assertFalse( pattern.matchesFolderPrefix( "lib", "src" ) );
+  }
+
+  @Test
+  public void matchesFolderPrefix_withLeadingDoubleSlash() {
+    PathPattern pattern = PathPattern.create( "//*.js" );
+
+    assertTrue( pattern.matchesFolderPrefix() );
+    assertTrue( pattern.matchesFolderPrefix( "foo", "bar" ) );
+  }
+
+  @Test
+  public void matchesFolderPrefix_withFileOnlyPattern() {
+    PathPattern pattern = PathPattern.create( "*.js" );
+
+    assertTrue( pattern.matchesFolderPrefix() );
+
+    assertFalse( pattern.matchesFolderPrefix( "foo" ) );
+  }
+
+  @Test
+  public void matchesFolderTree_withTrailingDoubleSlash() {
+    PathPattern pattern = PathPattern.create( "lib//" );
+
+    assertTrue( pattern.matchesFolderTree( "lib" ) );
+    assertTrue( pattern.matchesFolderTree( "lib", "foo" ) );
+
+    assertFalse( pattern.matchesFolderTree() );
+    assertFalse( pattern.matchesFolderTree( "src" ) );
+  }
+
+  @Test
+  public void matchesFolderTree_withNestedFolderPattern() {
+    PathPattern pattern = PathPattern.create( "//node_modules//" );
+
+    assertTrue( pattern.matchesFolderTree( "node_modules" ) );
+    assertTrue( pattern.matchesFolderTree( "foo", "node_modules", "bar" ) );
+
+    assertFalse( pattern.matchesFolderTree( "foo" ) );
+  }
+
+  @Test
+  public void matchesFolderTree_falseWithoutTrailingDoubleSlash() {
+    assertFalse( PathPattern.create( "lib/" ).matchesFolderTree( "lib" ) );
+    assertFalse( PathPattern.create( "lib/*" ).matchesFolderTree( "lib" ) );
+  }
+
+  @Test
+  public void matchesFolderTree_falseWithFilePattern() {
+    assertFalse( PathPattern.create( "lib//*.js" ).matchesFolderTree( "lib" ) );
+  }
+
   private static void assertCreateFailsWithTooManySuccessiveSlashes( String expression ) {
     try {
       PathPattern.create( expression );
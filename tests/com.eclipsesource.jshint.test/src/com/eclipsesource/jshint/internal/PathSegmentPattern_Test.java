@@ -8,7 +8,7 @@
  * Contributors:
  *    Ralf Sternberg initial implementation and API
  ******************************************************************************/
-package com.eclipsesource.jshint.ui.internal.preferences;
+package com.eclipsesource.jshint.internal;
 
 import org.junit.Test;
 
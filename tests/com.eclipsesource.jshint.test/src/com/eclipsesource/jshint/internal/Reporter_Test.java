@@ -0,0 +1,194 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Ralf Sternberg - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.io.StringWriter;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.eclipsesource.jshint.CheckResult;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+
+public class Reporter_Test {
+
+  private static final String LINE_SEPARATOR = System.getProperty( "line.separator" );
+
+  private StringWriter writer;
+  private CheckResult emptyResult;
+  private CheckResult result;
+
+  @Before
+  public void setUp() {
+    writer = new StringWriter();
+    emptyResult = mockResult();
+    result = mockResult( problem( 1, 2, "W117", "'a' is not defined" ),
+                         problem( 3, 0, "E019", "Unmatched '{'" ) );
+  }
+
+  @Test
+  public void create() {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    PrintStream printStream = new PrintStream( outputStream );
+
+    assertTrue( Reporter.create( "default", printStream ) instanceof TextReporter );
+    assertTrue( Reporter.create( "jsonl", printStream ) instanceof JsonLinesReporter );
+    assertTrue( Reporter.create( "checkstyle", printStream ) instanceof CheckstyleReporter );
+    assertTrue( Reporter.create( "sarif", printStream ) instanceof SarifReporter );
+  }
+
+  @Test
+  public void create_withUnknownName() {
+    try {
+      Reporter.create( "foo", new PrintStream( new ByteArrayOutputStream() ) );
+      fail();
+    } catch( IllegalArgumentException exception ) {
+      assertEquals( "Unknown reporter: foo", exception.getMessage() );
+    }
+  }
+
+  @Test
+  public void create_isBuffered() throws Exception {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    PrintStream printStream = new PrintStream( outputStream );
+    Reporter reporter = Reporter.create( "jsonl", printStream );
+
+    reporter.reportFile( "/test.js", result );
+
+    assertEquals( 0, outputStream.size() );
+    reporter.flush();
+    assertTrue( outputStream.size() > 0 );
+  }
+
+  @Test
+  public void textReporter() throws Exception {
+    Reporter reporter = new TextReporter( writer );
+
+    report( reporter );
+
+    assertEquals( "Problem in file /test.js at line 1: 'a' is not defined" + LINE_SEPARATOR
+                  + "Problem in file /test.js at line 3: Unmatched '{'" + LINE_SEPARATOR,
+                  writer.toString() );
+  }
+
+  @Test
+  public void jsonLinesReporter() throws Exception {
+    Reporter reporter = new JsonLinesReporter( writer );
+
+    report( reporter );
+
+    assertEquals( "{\"file\":\"/test.js\",\"line\":1,\"character\":2,\"code\":\"W117\","
+                  + "\"message\":\"'a' is not defined\"}\n"
+                  + "{\"file\":\"/test.js\",\"line\":3,\"character\":0,\"code\":\"E019\","
+                  + "\"message\":\"Unmatched '{'\"}\n",
+                  writer.toString() );
+  }
+
+  @Test
+  public void checkstyleReporter() throws Exception {
+    Reporter reporter = new CheckstyleReporter( writer );
+
+    report( reporter );
+
+    assertEquals( "<?xml version=\"1.0\" encoding=\"utf-8\"?>\n"
+                  + "<checkstyle version=\"4.3\">\n"
+                  + "  <file name=\"/empty.js\">\n"
+                  + "  </file>\n"
+                  + "  <file name=\"/test.js\">\n"
+                  + "    <error line=\"1\" column=\"3\" severity=\"warning\""
+                  + " message=\"&apos;a&apos; is not defined\" source=\"jshint.W117\"/>\n"
+                  + "    <error line=\"3\" column=\"1\" severity=\"error\""
+                  + " message=\"Unmatched &apos;{&apos;\" source=\"jshint.E019\"/>\n"
+                  + "  </file>\n"
+                  + "</checkstyle>\n",
+                  writer.toString() );
+  }
+
+  @Test
+  public void checkstyleReporter_escapesXml() throws Exception {
+    Reporter reporter = new CheckstyleReporter( writer );
+
+    reporter.reportFile( "/a&b.js", mockResult( problem( 1, 0, "W000", "<\"&\">\t\u0001" ) ) );
+
+    assertThat( writer.toString(), containsString( "name=\"/a&amp;b.js\"" ) );
+    assertThat( writer.toString(),
+                containsString( "message=\"&lt;&quot;&amp;&quot;&gt;&#9; \"" ) );
+  }
+
+  @Test
+  public void sarifReporter() throws Exception {
+    Reporter reporter = new SarifReporter( writer );
+
+    report( reporter );
+
+    String uri = new File( "/test.js" ).toURI().toString();
+    String expected = "{\"version\":\"2.1.0\","
+                      + "\"$schema\":\"https://json.schemastore.org/sarif-2.1.0.json\","
+                      + "\"runs\":[{\"tool\":{\"driver\":{\"name\":\"JSHint\","
+                      + "\"informationUri\":\"http://jshint.com/\"}},\"results\":[\n"
+                      + "{\"ruleId\":\"W117\",\"level\":\"warning\","
+                      + "\"message\":{\"text\":\"'a' is not defined\"},"
+                      + "\"locations\":[{\"physicalLocation\":{\"artifactLocation\":"
+                      + "{\"uri\":\"" + uri + "\"},"
+                      + "\"region\":{\"startLine\":1,\"startColumn\":3}}}]},\n"
+                      + "{\"ruleId\":\"E019\",\"level\":\"error\","
+                      + "\"message\":{\"text\":\"Unmatched '{'\"},"
+                      + "\"locations\":[{\"physicalLocation\":{\"artifactLocation\":"
+                      + "{\"uri\":\"" + uri + "\"},"
+                      + "\"region\":{\"startLine\":3,\"startColumn\":1}}}]}"
+                      + "]}]}\n";
+    assertEquals( expected, writer.toString() );
+  }
+
+  @Test
+  public void sarifReporter_withoutResults() throws Exception {
+    Reporter reporter = new SarifReporter( writer );
+
+    reporter.begin();
+    reporter.reportFile( "/empty.js", emptyResult );
+    reporter.end();
+
+    assertThat( writer.toString(), containsString( "\"results\":[]}]}" ) );
+  }
+
+  private void report( Reporter reporter ) throws Exception {
+    reporter.begin();
+    reporter.reportFile( "/empty.js", emptyResult );
+    reporter.reportFile( "/test.js", result );
+    reporter.end();
+    reporter.flush();
+  }
+
+  private static Object[] problem( int line, int character, String code, String message ) {
+    return new Object[] { Integer.valueOf( line ), Integer.valueOf( character ), code, message };
+  }
+
+  private static CheckResult mockResult( Object[]... problems ) {
+    CheckResult result = mock( CheckResult.class );
+    when( Integer.valueOf( result.size() ) ).thenReturn( Integer.valueOf( problems.length ) );
+    for( int i = 0; i < problems.length; i++ ) {
+      when( Integer.valueOf( result.getLine( i ) ) ).thenReturn( ( Integer )problems[ i ][ 0 ] );
+      when( Integer.valueOf( result.getCharacter( i ) ) )
+        .thenReturn( ( Integer )problems[ i ][ 1 ] );
+      when( result.getCode( i ) ).thenReturn( ( String )problems[ i ][ 2 ] );
+      when( result.getMessage( i ) ).thenReturn( ( String )problems[ i ][ 3 ] );
+    }
+    return result;
+  }
+
+}
@@ -0,0 +1,319 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Ralf Sternberg - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint.internal;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.eclipsesource.jshint.CheckResult;
+import com.eclipsesource.jshint.Problem;
+import com.eclipsesource.jshint.internal.ResultCache.FileStamp;
+
+import static org.junit.Assert.*;
+
+
+public class ResultCache_Test {
+
+  private static final String FINGERPRINT = ResultCache.fingerprint( "jshint:test", "{}" );
+
+  private File root;
+  private File cacheFile;
+  private File file;
+  private CheckResult result;
+  private ResultCache cache;
+
+  @Before
+  public void setUp() throws IOException {
+    root = File.createTempFile( "jshint-test", ".dir" );
+    root.delete();
+    root.mkdirs();
+    cacheFile = new File( root, "cache" );
+    file = writeFile( "a.js", "a = 1;" );
+    Problem problem = new ProblemImpl( 1, 0, "'a' is not defined", "W117" );
+    result = CheckResult.create( false, Arrays.asList( problem ) );
+    cache = new ResultCache( cacheFile );
+  }
+
+  @After
+  public void tearDown() {
+    File[] files = root.listFiles();
+    for( File child : files ) {
+      child.delete();
+    }
+    root.delete();
+  }
+
+  @Test
+  public void hash() {
+    assertEquals( "da39a3ee5e6b4b0d3255bfef95601890afd80709", ResultCache.hash( new byte[ 0 ] ) );
+  }
+
+  @Test
+  public void fingerprint_differsForDifferentParts() {
+    String fingerprint1 = ResultCache.fingerprint( "jshint:2.9.1", "{}" );
+    String fingerprint2 = ResultCache.fingerprint( "jshint:2.9.1", "{\"undef\":true}" );
+    String fingerprint3 = ResultCache.fingerprint( "jshint:2.9.0", "{}" );
+
+    assertFalse( fingerprint1.equals( fingerprint2 ) );
+    assertFalse( fingerprint1.equals( fingerprint3 ) );
+    assertEquals( fingerprint1, ResultCache.fingerprint( "jshint:2.9.1", "{}" ) );
+  }
+
+  @Test
+  public void get_withoutEntry() {
+    assertNull( cache.get( file, FileStamp.of( file ), FINGERPRINT ) );
+    assertNull( cache.get( file, FileStamp.of( file ), "0000", FINGERPRINT ) );
+  }
+
+  @Test
+  public void get_afterPut() {
+    cache.put( file, FileStamp.of( file ), "0000", FINGERPRINT, result );
+
+    assertSame( result, cache.get( file, FileStamp.of( file ), FINGERPRINT ) );
+    assertSame( result, cache.get( file, FileStamp.of( file ), "0000", FINGERPRINT ) );
+  }
+
+  @Test
+  public void get_withOtherFingerprint() {
+    cache.put( file, FileStamp.of( file ), "0000", FINGERPRINT, result );
+
+    String fingerprint = ResultCache.fingerprint( "other" );
+    assertNull( cache.get( file, FileStamp.of( file ), fingerprint ) );
+    assertNull( cache.get( file, FileStamp.of( file ), "0000", fingerprint ) );
+  }
+
+  @Test
+  public void get_afterModification() throws IOException {
+    cache.put( file, FileStamp.of( file ), "0000", FINGERPRINT, result );
+
+    writeFile( "a.js", "a = 23;" );
+
+    assertNull( cache.get( file, FileStamp.of( file ), FINGERPRINT ) );
+    assertNull( cache.get( file, FileStamp.of( file ), "1111", FINGERPRINT ) );
+  }
+
+  @Test
+  public void get_withSameContent_updatesStamp() throws IOException {
+    cache.put( file, FileStamp.of( file ), "0000", FINGERPRINT, result );
+    file.setLastModified( file.lastModified() - 10000 );
+
+    assertNull( cache.get( file, FileStamp.of( file ), FINGERPRINT ) );
+    assertSame( result, cache.get( file, FileStamp.of( file ), "0000", FINGERPRINT ) );
+    assertSame( result, cache.get( file, FileStamp.of( file ), FINGERPRINT ) );
+  }
+
+  @Test
+  public void get_withFileModifiedWhenStamped() {
+    file.setLastModified( System.currentTimeMillis() / 1000 * 1000 );
+    cache.put( file, FileStamp.of( file ), "0000", FINGERPRINT, result );
+
+    // a modification in the same second would not change the stamp
+    assertNull( cache.get( file, FileStamp.of( file ), FINGERPRINT ) );
+    assertSame( result, cache.get( file, FileStamp.of( file ), "0000", FINGERPRINT ) );
+  }
+
+  @Test
+  public void get_withSameContentInOtherFile() throws IOException {
+    cache.put( file, FileStamp.of( file ), "0000", FINGERPRINT, result );
+    File otherFile = writeFile( "b.js", "a = 1;" );
+
+    assertNull( cache.get( otherFile, FileStamp.of( otherFile ), FINGERPRINT ) );
+    FileStamp stamp = FileStamp.of( otherFile );
+    assertSame( result, cache.get( otherFile, stamp, "0000", FINGERPRINT ) );
+  }
+
+  @Test
+  public void put_withFileModifiedAfterStamp() throws IOException {
+    FileStamp stamp = FileStamp.of( file );
+    writeFile( "a.js", "a = 23;" );
+
+    cache.put( file, stamp, "0000", FINGERPRINT, result );
+
+    assertNull( cache.get( file, FileStamp.of( file ), FINGERPRINT ) );
+    assertNull( cache.get( file, FileStamp.of( file ), "0000", FINGERPRINT ) );
+  }
+
+  @Test
+  public void get_withSameContent_withFileModifiedAfterStamp() throws IOException {
+    cache.put( file, FileStamp.of( file ), "0000", FINGERPRINT, result );
+    FileStamp stamp = FileStamp.of( file );
+    writeFile( "a.js", "a = 23;" );
+
+    assertSame( result, cache.get( file, stamp, "0000", FINGERPRINT ) );
+    assertNull( cache.get( file, FileStamp.of( file ), FINGERPRINT ) );
+  }
+
+  @Test
+  public void load_withoutFile() throws IOException {
+    cache.load();
+
+    assertNull( cache.get( file, FileStamp.of( file ), FINGERPRINT ) );
+  }
+
+  @Test
+  public void save_andLoad() throws IOException {
+    cache.put( file, FileStamp.of( file ), "0000", FINGERPRINT, result );
+    cache.save();
+
+    ResultCache loaded = new ResultCache( cacheFile );
+    loaded.load();
+
+    CheckResult loadedResult = loaded.get( file, FileStamp.of( file ), FINGERPRINT );
+    assertFalse( loadedResult.isValid() );
+    assertEquals( 1, loadedResult.size() );
+    assertEquals( 1, loadedResult.getLine( 0 ) );
+    assertEquals( 0, loadedResult.getCharacter( 0 ) );
+    assertEquals( "W117", loadedResult.getCode( 0 ) );
+    assertEquals( "'a' is not defined", loadedResult.getMessage( 0 ) );
+  }
+
+  @Test
+  public void save_appendsNewEntries() throws IOException {
+    cache.put( file, FileStamp.of( file ), "0000", FINGERPRINT, result );
+    cache.save();
+    ResultCache cache2 = new ResultCache( cacheFile );
+    cache2.load();
+    File otherFile = writeFile( "b.js", "b = 2;" );
+    cache2.put( otherFile, FileStamp.of( otherFile ), "1111", FINGERPRINT, result );
+
+    cache2.save();
+
+    assertEquals( 2, readLines( cacheFile ).size() );
+  }
+
+  @Test
+  public void save_withoutNewEntries_doesNotCreateFile() throws IOException {
+    cache.save();
+
+    assertFalse( cacheFile.exists() );
+  }
+
+  @Test
+  public void save_compactsOutdatedEntries() throws IOException {
+    for( int i = 0; i < 5; i++ ) {
+      cache.put( file, FileStamp.of( file ), "000" + i, FINGERPRINT, result );
+      cache.save();
+    }
+
+    List<String> lines = readLines( cacheFile );
+    assertTrue( lines.size() < 5 );
+    ResultCache loaded = new ResultCache( cacheFile );
+    loaded.load();
+    assertNotNull( loaded.get( file, FileStamp.of( file ), "0004", FINGERPRINT ) );
+  }
+
+  @Test
+  public void save_dropsEntriesOfOtherFingerprints() throws IOException {
+    String oldFingerprint = ResultCache.fingerprint( "jshint:old", "{}" );
+    cache.put( file, FileStamp.of( file ), "0000", oldFingerprint, result );
+    cache.save();
+    ResultCache cache2 = new ResultCache( cacheFile );
+    cache2.load();
+
+    for( int i = 1; i < 4; i++ ) {
+      cache2.put( file, FileStamp.of( file ), "000" + i, FINGERPRINT, result );
+    }
+    cache2.save();
+
+    assertEquals( 1, readLines( cacheFile ).size() );
+    assertNull( cache2.get( file, FileStamp.of( file ), "0000", oldFingerprint ) );
+  }
+
+  @Test
+  public void save_dropsEntriesOfDeletedFiles() throws IOException {
+    File otherFile = writeFile( "b.js", "b = 2;" );
+    cache.put( otherFile, FileStamp.of( otherFile ), "1111", FINGERPRINT, result );
+    cache.save();
+    ResultCache cache2 = new ResultCache( cacheFile );
+    cache2.load();
+    otherFile.delete();
+
+    for( int i = 1; i < 4; i++ ) {
+      cache2.put( file, FileStamp.of( file ), "000" + i, FINGERPRINT, result );
+    }
+    cache2.save();
+
+    assertEquals( 1, readLines( cacheFile ).size() );
+    assertNull( cache2.get( otherFile, FileStamp.of( otherFile ), "1111", FINGERPRINT ) );
+  }
+
+  @Test
+  public void save_keepsEntriesOfExistingFiles() throws IOException {
+    File otherFile = writeFile( "b.js", "b = 2;" );
+    cache.put( otherFile, FileStamp.of( otherFile ), "1111", FINGERPRINT, result );
+    cache.save();
+    ResultCache cache2 = new ResultCache( cacheFile );
+    cache2.load();
+
+    for( int i = 1; i < 5; i++ ) {
+      cache2.put( file, FileStamp.of( file ), "000" + i, FINGERPRINT, result );
+    }
+    cache2.save();
+
+    assertEquals( 2, readLines( cacheFile ).size() );
+    assertNotNull( cache2.get( otherFile, FileStamp.of( otherFile ), FINGERPRINT ) );
+  }
+
+  @Test
+  public void load_ignoresCorruptLines() throws IOException {
+    cache.put( file, FileStamp.of( file ), "0000", FINGERPRINT, result );
+    cache.save();
+    FileOutputStream outputStream = new FileOutputStream( cacheFile, true );
+    outputStream.write( "{\"file\":\"/foo\",\"len".getBytes( "UTF-8" ) );
+    outputStream.close();
+
+    ResultCache loaded = new ResultCache( cacheFile );
+    loaded.load();
+
+    assertNotNull( loaded.get( file, FileStamp.of( file ), FINGERPRINT ) );
+  }
+
+  private File writeFile( String path, String content ) throws IOException {
+    File file = new File( root, path );
+    FileOutputStream outputStream = new FileOutputStream( file );
+    try {
+      outputStream.write( content.getBytes( "UTF-8" ) );
+    } finally {
+      outputStream.close();
+    }
+    // stamps of files that have been modified just now are not trusted
+    file.setLastModified( ( System.currentTimeMillis() - 10000 ) / 1000 * 1000 );
+    return file;
+  }
+
+  private static List<String> readLines( File file ) throws IOException {
+    List<String> lines = new ArrayList<String>();
+    FileInputStream inputStream = new FileInputStream( file );
+    try {
+      BufferedReader reader = new BufferedReader( new InputStreamReader( inputStream, "UTF-8" ) );
+      String line = reader.readLine();
+      while( line != null ) {
+        lines.add( line );
+        line = reader.readLine();
+      }
+    } finally {
+      inputStream.close();
+    }
+    return lines;
+  }
+
+}
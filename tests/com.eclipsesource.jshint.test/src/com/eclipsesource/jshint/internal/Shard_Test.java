@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Ralf Sternberg - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+public class Shard_Test {
+
+  @Test
+  public void parse() {
+    Shard shard = Shard.parse( "1/1" );
+
+    assertTrue( shard.contains( "foo.js" ) );
+  }
+
+  @Test
+  public void parse_invalid() {
+    assertParseFails( "" );
+    assertParseFails( "1" );
+    assertParseFails( "1/" );
+    assertParseFails( "a/2" );
+    assertParseFails( "0/2" );
+    assertParseFails( "3/2" );
+    assertParseFails( "1/0" );
+  }
+
+  @Test
+  public void contains_partitionsPaths() {
+    Shard[] shards = { new Shard( 1, 3 ), new Shard( 2, 3 ), new Shard( 3, 3 ) };
+    int[] counts = new int[ shards.length ];
+
+    for( int i = 0; i < 300; i++ ) {
+      String path = "src/module" + i / 10 + "/file" + i + ".js";
+      int found = 0;
+      for( int j = 0; j < shards.length; j++ ) {
+        if( shards[ j ].contains( path ) ) {
+          counts[ j ]++;
+          found++;
+        }
+      }
+      assertEquals( 1, found );
+    }
+
+    for( int count : counts ) {
+      assertTrue( "uneven shards: " + Arrays.toString( counts ), count > 70 );
+    }
+  }
+
+  @Test
+  public void contains_isStable() {
+    assertEquals( new Shard( 2, 5 ).contains( "a/b.js" ), new Shard( 2, 5 ).contains( "a/b.js" ) );
+  }
+
+  @Test
+  public void selectBySize_balancesSizes() {
+    List<String> paths = Arrays.asList( "a.js", "b.js", "c.js", "d.js" );
+    List<Long> lengths = Arrays.asList( Long.valueOf( 10 ),
+                                        Long.valueOf( 40 ),
+                                        Long.valueOf( 20 ),
+                                        Long.valueOf( 30 ) );
+
+    assertEquals( indexes( 0, 1 ), new Shard( 1, 2 ).selectBySize( paths, lengths ) );
+    assertEquals( indexes( 2, 3 ), new Shard( 2, 2 ).selectBySize( paths, lengths ) );
+  }
+
+  @Test
+  public void selectBySize_independentOfOrder() {
+    List<String> paths = Arrays.asList( "a.js", "b.js", "c.js" );
+    List<String> reversed = Arrays.asList( "c.js", "b.js", "a.js" );
+    List<Long> lengths = Arrays.asList( Long.valueOf( 5 ), Long.valueOf( 5 ), Long.valueOf( 5 ) );
+
+    assertEquals( indexes( 0, 2 ), new Shard( 1, 2 ).selectBySize( paths, lengths ) );
+    assertEquals( indexes( 0, 2 ), new Shard( 1, 2 ).selectBySize( reversed, lengths ) );
+  }
+
+  @Test
+  public void selectBySize_empty() {
+    List<Integer> selected = new Shard( 1, 2 ).selectBySize( new ArrayList<String>(),
+                                                             new ArrayList<Long>() );
+
+    assertTrue( selected.isEmpty() );
+  }
+
+  private static List<Integer> indexes( int... values ) {
+    List<Integer> result = new ArrayList<Integer>();
+    for( int value : values ) {
+      result.add( Integer.valueOf( value ) );
+    }
+    return result;
+  }
+
+  private static void assertParseFails( String value ) {
+    try {
+      Shard.parse( value );
+      fail();
+    } catch( IllegalArgumentException exception ) {
+      assertEquals( "Invalid shard: " + value, exception.getMessage() );
+    }
+  }
+
+}
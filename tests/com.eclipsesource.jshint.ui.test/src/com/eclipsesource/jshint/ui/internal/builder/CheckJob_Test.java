@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Ralf Sternberg - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint.ui.internal.builder;
+
+import java.util.Arrays;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.CoreException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgi.service.prefs.BackingStoreException;
+
+import com.eclipsesource.jshint.ui.internal.preferences.PreferencesFactory;
+
+import static com.eclipsesource.jshint.ui.test.TestUtil.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class CheckJob_Test {
+
+  private IProject project;
+
+  @Before
+  public void setUp() throws BackingStoreException {
+    PreferencesFactory.getWorkspacePreferences().clear();
+    project = createProject( "test" );
+  }
+
+  @After
+  public void tearDown() {
+    deleteProject( project );
+  }
+
+  @Test
+  public void createsMarkers() throws Exception {
+    IFile file = createFile( project, "/test.js", "test content" );
+    CheckJob job = new CheckJob( project );
+
+    job.addFiles( Arrays.asList( file ) );
+    job.join();
+
+    assertTrue( findMarkers( file ).length > 0 );
+  }
+
+  @Test
+  public void continuesAfterUnreadableFile() throws Exception {
+    IFile unreadableFile = createFile( project, "/a.js", "test content" );
+    IFile file = createFile( project, "/b.js", "test content" );
+    // the file is out of sync with the file system and cannot be read
+    unreadableFile.getLocation().toFile().delete();
+    CheckJob job = new CheckJob( project );
+
+    job.addFiles( Arrays.asList( unreadableFile, file ) );
+    job.join();
+
+    assertEquals( 0, findMarkers( unreadableFile ).length );
+    assertTrue( findMarkers( file ).length > 0 );
+  }
+
+  private static IMarker[] findMarkers( IFile file ) throws CoreException {
+    return file.findMarkers( "com.eclipsesource.jshint.ui.problemmarker", true, 0 );
+  }
+
+}
@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Ralf Sternberg - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint.ui.internal.builder;
+
+import java.util.Collections;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.jobs.Job;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.eclipsesource.jshint.ui.internal.Activator;
+
+import static com.eclipsesource.jshint.ui.test.TestUtil.*;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+
+public class CheckScheduler_Test {
+
+  private IProject project;
+  private CheckScheduler scheduler;
+
+  @Before
+  public void setUp() {
+    project = createProject( "test" );
+    scheduler = new CheckScheduler();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    scheduler.cancelAll();
+    Job.getJobManager().join( CheckJob.FAMILY, null );
+    deleteProject( project );
+  }
+
+  @Test
+  public void schedule_reusesJobOfProject() {
+    scheduler.schedule( project, Collections.<IFile>emptyList() );
+    CheckJob job = scheduler.getJob( project );
+
+    scheduler.schedule( project, Collections.<IFile>emptyList() );
+
+    assertNotNull( job );
+    assertSame( job, scheduler.getJob( project ) );
+  }
+
+  @Test
+  public void remove_dropsJob() {
+    scheduler.schedule( project, Collections.<IFile>emptyList() );
+
+    scheduler.remove( project );
+
+    assertNull( scheduler.getJob( project ) );
+  }
+
+  @Test
+  public void sharedSchedulerDropsJobWhenProjectIsClosed() throws CoreException {
+    CheckScheduler sharedScheduler = Activator.getDefault().getCheckScheduler();
+    sharedScheduler.schedule( project, Collections.<IFile>emptyList() );
+
+    project.close( null );
+
+    assertNull( sharedScheduler.getJob( project ) );
+  }
+
+}
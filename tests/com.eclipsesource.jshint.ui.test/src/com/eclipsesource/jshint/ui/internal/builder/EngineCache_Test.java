@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Ralf Sternberg - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint.ui.internal.builder;
+
+import java.io.ByteArrayInputStream;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.CoreException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgi.service.prefs.BackingStoreException;
+
+import com.eclipsesource.jshint.CheckResult;
+import com.eclipsesource.jshint.JSHint;
+import com.eclipsesource.jshint.JSHintPool;
+import com.eclipsesource.jshint.Text;
+import com.eclipsesource.jshint.ui.internal.Activator;
+import com.eclipsesource.jshint.ui.internal.preferences.OptionsPreferences;
+import com.eclipsesource.jshint.ui.internal.preferences.PreferencesFactory;
+
+import static com.eclipsesource.jshint.ui.test.TestUtil.createFile;
+import static com.eclipsesource.jshint.ui.test.TestUtil.createProject;
+import static com.eclipsesource.jshint.ui.test.TestUtil.deleteProject;
+import static org.junit.Assert.*;
+
+
+public class EngineCache_Test {
+
+  private IProject project;
+  private EngineCache cache;
+
+  @Before
+  public void setUp() {
+    project = createProject( "test" );
+    cache = new EngineCache();
+  }
+
+  @After
+  public void tearDown() throws BackingStoreException {
+    deleteProject( project );
+    PreferencesFactory.getWorkspacePreferences().clear();
+  }
+
+  @Test
+  public void returnsSamePoolForUnchangedProject() throws CoreException {
+    JSHintPool pool = cache.getPool( project );
+
+    assertSame( pool, cache.getPool( project ) );
+  }
+
+  @Test
+  public void createsNewPoolAfterRemove() throws CoreException {
+    JSHintPool pool = cache.getPool( project );
+
+    cache.remove( project );
+
+    assertNotSame( pool, cache.getPool( project ) );
+  }
+
+  @Test
+  public void reconfiguresWhenWorkspaceConfigChanges() throws Exception {
+    OptionsPreferences workspacePrefs = getWorkspacePrefs();
+    workspacePrefs.setConfig( "{\"undef\": false}" );
+    JSHintPool pool = cache.getPool( project );
+
+    workspacePrefs.setConfig( "{\"undef\": true}" );
+
+    assertSame( pool, cache.getPool( project ) );
+    assertEquals( 1, check( pool, "a = 1;" ).size() );
+  }
+
+  @Test
+  public void reconfiguresWhenConfigFileChanges() throws Exception {
+    getProjectPrefs().setProjectSpecific( true );
+    IFile configFile = createFile( project, ".jshintrc", "{\"undef\": false}" );
+    JSHintPool pool = cache.getPool( project );
+
+    String content = "{\"undef\": true}";
+    configFile.setContents( new ByteArrayInputStream( content.getBytes() ), true, false, null );
+
+    assertSame( pool, cache.getPool( project ) );
+    assertEquals( 1, check( pool, "a = 1;" ).size() );
+  }
+
+  @Test
+  public void sharedCacheDropsPoolWhenProjectIsClosed() throws CoreException {
+    EngineCache sharedCache = Activator.getDefault().getEngineCache();
+    JSHintPool pool = sharedCache.getPool( project );
+
+    project.close( null );
+    project.open( null );
+
+    assertNotSame( pool, sharedCache.getPool( project ) );
+  }
+
+  private static CheckResult check( JSHintPool pool, String code ) throws InterruptedException {
+    JSHint jshint = pool.borrow();
+    try {
+      return jshint.check( new Text( code ) );
+    } finally {
+      pool.release( jshint );
+    }
+  }
+
+  private static OptionsPreferences getWorkspacePrefs() {
+    return new OptionsPreferences( PreferencesFactory.getWorkspacePreferences() );
+  }
+
+  private OptionsPreferences getProjectPrefs() {
+    return new OptionsPreferences( PreferencesFactory.getProjectPreferences( project ) );
+  }
+
+}
@@ -11,10 +11,13 @@
 package com.eclipsesource.jshint.ui.internal.builder;
 
 import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.jobs.Job;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -22,9 +25,11 @@ import org.osgi.service.prefs.BackingStoreException;
 import org.osgi.service.prefs.Preferences;
 
 import com.eclipsesource.jshint.ui.internal.preferences.EnablementPreferences;
+import com.eclipsesource.jshint.ui.internal.preferences.JSHintPreferences;
 import com.eclipsesource.jshint.ui.internal.preferences.PreferencesFactory;
 
 import static com.eclipsesource.jshint.ui.test.TestUtil.*;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -91,6 +96,73 @@ public class JSHintBuilderVisitor_Test {
     assertFalse( visitor.visit( file ) );
   }
 
+  @Test
+  public void doesNotTouchPrunedFolder() throws CoreException {
+    IFolder folder = createFolder( project, "lib" );
+    IFile libFile = createFile( project, "/lib/test.js", "test content" );
+    new MarkerAdapter( libFile ).createWarning( 1, 0, 0, "old" );
+    addIncludePattern( project, "/src/" );
+    JSHintBuilderVisitor visitor = new JSHintBuilderVisitor( project, monitor );
+
+    assertFalse( visitor.visit( folder ) );
+    assertEquals( 1, findMarkers( libFile ).length );
+  }
+
+  @Test
+  public void createsMarkersOnFinish() throws CoreException {
+    addIncludePattern( project, "/test.js" );
+    JSHintBuilderVisitor visitor = new JSHintBuilderVisitor( project, monitor );
+
+    try {
+      visitor.visit( file );
+      visitor.finish();
+    } finally {
+      visitor.dispose();
+    }
+
+    assertTrue( findMarkers( file ).length > 0 );
+  }
+
+  @Test
+  public void keepsMarkersWhenCancelledBeforeFinish() throws CoreException {
+    addIncludePattern( project, "/test.js" );
+    new MarkerAdapter( file ).createWarning( 1, 0, 0, "old" );
+    JSHintBuilderVisitor visitor = new JSHintBuilderVisitor( project, monitor );
+
+    try {
+      visitor.visit( file );
+      monitor.setCanceled( true );
+      visitor.finish();
+    } finally {
+      visitor.dispose();
+    }
+
+    assertEquals( 1, findMarkers( file ).length );
+  }
+
+  @Test
+  public void checksInBackgroundJobWhenEnabled() throws Exception {
+    addIncludePattern( project, "/test.js" );
+    JSHintPreferences preferences = new JSHintPreferences();
+    preferences.setCheckInBackground( true );
+    preferences.save();
+    JSHintBuilderVisitor visitor = new JSHintBuilderVisitor( project, monitor );
+
+    try {
+      visitor.visit( file );
+      visitor.finish();
+    } finally {
+      visitor.dispose();
+    }
+    Job.getJobManager().join( CheckJob.FAMILY, null );
+
+    assertTrue( findMarkers( file ).length > 0 );
+  }
+
+  private static IMarker[] findMarkers( IFile file ) throws CoreException {
+    return file.findMarkers( "com.eclipsesource.jshint.ui.problemmarker", true, 0 );
+  }
+
   private void addIncludePattern( IProject project, String... pattern ) {
     Preferences projectPrefsNode = PreferencesFactory.getProjectPreferences( project );
     new EnablementPreferences( projectPrefsNode ).setIncludePatterns( list( pattern ) );
@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (c) 2016 EclipseSource.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Ralf Sternberg - initial implementation and API
+ ******************************************************************************/
+package com.eclipsesource.jshint.ui.internal.builder;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.CoreException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static com.eclipsesource.jshint.ui.test.TestUtil.*;
+import static org.junit.Assert.assertEquals;
+
+
+public class MarkerReconciler_Test {
+
+  private static final String TYPE_PROBLEM = "com.eclipsesource.jshint.ui.problemmarker";
+  private static final String TYPE_PROBLEM_OLD = "com.eclipsesource.jshint.problemmarker";
+  private static final String TEST_PROJECT = "jshint.ui.test.project";
+  private IProject project;
+  private IFile file;
+
+  @Before
+  public void setUp() {
+    project = createProject( TEST_PROJECT );
+    file = createFile( project, "/test.js", "test" );
+  }
+
+  @After
+  public void tearDown() {
+    deleteProject( project );
+  }
+
+  @Test
+  public void apply_createsMarkers() throws CoreException {
+    MarkerReconciler reconciler = new MarkerReconciler( file );
+    reconciler.createWarning( 1, 0, 0, "foo" );
+    reconciler.createError( 1, 2, 2, "bar" );
+
+    reconciler.apply();
+
+    IMarker[] markers = findMarkers( file );
+    assertEquals( 2, markers.length );
+  }
+
+  @Test
+  public void apply_doesNotCreateMarkersBeforeApply() throws CoreException {
+    MarkerReconciler reconciler = new MarkerReconciler( file );
+
+    reconciler.createWarning( 1, 0, 0, "foo" );
+
+    assertEquals( 0, findMarkers( file ).length );
+  }
+
+  @Test
+  public void apply_keepsUnchangedMarkers() throws CoreException {
+    new MarkerAdapter( file ).createWarning( 1, 0, 0, "foo" );
+    long id = findMarkers( file )[ 0 ].getId();
+    MarkerReconciler reconciler = new MarkerReconciler( file );
+    reconciler.createWarning( 1, 0, 0, "foo" );
+
+    reconciler.apply();
+
+    IMarker[] markers = findMarkers( file );
+    assertEquals( 1, markers.length );
+    assertEquals( id, markers[ 0 ].getId() );
+  }
+
+  @Test
+  public void apply_keepsMarkersWithAdditionalAttributes() throws CoreException {
+    new MarkerAdapter( file ).createWarning( 1, 0, 0, "foo" );
+    IMarker marker = findMarkers( file )[ 0 ];
+    marker.setAttribute( "quickfix.applied", true );
+    MarkerReconciler reconciler = new MarkerReconciler( file );
+    reconciler.createWarning( 1, 0, 0, "foo" );
+
+    reconciler.apply();
+
+    IMarker[] markers = findMarkers( file );
+    assertEquals( 1, markers.length );
+    assertEquals( marker.getId(), markers[ 0 ].getId() );
+  }
+
+  @Test
+  public void apply_replacesChangedMarkers() throws CoreException {
+    new MarkerAdapter( file ).createWarning( 1, 0, 0, "foo" );
+    MarkerReconciler reconciler = new MarkerReconciler( file );
+    reconciler.createWarning( 2, 0, 0, "foo" );
+
+    reconciler.apply();
+
+    IMarker[] markers = findMarkers( file );
+    assertEquals( 1, markers.length );
+    assertEquals( Integer.valueOf( 2 ), markers[ 0 ].getAttribute( IMarker.LINE_NUMBER ) );
+  }
+
+  @Test
+  public void apply_removesObsoleteMarkers() throws CoreException {
+    new MarkerAdapter( file ).createWarning( 1, 0, 0, "foo" );
+
+    new MarkerReconciler( file ).apply();
+
+    assertEquals( 0, findMarkers( file ).length );
+  }
+
+  @Test
+  public void apply_keepsDuplicateProblems() throws CoreException {
+    new MarkerAdapter( file ).createWarning( 1, 0, 0, "foo" );
+    MarkerReconciler reconciler = new MarkerReconciler( file );
+    reconciler.createWarning( 1, 0, 0, "foo" );
+    reconciler.createWarning( 1, 0, 0, "foo" );
+
+    reconciler.apply();
+
+    assertEquals( 2, findMarkers( file ).length );
+  }
+
+  @Test
+  public void apply_removesOldMarkers() throws CoreException {
+    file.createMarker( TYPE_PROBLEM_OLD );
+
+    new MarkerReconciler( file ).apply();
+
+    assertEquals( 0, file.findMarkers( TYPE_PROBLEM_OLD, true, IResource.DEPTH_ZERO ).length );
+  }
+
+  private static IMarker[] findMarkers( IResource resource ) throws CoreException {
+    return resource.findMarkers( TYPE_PROBLEM, true, IResource.DEPTH_INFINITE );
+  }
+
+}
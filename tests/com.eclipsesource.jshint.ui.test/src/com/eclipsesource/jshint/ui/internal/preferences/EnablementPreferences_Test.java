@@ -37,6 +37,7 @@ public class EnablementPreferences_Test {
   public void defaults() {
     assertTrue( prefs.getIncludePatterns().isEmpty() );
     assertTrue( prefs.getExcludePatterns().isEmpty() );
+    assertFalse( prefs.getExcludeDerived() );
     assertFalse( prefs.hasChanged() );
   }
 
@@ -138,6 +139,35 @@ public class EnablementPreferences_Test {
     assertFalse( prefs.getIncludePatterns().contains( "" ) );
   }
 
+  @Test
+  public void setExcludeDerived() {
+    prefs.setExcludeDerived( true );
+
+    assertTrue( prefs.getExcludeDerived() );
+    assertTrue( prefs.hasChanged() );
+  }
+
+  @Test
+  public void setExcludeDerived_unchanged() {
+    prefs.setExcludeDerived( false );
+
+    assertFalse( prefs.getExcludeDerived() );
+    assertFalse( prefs.hasChanged() );
+    assertTrue( isEmpty( node ) );
+  }
+
+  @Test
+  public void setExcludeDerived_reset() {
+    prefs.setExcludeDerived( true );
+    prefs.clearChanged();
+
+    prefs.setExcludeDerived( false );
+
+    assertFalse( prefs.getExcludeDerived() );
+    assertTrue( prefs.hasChanged() );
+    assertTrue( isEmpty( node ) );
+  }
+
   @Test
   public void clearChanged() {
     prefs.setExcludePatterns( list( "/foo" ) );
@@ -33,6 +33,7 @@ public class JSHintPreferences_Test {
     assertFalse( prefs.getUseCustomLib() );
     assertEquals( "", prefs.getCustomLibPath() );
     assertFalse( prefs.getEnableErrorMarkers() );
+    assertFalse( prefs.getCheckInBackground() );
   }
 
   @Test
@@ -41,6 +42,7 @@ public class JSHintPreferences_Test {
     prefs.setUseCustomLib( true );
     prefs.setCustomLibPath( "foo" );
     prefs.setEnableErrorMarkers( true );
+    prefs.setCheckInBackground( true );
     prefs.save();
 
     prefs.resetToDefaults();
@@ -49,6 +51,7 @@ public class JSHintPreferences_Test {
     assertFalse( prefs.getUseCustomLib() );
     assertEquals( "", prefs.getCustomLibPath() );
     assertFalse( prefs.getEnableErrorMarkers() );
+    assertFalse( prefs.getCheckInBackground() );
   }
 
   @Test
@@ -91,6 +94,26 @@ public class JSHintPreferences_Test {
     assertFalse( prefs.hasChanged() );
   }
 
+  @Test
+  public void setCheckInBackground() {
+    JSHintPreferences prefs = new JSHintPreferences();
+
+    prefs.setCheckInBackground( true );
+
+    assertTrue( prefs.hasChanged() );
+    assertTrue( prefs.getCheckInBackground() );
+    assertFalse( new JSHintPreferences().getCheckInBackground() );
+  }
+
+  @Test
+  public void setCheckInBackground_unchanged() {
+    JSHintPreferences prefs = new JSHintPreferences();
+
+    prefs.setCheckInBackground( prefs.getCheckInBackground() );
+
+    assertFalse( prefs.hasChanged() );
+  }
+
   @Test
   public void setCustomLibPath() {
     JSHintPreferences prefs = new JSHintPreferences();
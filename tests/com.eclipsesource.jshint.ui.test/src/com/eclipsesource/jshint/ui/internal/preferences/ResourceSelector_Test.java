@@ -26,6 +26,7 @@ public class ResourceSelector_Test {
   private IProject project;
   private EnablementPreferences preferences;
   private IFolder src;
+  private IFolder bin;
   private IFile test_js;
   private IFile test_txt;
   private IFile src_test_js;
@@ -35,7 +36,7 @@ public class ResourceSelector_Test {
   public void setUp() {
     project = createProject( "test" );
     src = createFolder( project, "src" );
-    createFolder( project, "bin" );
+    bin = createFolder( project, "bin" );
     test_js = createFile( project, "test.js", "content" );
     test_txt = createFile( project, "test.txt", "content" );
     src_test_js = createFile( project, "src/test.js", "content" );
@@ -90,13 +91,76 @@ public class ResourceSelector_Test {
   @Test
   public void allowVisitFolder_trueWhenExcluded() {
     // true because sub-folders are not excluded
-    preferences.setIncludePatterns( list( "*" ) );
+    preferences.setIncludePatterns( list( "//*" ) );
     preferences.setExcludePatterns( list( "/src/" ) );
     ResourceSelector selector = new ResourceSelector( project );
 
     assertTrue( selector.allowVisitFolder( src ) );
   }
 
+  @Test
+  public void allowVisitFolder_trueForProject() {
+    preferences.setIncludePatterns( list( "/src/" ) );
+    ResourceSelector selector = new ResourceSelector( project );
+
+    assertTrue( selector.allowVisitFolder( project ) );
+  }
+
+  @Test
+  public void allowVisitFolder_falseWhenNotIncluded() {
+    preferences.setIncludePatterns( list( "/src/" ) );
+    ResourceSelector selector = new ResourceSelector( project );
+
+    assertFalse( selector.allowVisitFolder( bin ) );
+  }
+
+  @Test
+  public void allowVisitFolder_falseWhenOnlyRootFilesIncluded() {
+    preferences.setIncludePatterns( list( "*" ) );
+    ResourceSelector selector = new ResourceSelector( project );
+
+    assertFalse( selector.allowVisitFolder( src ) );
+  }
+
+  @Test
+  public void allowVisitFolder_falseWhenTreeExcluded() {
+    preferences.setIncludePatterns( list( "//*" ) );
+    preferences.setExcludePatterns( list( "/bin//" ) );
+    ResourceSelector selector = new ResourceSelector( project );
+
+    assertFalse( selector.allowVisitFolder( bin ) );
+    assertTrue( selector.allowVisitFolder( src ) );
+  }
+
+  @Test
+  public void allowVisitFolder_falseWhenTeamPrivate() throws Exception {
+    bin.setTeamPrivateMember( true );
+    preferences.setIncludePatterns( list( "//*" ) );
+    ResourceSelector selector = new ResourceSelector( project );
+
+    assertFalse( selector.allowVisitFolder( bin ) );
+  }
+
+  @Test
+  public void allowVisitFolder_trueWhenDerived() throws Exception {
+    bin.setDerived( true );
+    preferences.setIncludePatterns( list( "//*" ) );
+    ResourceSelector selector = new ResourceSelector( project );
+
+    assertTrue( selector.allowVisitFolder( bin ) );
+  }
+
+  @Test
+  public void allowVisitFolder_falseWhenDerivedExcluded() throws Exception {
+    bin.setDerived( true );
+    preferences.setIncludePatterns( list( "//*" ) );
+    preferences.setExcludeDerived( true );
+    ResourceSelector selector = new ResourceSelector( project );
+
+    assertFalse( selector.allowVisitFolder( bin ) );
+    assertTrue( selector.allowVisitFolder( src ) );
+  }
+
   @Test
   public void allowVisitFile_falseByDefault() {
     ResourceSelector selector = new ResourceSelector( project );
@@ -145,6 +209,17 @@ public class ResourceSelector_Test {
     assertFalse( selector.allowVisitFile( bin_test_js ) );
   }
 
+  @Test
+  public void allowVisitFile_falseWhenDerivedExcluded() throws Exception {
+    test_js.setDerived( true );
+    preferences.setIncludePatterns( list( "//*.js" ) );
+    preferences.setExcludeDerived( true );
+    ResourceSelector selector = new ResourceSelector( project );
+
+    assertFalse( selector.allowVisitFile( test_js ) );
+    assertTrue( selector.allowVisitFile( src_test_js ) );
+  }
+
   @Test
   public void understandPathSegments() {
     createFolder( project, "foo" );